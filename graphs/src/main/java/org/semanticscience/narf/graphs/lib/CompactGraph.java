@@ -0,0 +1,488 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jgrapht.UndirectedGraph;
+import org.semanticscience.narf.graphs.nucleicacid.InteractionEdge;
+import org.semanticscience.narf.graphs.nucleicacid.NucleicAcid;
+import org.semanticscience.narf.structures.interactions.BasePair;
+import org.semanticscience.narf.structures.interactions.BaseStack;
+import org.semanticscience.narf.structures.interactions.NucleotideInteraction;
+import org.semanticscience.narf.structures.interactions.PhosphodiesterBond;
+import org.semanticscience.narf.structures.parts.Nucleotide;
+
+/**
+ * An immutable compressed sparse row snapshot of an undirected graph. Every
+ * vertex and every edge is mapped to a dense integer id, and the neighbours
+ * of vertex v are stored in the int arrays of this graph between positions
+ * {@link #getAdjacencyStart(int)} and {@link #getAdjacencyEnd(int)}. Cycle
+ * algorithms work on the ids and only translate back to the vertices and
+ * edges of the original graph when building their results.
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class CompactGraph<V, E> {
+	/**
+	 * Interaction type bit set on edges that have a base pair
+	 */
+	public static final int BASE_PAIR = 1;
+	/**
+	 * Interaction type bit set on edges that have a base stack
+	 */
+	public static final int BASE_STACK = 2;
+	/**
+	 * Interaction type bit set on edges that have a phosphodiester bond
+	 */
+	public static final int PHOSPHODIESTER_BOND = 4;
+
+	/**
+	 * The graph this snapshot was taken from
+	 */
+	private final UndirectedGraph<V, E> baseGraph;
+	/**
+	 * The vertices indexed by their id
+	 */
+	private final List<V> vertices;
+	/**
+	 * The edges indexed by their id
+	 */
+	private final List<E> edges;
+	/**
+	 * The id of every vertex
+	 */
+	private final Map<V, Integer> vertexIds;
+	/**
+	 * The id of every edge. Edges are looked up by identity, as
+	 * {@link InteractionEdge} does not override equals
+	 */
+	private final Map<E, Integer> edgeIds;
+	/**
+	 * The source and target vertex id of every edge
+	 */
+	private final int[] edgeSource;
+	private final int[] edgeTarget;
+	/**
+	 * The interaction type bits of every edge, zero if unknown
+	 */
+	private final int[] edgeMask;
+	/**
+	 * The neighbours of vertex v are stored in adjVertex between adjStart[v]
+	 * and adjStart[v+1]; adjEdge holds the connecting edges
+	 */
+	private final int[] adjStart;
+	private final int[] adjVertex;
+	private final int[] adjEdge;
+
+	/**
+	 * Create a snapshot of the subgraph of aG made of some of its vertices and
+	 * edges. The endpoints of the edges are always part of the subgraph.
+	 * 
+	 * @param aG
+	 *            an undirected graph
+	 * @param someVertices
+	 *            vertices of aG, or null to only keep the edge endpoints
+	 * @param someEdges
+	 *            edges of aG
+	 */
+	private CompactGraph(UndirectedGraph<V, E> aG, Collection<V> someVertices,
+			Collection<E> someEdges) {
+		this.baseGraph = aG;
+		this.edges = new ArrayList<E>(someEdges);
+		this.vertices = new ArrayList<V>();
+		this.vertexIds = new HashMap<V, Integer>();
+		this.edgeIds = new IdentityHashMap<E, Integer>();
+		if (someVertices != null) {
+			for (V aV : someVertices) {
+				this.addVertex(aV);
+			}
+		}
+		int m = this.edges.size();
+		this.edgeSource = new int[m];
+		this.edgeTarget = new int[m];
+		this.edgeMask = new int[m];
+		for (int e = 0; e < m; e++) {
+			E anEdge = this.edges.get(e);
+			this.edgeIds.put(anEdge, e);
+			edgeSource[e] = this.addVertex(aG.getEdgeSource(anEdge));
+			edgeTarget[e] = this.addVertex(aG.getEdgeTarget(anEdge));
+		}
+		int n = this.vertices.size();
+		this.adjStart = new int[n + 1];
+		for (int e = 0; e < m; e++) {
+			adjStart[edgeSource[e] + 1]++;
+			adjStart[edgeTarget[e] + 1]++;
+		}
+		for (int v = 0; v < n; v++) {
+			adjStart[v + 1] += adjStart[v];
+		}
+		this.adjVertex = new int[2 * m];
+		this.adjEdge = new int[2 * m];
+		int[] fill = new int[n];
+		System.arraycopy(adjStart, 0, fill, 0, n);
+		for (int e = 0; e < m; e++) {
+			adjVertex[fill[edgeSource[e]]] = edgeTarget[e];
+			adjEdge[fill[edgeSource[e]]++] = e;
+			adjVertex[fill[edgeTarget[e]]] = edgeSource[e];
+			adjEdge[fill[edgeTarget[e]]++] = e;
+		}
+	}
+
+	/**
+	 * Create a snapshot of a graph. Isolated vertices are kept.
+	 * 
+	 * @param aG
+	 *            an undirected graph
+	 * @return the compact representation of aG
+	 */
+	public static <V, E> CompactGraph<V, E> fromGraph(UndirectedGraph<V, E> aG) {
+		return new CompactGraph<V, E>(aG, aG.vertexSet(), aG.edgeSet());
+	}
+
+	/**
+	 * Create a snapshot of the subgraph of aG made of some of its edges and
+	 * their endpoints
+	 * 
+	 * @param aG
+	 *            an undirected graph
+	 * @param someEdges
+	 *            the edges of the subgraph
+	 * @return the compact representation of the subgraph
+	 */
+	public static <V, E> CompactGraph<V, E> fromEdges(
+			UndirectedGraph<V, E> aG, Collection<E> someEdges) {
+		return new CompactGraph<V, E>(aG, null, someEdges);
+	}
+
+	/**
+	 * Create a snapshot of a nucleic acid where every edge carries the bits of
+	 * the interaction types it encapsulates
+	 * 
+	 * @param aNucleicAcid
+	 *            a nucleic acid
+	 * @return the compact representation of aNucleicAcid
+	 */
+	public static CompactGraph<Nucleotide, InteractionEdge> fromNucleicAcid(
+			NucleicAcid aNucleicAcid) {
+		CompactGraph<Nucleotide, InteractionEdge> rm = fromGraph(aNucleicAcid);
+		for (int e = 0; e < rm.edges.size(); e++) {
+			rm.edgeMask[e] = computeInteractionMask(rm.edges.get(e));
+		}
+		return rm;
+	}
+
+	/**
+	 * Compute the interaction type bits of an interaction edge
+	 * 
+	 * @param anEdge
+	 *            an interaction edge
+	 * @return a combination of BASE_PAIR, BASE_STACK and PHOSPHODIESTER_BOND
+	 */
+	public static int computeInteractionMask(InteractionEdge anEdge) {
+		int rm = 0;
+		for (NucleotideInteraction ni : anEdge.getInteractions()) {
+			if (ni instanceof BasePair) {
+				rm |= BASE_PAIR;
+			} else if (ni instanceof BaseStack) {
+				rm |= BASE_STACK;
+			} else if (ni instanceof PhosphodiesterBond) {
+				rm |= PHOSPHODIESTER_BOND;
+			}
+		}
+		return rm;
+	}
+
+	private int addVertex(V aVertex) {
+		Integer rm = this.vertexIds.get(aVertex);
+		if (rm == null) {
+			rm = this.vertices.size();
+			this.vertices.add(aVertex);
+			this.vertexIds.put(aVertex, rm);
+		}
+		return rm;
+	}
+
+	/**
+	 * @return the graph this snapshot was taken from
+	 */
+	public UndirectedGraph<V, E> getBaseGraph() {
+		return this.baseGraph;
+	}
+
+	/**
+	 * @return the number of vertices
+	 */
+	public int getVertexCount() {
+		return this.vertices.size();
+	}
+
+	/**
+	 * @return the number of edges
+	 */
+	public int getEdgeCount() {
+		return this.edges.size();
+	}
+
+	/**
+	 * @param aVertexId
+	 *            a vertex id
+	 * @return the vertex with the given id
+	 */
+	public V getVertex(int aVertexId) {
+		return this.vertices.get(aVertexId);
+	}
+
+	/**
+	 * @param anEdgeId
+	 *            an edge id
+	 * @return the edge with the given id
+	 */
+	public E getEdge(int anEdgeId) {
+		return this.edges.get(anEdgeId);
+	}
+
+	/**
+	 * @return an unmodifiable list of the vertices indexed by their id
+	 */
+	public List<V> getVertices() {
+		return Collections.unmodifiableList(this.vertices);
+	}
+
+	/**
+	 * @return an unmodifiable list of the edges indexed by their id
+	 */
+	public List<E> getEdges() {
+		return Collections.unmodifiableList(this.edges);
+	}
+
+	/**
+	 * @param aVertex
+	 *            a vertex
+	 * @return the id of aVertex, or -1 if it is not in this graph
+	 */
+	public int getVertexId(V aVertex) {
+		Integer rm = this.vertexIds.get(aVertex);
+		return (rm == null) ? -1 : rm;
+	}
+
+	/**
+	 * @param anEdge
+	 *            an edge
+	 * @return the id of anEdge, or -1 if it is not in this graph
+	 */
+	public int getEdgeId(E anEdge) {
+		Integer rm = this.edgeIds.get(anEdge);
+		return (rm == null) ? -1 : rm;
+	}
+
+	/**
+	 * @param anEdgeId
+	 *            an edge id
+	 * @return the id of the source vertex of the edge
+	 */
+	public int getEdgeSource(int anEdgeId) {
+		return this.edgeSource[anEdgeId];
+	}
+
+	/**
+	 * @param anEdgeId
+	 *            an edge id
+	 * @return the id of the target vertex of the edge
+	 */
+	public int getEdgeTarget(int anEdgeId) {
+		return this.edgeTarget[anEdgeId];
+	}
+
+	/**
+	 * Get the vertex at the other end of an edge
+	 * 
+	 * @param anEdgeId
+	 *            an edge id
+	 * @param aVertexId
+	 *            the id of one endpoint of the edge
+	 * @return the id of the other endpoint
+	 */
+	public int getOpposite(int anEdgeId, int aVertexId) {
+		return (this.edgeSource[anEdgeId] == aVertexId) ? this.edgeTarget[anEdgeId]
+				: this.edgeSource[anEdgeId];
+	}
+
+	/**
+	 * @param anEdgeId
+	 *            an edge id
+	 * @return the interaction type bits of the edge
+	 */
+	public int getEdgeMask(int anEdgeId) {
+		return this.edgeMask[anEdgeId];
+	}
+
+	/**
+	 * @param aVertexId
+	 *            a vertex id
+	 * @return the number of edges incident to the vertex
+	 */
+	public int getDegree(int aVertexId) {
+		return this.adjStart[aVertexId + 1] - this.adjStart[aVertexId];
+	}
+
+	/**
+	 * @param aVertexId
+	 *            a vertex id
+	 * @return the first adjacency position of the vertex
+	 */
+	public int getAdjacencyStart(int aVertexId) {
+		return this.adjStart[aVertexId];
+	}
+
+	/**
+	 * @param aVertexId
+	 *            a vertex id
+	 * @return the adjacency position after the last neighbour of the vertex
+	 */
+	public int getAdjacencyEnd(int aVertexId) {
+		return this.adjStart[aVertexId + 1];
+	}
+
+	/**
+	 * @param aPosition
+	 *            an adjacency position
+	 * @return the id of the neighbour stored at aPosition
+	 */
+	public int getAdjacentVertex(int aPosition) {
+		return this.adjVertex[aPosition];
+	}
+
+	/**
+	 * @param aPosition
+	 *            an adjacency position
+	 * @return the id of the edge stored at aPosition
+	 */
+	public int getAdjacentEdge(int aPosition) {
+		return this.adjEdge[aPosition];
+	}
+
+	/**
+	 * Find the edge between two vertices
+	 * 
+	 * @param aVertexId
+	 *            a vertex id
+	 * @param anotherVertexId
+	 *            another vertex id
+	 * @return the id of the edge between both vertices, or -1 if they are not
+	 *         adjacent
+	 */
+	public int findEdge(int aVertexId, int anotherVertexId) {
+		int u = aVertexId;
+		int w = anotherVertexId;
+		// scan the shorter adjacency
+		if (this.getDegree(u) > this.getDegree(w)) {
+			u = anotherVertexId;
+			w = aVertexId;
+		}
+		for (int i = this.adjStart[u]; i < this.adjStart[u + 1]; i++) {
+			if (this.adjVertex[i] == w) {
+				return this.adjEdge[i];
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Compute the number of edges of a shortest path between two vertices
+	 * using a breadth first search
+	 * 
+	 * @param aSourceId
+	 *            the id of the first vertex
+	 * @param aTargetId
+	 *            the id of the last vertex
+	 * @param anExcludedEdgeId
+	 *            the id of an edge that the path cannot use, or -1
+	 * @return the length of a shortest path, or -1 if the vertices are not
+	 *         connected
+	 */
+	public int getDistance(int aSourceId, int aTargetId, int anExcludedEdgeId) {
+		if (aSourceId == aTargetId) {
+			return 0;
+		}
+		int n = this.vertices.size();
+		int[] dist = new int[n];
+		Arrays.fill(dist, -1);
+		int[] queue = new int[n];
+		int head = 0;
+		int tail = 0;
+		dist[aSourceId] = 0;
+		queue[tail++] = aSourceId;
+		while (head < tail) {
+			int v = queue[head++];
+			for (int i = adjStart[v]; i < adjStart[v + 1]; i++) {
+				int w = adjVertex[i];
+				if (dist[w] == -1 && adjEdge[i] != anExcludedEdgeId) {
+					dist[w] = dist[v] + 1;
+					if (w == aTargetId) {
+						return dist[w];
+					}
+					queue[tail++] = w;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Count the connected components of this graph
+	 * 
+	 * @return the number of connected components
+	 */
+	public int countComponents() {
+		int n = this.vertices.size();
+		boolean[] visited = new boolean[n];
+		int[] stack = new int[n];
+		int rm = 0;
+		for (int s = 0; s < n; s++) {
+			if (visited[s]) {
+				continue;
+			}
+			rm++;
+			int top = 0;
+			stack[top++] = s;
+			visited[s] = true;
+			while (top > 0) {
+				int v = stack[--top];
+				for (int i = adjStart[v]; i < adjStart[v + 1]; i++) {
+					if (!visited[adjVertex[i]]) {
+						visited[adjVertex[i]] = true;
+						stack[top++] = adjVertex[i];
+					}
+				}
+			}
+		}
+		return rm;
+	}
+}
@@ -21,20 +21,20 @@
 package org.semanticscience.narf.graphs.lib;
 
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 
 import org.semanticscience.narf.graphs.lib.cycles.Cycle;
+import org.semanticscience.narf.graphs.lib.cycles.CycleFingerprint;
 import org.semanticscience.narf.graphs.lib.cycles.CycleHelper;
+import org.semanticscience.narf.graphs.lib.cycles.CycleProfileCache;
 import org.semanticscience.narf.graphs.nucleicacid.InteractionEdge;
 import org.semanticscience.narf.graphs.nucleicacid.NucleicAcid;
 import org.semanticscience.narf.structures.interactions.BasePair;
@@ -61,15 +61,20 @@ public class CycleSerializer {
 	 * cycle fingerprints. These cycles will include glycosidic bond orientation
 	 * and edge-edge interactions
 	 */
-	private HashMap<String, List<String>> level_2_mcb = new HashMap<String, List<String>>();
+	private HashMap<String, List<CycleFingerprint>> level_2_mcb = new HashMap<String, List<CycleFingerprint>>();
 	/**
 	 * A map where the key is an identfier of the structure (eg: PDBID) where
 	 * the cycle basis was obtained from and the value is a list of the mcb
 	 * cycle fingerprints. These cycles will **NOT** include glycosidic bond
 	 * orientation and edge-edge interactions
 	 */
-	private HashMap<String, List<String>> level_1_mcb = new HashMap<String, List<String>>();
-	
+	private HashMap<String, List<CycleFingerprint>> level_1_mcb = new HashMap<String, List<CycleFingerprint>>();
+	/**
+	 * The smallest normalization of every fingerprint kept track of, printed
+	 * in the summary
+	 */
+	private HashMap<CycleFingerprint, String> normalizations = new HashMap<CycleFingerprint, String>();
+
 	/**
 	 * The name of the program used to make the nucleic acid
 	 */
@@ -118,6 +123,7 @@ public class CycleSerializer {
 		//create a resource for the pdb_structure
 		Resource pdb_struct_resource = rm.createResource("http://freebase.com"+anMid);
 		mcb_res.addProperty(Vocab.derived_from, pdb_struct_resource);		
+		CycleProfileCache profiles = aNucleicAcid.getCycleProfileCache();
 		
 		for (Cycle<Nucleotide, InteractionEdge> acyc : acycleList) {
 			Random rp = new Random();
@@ -195,9 +201,9 @@ public class CycleSerializer {
 				String l3 = "Cycle profile level 1 ";
 				lvl_1.addLiteral(Vocab.rdfslabel, l3);
 				//get the level 1 normalized version of this string
-				String lvl_1_str = CycleHelper.findMinmalNormalization(aNucleicAcid, acyc, true).toString();
+				String lvl_1_str = profiles.getNormalization(acyc, CycleFingerprint.LEVEL_1);
 				lvl_1.addLiteral(Vocab.has_value,"#"+lvl_1_str);
-				lvl_1.addLiteral(Vocab.hasMD5,CycleSerializer.MD5(lvl_1_str));
+				lvl_1.addLiteral(Vocab.hasMD5,profiles.getFingerprint(acyc, CycleFingerprint.LEVEL_1).toHexString());
 				cycleRes.addProperty(Vocab.has_attribute, lvl_1);
 			}
 			
@@ -243,7 +249,7 @@ public class CycleSerializer {
 								+ CycleSerializer.MD5(fN.toString()
 										+ sN.toString()));
 						// create a resource from the rnaoclass
-						String rnaoClassStr = ((BasePair) ni).inferRnaOClass();
+						String rnaoClassStr = ((BasePair) ni).getRNAOClassUri();
 						Resource rnaoClass = rm.createResource(rnaoClassStr);
 						if (rnaoClass != null) {
 							// type it using the rnaoClass resource
@@ -368,6 +374,7 @@ public class CycleSerializer {
 		//create a resource for the pdb_structure
 		Resource pdb_struct_resource = rm.createResource("http://bio2rdf.org/pdb:"+aPdbId.toUpperCase());
 		mcb_res.addProperty(Vocab.derived_from, pdb_struct_resource);		
+		CycleProfileCache profiles = aNucleicAcid.getCycleProfileCache();
 		
 		for (Cycle<Nucleotide, InteractionEdge> acyc : acycleList) {
 			Random rp = new Random();
@@ -445,9 +452,9 @@ public class CycleSerializer {
 				String l3 = "Cycle profile level 1 ";
 				lvl_1.addLiteral(Vocab.rdfslabel, l3);
 				//get the level 1 normalized version of this string
-				String lvl_1_str = CycleHelper.findMinmalNormalization(aNucleicAcid, acyc, true).toString();
+				String lvl_1_str = profiles.getNormalization(acyc, CycleFingerprint.LEVEL_1);
 				lvl_1.addLiteral(Vocab.has_value,"#"+lvl_1_str);
-				lvl_1.addLiteral(Vocab.hasMD5,CycleSerializer.MD5(lvl_1_str));
+				lvl_1.addLiteral(Vocab.hasMD5,profiles.getFingerprint(acyc, CycleFingerprint.LEVEL_1).toHexString());
 				cycleRes.addProperty(Vocab.has_attribute, lvl_1);
 			}else{
 				
@@ -459,9 +466,9 @@ public class CycleSerializer {
 				String l34 = "Cycle profile level 1 ";
 				lvl_1.addLiteral(Vocab.rdfslabel, l34);
 				//get the level 1 normalized version of this string
-				String lvl_1_str = CycleHelper.findMinmalNormalization(aNucleicAcid, acyc, true).toString();
+				String lvl_1_str = profiles.getNormalization(acyc, CycleFingerprint.LEVEL_1);
 				lvl_1.addLiteral(Vocab.has_value,"#"+lvl_1_str);
-				lvl_1.addLiteral(Vocab.hasMD5,CycleSerializer.MD5(lvl_1_str));
+				lvl_1.addLiteral(Vocab.hasMD5,profiles.getFingerprint(acyc, CycleFingerprint.LEVEL_1).toHexString());
 				cycleRes.addProperty(Vocab.has_attribute, lvl_1);
 				
 				Resource lvl_2 = rm.createResource(Vocab.narf_resource
@@ -471,10 +478,12 @@ public class CycleSerializer {
 				lvl_2.addProperty(Vocab.rdftype, Vocab.named_individual);
 				String l35 = "Cycle profile level 2 ";
 				lvl_2.addLiteral(Vocab.rdfslabel, l35);
-				String n_str_lvl_2 = CycleHelper.findMinmalNormalization(aNucleicAcid,
-						acyc, false).toString();
+				String n_str_lvl_2 = profiles.getNormalization(acyc,
+						CycleFingerprint.LEVEL_2);
 				lvl_2.addLiteral(Vocab.has_value, "#" + n_str_lvl_2);
-				lvl_2.addLiteral(Vocab.hasMD5, CycleSerializer.MD5(n_str_lvl_2));
+				lvl_2.addLiteral(Vocab.hasMD5,
+						profiles.getFingerprint(acyc, CycleFingerprint.LEVEL_2)
+								.toHexString());
 				cycleRes.addProperty(Vocab.has_attribute, lvl_2);
 			}
 			
@@ -520,7 +529,7 @@ public class CycleSerializer {
 								+ CycleSerializer.MD5(fN.toString()
 										+ sN.toString()));
 						// create a resource from the rnaoclass
-						String rnaoClassStr = ((BasePair) ni).inferRnaOClass();
+						String rnaoClassStr = ((BasePair) ni).getRNAOClassUri();
 						Resource rnaoClass = rm.createResource(rnaoClassStr);
 						if (rnaoClass != null) {
 							// type it using the rnaoClass resource
@@ -622,27 +631,26 @@ public class CycleSerializer {
 		} else {
 			rm += "pdbid\tcycle_len\tstart_vertex\tend_vertex\tedge_summary\tvertex_summary\tmin_norm\tmin_norm_no_gly_no_edges\n";
 		}
-		List<String> level_2 = new ArrayList<String>();
+		List<CycleFingerprint> level_2 = new ArrayList<CycleFingerprint>();
 		// no edge-edge interaction information and no glycosidic bond
 		// orientation info
-		List<String> level_1 = new ArrayList<String>();
+		List<CycleFingerprint> level_1 = new ArrayList<CycleFingerprint>();
+		CycleProfileCache profiles = aNucleicAcid.getCycleProfileCache();
 		for (Cycle<Nucleotide, InteractionEdge> cycle : aCycleList) {
-			BigDecimal min_norm = null;
+			String min_norm = null;
 			// if basepaironly was set to false then compute the basepair only
 			// version aswell
-			BigDecimal min_norm_no_edges_no_glybond = null;
-			if (basepaironly) {
-				min_norm_no_edges_no_glybond = CycleHelper
-						.findMinmalNormalization(aNucleicAcid, cycle,
-								basepaironly);
-				level_1.add("#" + min_norm_no_edges_no_glybond);
-			} else {
-				min_norm_no_edges_no_glybond = CycleHelper
-						.findMinmalNormalization(aNucleicAcid, cycle, true);
-				level_1.add("#" + min_norm_no_edges_no_glybond);
-				min_norm = CycleHelper.findMinmalNormalization(aNucleicAcid,
-						cycle, false);
-				level_2.add("#" + min_norm);
+			String min_norm_no_edges_no_glybond = profiles.getNormalization(
+					cycle, CycleFingerprint.LEVEL_1);
+			level_1.add(this.track(
+					profiles.getFingerprint(cycle, CycleFingerprint.LEVEL_1),
+					min_norm_no_edges_no_glybond));
+			if (!basepaironly) {
+				min_norm = profiles.getNormalization(cycle,
+						CycleFingerprint.LEVEL_2);
+				level_2.add(this.track(
+						profiles.getFingerprint(cycle, CycleFingerprint.LEVEL_2),
+						min_norm));
 			}
 			int cLen = cycle.size();
 			String sV = cycle.getStartVertex().getResidueIdentifier()
@@ -705,6 +713,40 @@ public class CycleSerializer {
 		return rm;
 	}
 
+	/**
+	 * Remember the normalization of a fingerprint for the summary
+	 * 
+	 * @param aFingerprint
+	 *            the fingerprint of a cycle
+	 * @param aNormalization
+	 *            the digits of the smallest normalization of the cycle
+	 * @return aFingerprint
+	 */
+	private CycleFingerprint track(CycleFingerprint aFingerprint,
+			String aNormalization) {
+		if (!this.normalizations.containsKey(aFingerprint)) {
+			this.normalizations.put(aFingerprint, aNormalization);
+		}
+		return aFingerprint;
+	}
+
+	/**
+	 * Get the printable form of a fingerprint that was kept track of, as it
+	 * appears in the TSV output
+	 * 
+	 * @param aFingerprint
+	 *            a fingerprint returned by this serializer
+	 * @return "#" followed by the smallest normalization of aFingerprint, or
+	 *         null if aFingerprint was not computed by this serializer
+	 */
+	public String getPrintableForm(CycleFingerprint aFingerprint) {
+		String n = this.normalizations.get(aFingerprint);
+		if (n == null) {
+			return null;
+		}
+		return "#" + n;
+	}
+
 	/**
 	 * Keep track of the computed cycle bases by their structure id (eg. PDBID)
 	 * 
@@ -717,8 +759,9 @@ public class CycleSerializer {
 	 *            a list of cycles found in the given structure id without
 	 *            glycosidic bond orientation info nor edge-edge interactions
 	 */
-	private void keepTrack(String anId, List<String> level_2_serialization,
-			List<String> level_1_serialization) {
+	private void keepTrack(String anId,
+			List<CycleFingerprint> level_2_serialization,
+			List<CycleFingerprint> level_1_serialization) {
 		this.level_2_mcb.put(anId, level_2_serialization);
 		this.level_1_mcb.put(anId, level_1_serialization);
 	}
@@ -729,24 +772,19 @@ public class CycleSerializer {
 	 * @return a unique set of rich cycles computed for this round as extracted
 	 *         from this.getCompleteRichMap()
 	 */
-	public List<String> getUniqueLevel2() {
-		List<String> rm = new ArrayList<String>();
-		Map<String, List<String>> x = this.get_complete_level_2_mcb();
-		for (Map.Entry<String, List<String>> entry : x.entrySet()) {
-			List<String> value = entry.getValue();
-			for (String aFp : value) {
-				if (!rm.contains(aFp)) {
-					rm.add(aFp);
-				}
-			}
+	public List<CycleFingerprint> getUniqueLevel2() {
+		Set<CycleFingerprint> rm = new LinkedHashSet<CycleFingerprint>();
+		Map<String, List<CycleFingerprint>> x = this.get_complete_level_2_mcb();
+		for (Map.Entry<String, List<CycleFingerprint>> entry : x.entrySet()) {
+			rm.addAll(entry.getValue());
 		}
-		return rm;
+		return new ArrayList<CycleFingerprint>(rm);
 	}
 
 	public String makeSummary() {
 		List<String> x = this.getPDBIds();
-		List<String> y = this.getUniquelevel1();
-		List<String> z = this.getUniqueLevel2();
+		List<CycleFingerprint> y = this.getUniquelevel1();
+		List<CycleFingerprint> z = this.getUniqueLevel2();
 
 		Date myDate = new Date();
 		SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd:HH-mm-ss");
@@ -760,37 +798,37 @@ public class CycleSerializer {
 		}
 		rm_c = rm_c.substring(0, rm_c.length() - 1);
 		rm_c += "\nLevel 1 Unique MCBs :\n";
-		for (String b : y) {
-			rm_c += b + ",";
+		for (CycleFingerprint b : y) {
+			rm_c += this.getPrintableForm(b) + ",";
 		}
 		rm_c = rm_c.substring(0, rm_c.length() - 1);
 		rm_c += "\n\n";
 		if (z != null && z.size() > 0) {
 			rm_c += "\nLevel 2 Unique MCBs :\n";
-			for (String c : z) {
-				rm_c += c + ",";
+			for (CycleFingerprint c : z) {
+				rm_c += this.getPrintableForm(c) + ",";
 			}
 			rm_c = rm_c.substring(0, rm_c.length() - 1);
 		}
 		rm_c += "\n\n";
 		rm_c += "pdbid\tlevel_1_cycles\n";
-		for (Map.Entry<String, List<String>> w : this
+		for (Map.Entry<String, List<CycleFingerprint>> w : this
 				.get_complete_level_1_mcb().entrySet()) {
 			String anId = w.getKey();
-			List<String> mcb = w.getValue();
-			for (String amcb : mcb) {
-				rm_c += anId + "\t" + amcb + "\n";
+			List<CycleFingerprint> mcb = w.getValue();
+			for (CycleFingerprint amcb : mcb) {
+				rm_c += anId + "\t" + this.getPrintableForm(amcb) + "\n";
 			}
 		}
 		rm_c += "\n\n";
 		if (z != null && z.size() > 0) {
 			rm_c += "pdbid\tlevel_2_cycles\n";
-			for (Map.Entry<String, List<String>> w : this
+			for (Map.Entry<String, List<CycleFingerprint>> w : this
 					.get_complete_level_2_mcb().entrySet()) {
 				String anId = w.getKey();
-				List<String> mcb = w.getValue();
-				for (String amcb : mcb) {
-					rm_c += anId + "\t" + amcb + "\n";
+				List<CycleFingerprint> mcb = w.getValue();
+				for (CycleFingerprint amcb : mcb) {
+					rm_c += anId + "\t" + this.getPrintableForm(amcb) + "\n";
 				}
 			}
 		}
@@ -806,9 +844,9 @@ public class CycleSerializer {
 	 */
 	public int get_level_2_basis_size() {
 		int rm = 0;
-		Map<String, List<String>> y = this.get_complete_level_2_mcb();
-		for (Map.Entry<String, List<String>> entry : y.entrySet()) {
-			List<String> v = entry.getValue();
+		Map<String, List<CycleFingerprint>> y = this.get_complete_level_2_mcb();
+		for (Map.Entry<String, List<CycleFingerprint>> entry : y.entrySet()) {
+			List<CycleFingerprint> v = entry.getValue();
 			rm += v.size();
 		}
 		return rm;
@@ -823,9 +861,9 @@ public class CycleSerializer {
 	 */
 	public int get_level_1_basis_size() {
 		int rm = 0;
-		Map<String, List<String>> y = this.get_complete_level_1_mcb();
-		for (Map.Entry<String, List<String>> entry : y.entrySet()) {
-			List<String> v = entry.getValue();
+		Map<String, List<CycleFingerprint>> y = this.get_complete_level_1_mcb();
+		for (Map.Entry<String, List<CycleFingerprint>> entry : y.entrySet()) {
+			List<CycleFingerprint> v = entry.getValue();
 			rm += v.size();
 		}
 		return rm;
@@ -848,34 +886,23 @@ public class CycleSerializer {
 	 * @return a unique set of rich cycles computed for this round as extracted
 	 *         from this.getCompletePoorMap()
 	 */
-	public List<String> getUniquelevel1() {
-		List<String> rm = new ArrayList<String>();
-		Map<String, List<String>> x = this.get_complete_level_1_mcb();
-		for (Map.Entry<String, List<String>> entry : x.entrySet()) {
-			String key = entry.getKey();
-			List<String> value = entry.getValue();
-			for (String aFp : value) {
-				if (!rm.contains(aFp)) {
-					rm.add(aFp);
-				}
-			}
+	public List<CycleFingerprint> getUniquelevel1() {
+		Set<CycleFingerprint> rm = new LinkedHashSet<CycleFingerprint>();
+		Map<String, List<CycleFingerprint>> x = this.get_complete_level_1_mcb();
+		for (Map.Entry<String, List<CycleFingerprint>> entry : x.entrySet()) {
+			rm.addAll(entry.getValue());
 		}
-		return rm;
+		return new ArrayList<CycleFingerprint>(rm);
 	}
 
 	private static String MD5(String md5) {
-		try {
-			MessageDigest md = MessageDigest.getInstance("MD5");
-			byte[] array = md.digest(md5.getBytes());
-			StringBuffer sb = new StringBuffer();
-			for (int i = 0; i < array.length; ++i) {
-				sb.append(Integer.toHexString((array[i] & 0xFF) | 0x100)
-						.substring(1, 3));
-			}
-			return sb.toString();
-		} catch (NoSuchAlgorithmException e) {
+		byte[] array = CycleFingerprint.md5(md5);
+		StringBuilder sb = new StringBuilder(2 * array.length);
+		for (int i = 0; i < array.length; ++i) {
+			sb.append(Integer.toHexString((array[i] & 0xFF) | 0x100)
+					.substring(1, 3));
 		}
-		return null;
+		return sb.toString();
 	}
 
 	/**
@@ -888,7 +915,7 @@ public class CycleSerializer {
 	 * 
 	 * @return the complete_mcb_map_rich
 	 */
-	public Map<String, List<String>> get_complete_level_2_mcb() {
+	public Map<String, List<CycleFingerprint>> get_complete_level_2_mcb() {
 		return level_2_mcb;
 	}
 
@@ -903,14 +930,14 @@ public class CycleSerializer {
 	 * @param complete_mcb_map_rich
 	 *            the complete_mcb_map_rich to set
 	 */
-	private void set_complete_level_2_mcb(HashMap<String, List<String>> x) {
+	private void set_complete_level_2_mcb(HashMap<String, List<CycleFingerprint>> x) {
 		this.level_2_mcb = x;
 	}
 
 	/**
 	 * @return the complete_mcb_map_poor
 	 */
-	public Map<String, List<String>> get_complete_level_1_mcb() {
+	public Map<String, List<CycleFingerprint>> get_complete_level_1_mcb() {
 		return level_1_mcb;
 	}
 
@@ -918,7 +945,7 @@ public class CycleSerializer {
 	 * @param complete_mcb_map_poor
 	 *            the complete_mcb_map_poor to set
 	 */
-	private void set_complete_level_1_mcb(HashMap<String, List<String>> y) {
+	private void set_complete_level_1_mcb(HashMap<String, List<CycleFingerprint>> y) {
 		this.level_1_mcb = y;
 	}
 
@@ -0,0 +1,335 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.semanticscience.narf.graphs.lib.cycles.CycleFingerprint;
+
+/**
+ * A read only on-disk inverted index from cycle fingerprints to the cycles
+ * that have them, as written by {@link MotifIndexWriter}. The occurrences are
+ * stored as fixed width records sorted by fingerprint, so the occurrences of
+ * a fingerprint are found with a binary search over the file without loading
+ * it in memory.
+ * 
+ * The file starts with a header (magic number, version, number of records
+ * and number of structures), followed by the records and by the identifiers
+ * of the structures. A record is the binary form of a fingerprint followed by
+ * the number of the structure, the model number, the position of the cycle
+ * in the cycle basis of the model and the smallest and largest residue
+ * positions of the cycle.
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class MotifIndex implements Closeable {
+	static final int MAGIC = 0x4E4D4958;
+	static final int VERSION = 1;
+	static final int HEADER_LENGTH = 20;
+	/**
+	 * The length of a record
+	 */
+	static final int RECORD_LENGTH = CycleFingerprint.BYTES + 20;
+	/**
+	 * The length of the part of a record records are sorted on: the
+	 * fingerprint, the structure, the model and the cycle
+	 */
+	static final int KEY_LENGTH = CycleFingerprint.BYTES + 12;
+
+	private final RandomAccessFile file;
+	private final long recordCount;
+	/**
+	 * The identifiers of the structures by number
+	 */
+	private final String[] structureIds;
+
+	/**
+	 * Open an index
+	 * 
+	 * @param anIndexFile
+	 *            a file written by a MotifIndexWriter
+	 * @throws IOException
+	 *             if the file cannot be read or is not an index
+	 */
+	public MotifIndex(File anIndexFile) throws IOException {
+		file = new RandomAccessFile(anIndexFile, "r");
+		try {
+			if (file.readInt() != MAGIC) {
+				throw new IOException("Not a motif index: " + anIndexFile);
+			}
+			int version = file.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported motif index version: "
+						+ version);
+			}
+			recordCount = file.readLong();
+			structureIds = new String[file.readInt()];
+			file.seek(HEADER_LENGTH + recordCount * RECORD_LENGTH);
+			for (int i = 0; i < structureIds.length; i++) {
+				structureIds[i] = file.readUTF();
+			}
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the number of occurrences in this index
+	 */
+	public long getOccurrenceCount() {
+		return recordCount;
+	}
+
+	/**
+	 * @return the identifiers of the structures of this index
+	 */
+	public List<String> getStructureIds() {
+		return Collections.unmodifiableList(Arrays.asList(structureIds));
+	}
+
+	/**
+	 * Count the occurrences of a fingerprint
+	 * 
+	 * @param aFingerprint
+	 *            a cycle fingerprint
+	 * @return the number of cycles of this index that have aFingerprint
+	 * @throws IOException
+	 */
+	public synchronized int count(CycleFingerprint aFingerprint)
+			throws IOException {
+		byte[] key = aFingerprint.toBytes();
+		long first = this.lowerBound(key);
+		int rm = 0;
+		byte[] record = new byte[RECORD_LENGTH];
+		for (long i = first; i < recordCount; i++) {
+			this.readRecord(i, record);
+			if (compare(record, key, key.length) != 0) {
+				break;
+			}
+			rm++;
+		}
+		return rm;
+	}
+
+	/**
+	 * Find the occurrences of a fingerprint
+	 * 
+	 * @param aFingerprint
+	 *            a cycle fingerprint
+	 * @return the cycles of this index that have aFingerprint, sorted by
+	 *         structure, model and cycle
+	 * @throws IOException
+	 */
+	public synchronized List<Occurrence> find(CycleFingerprint aFingerprint)
+			throws IOException {
+		byte[] key = aFingerprint.toBytes();
+		List<Occurrence> rm = new ArrayList<Occurrence>();
+		byte[] record = new byte[RECORD_LENGTH];
+		for (long i = this.lowerBound(key); i < recordCount; i++) {
+			this.readRecord(i, record);
+			if (compare(record, key, key.length) != 0) {
+				break;
+			}
+			rm.add(new Occurrence(aFingerprint,
+					structureIds[readInt(record, CycleFingerprint.BYTES)],
+					readInt(record, CycleFingerprint.BYTES + 4), readInt(
+							record, CycleFingerprint.BYTES + 8), readInt(
+							record, CycleFingerprint.BYTES + 12), readInt(
+							record, CycleFingerprint.BYTES + 16)));
+		}
+		return rm;
+	}
+
+	/**
+	 * Find the structures that contain a cycle profile
+	 * 
+	 * @param aFingerprint
+	 *            a cycle fingerprint
+	 * @return the identifiers of the structures that have a cycle with
+	 *         aFingerprint
+	 * @throws IOException
+	 */
+	public Set<String> findStructures(CycleFingerprint aFingerprint)
+			throws IOException {
+		Set<String> rm = new LinkedHashSet<String>();
+		for (Occurrence o : this.find(aFingerprint)) {
+			rm.add(o.getStructureId());
+		}
+		return rm;
+	}
+
+	public synchronized void close() throws IOException {
+		file.close();
+	}
+
+	/**
+	 * Read every record of this index
+	 * 
+	 * @return the records, one after the other
+	 * @throws IOException
+	 */
+	synchronized byte[] readAllRecords() throws IOException {
+		if (recordCount * RECORD_LENGTH > Integer.MAX_VALUE) {
+			throw new IOException("The motif index is too large to be loaded");
+		}
+		byte[] rm = new byte[(int) recordCount * RECORD_LENGTH];
+		file.seek(HEADER_LENGTH);
+		file.readFully(rm);
+		return rm;
+	}
+
+	/**
+	 * Find the first record whose fingerprint is not smaller than a key
+	 * 
+	 * @param aKey
+	 *            the binary form of a fingerprint
+	 * @return the number of the record, recordCount if there is none
+	 * @throws IOException
+	 */
+	private long lowerBound(byte[] aKey) throws IOException {
+		byte[] record = new byte[RECORD_LENGTH];
+		long lo = 0;
+		long hi = recordCount;
+		while (lo < hi) {
+			long mid = (lo + hi) >>> 1;
+			this.readRecord(mid, record);
+			if (compare(record, aKey, aKey.length) < 0) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	private void readRecord(long i, byte[] aRecord) throws IOException {
+		file.seek(HEADER_LENGTH + i * RECORD_LENGTH);
+		file.readFully(aRecord);
+	}
+
+	/**
+	 * Compare the first bytes of two arrays as unsigned numbers, which sorts
+	 * fingerprints as CycleFingerprint.compareTo() does
+	 */
+	static int compare(byte[] a, byte[] b, int aLength) {
+		return compare(a, 0, b, 0, aLength);
+	}
+
+	static int compare(byte[] a, int aOffset, byte[] b, int bOffset,
+			int aLength) {
+		for (int i = 0; i < aLength; i++) {
+			int x = a[aOffset + i] & 0xFF;
+			int y = b[bOffset + i] & 0xFF;
+			if (x != y) {
+				return x - y;
+			}
+		}
+		return 0;
+	}
+
+	static int readInt(byte[] someBytes, int anOffset) {
+		return ((someBytes[anOffset] & 0xFF) << 24)
+				| ((someBytes[anOffset + 1] & 0xFF) << 16)
+				| ((someBytes[anOffset + 2] & 0xFF) << 8)
+				| (someBytes[anOffset + 3] & 0xFF);
+	}
+
+	/**
+	 * A cycle of a structure that has a given fingerprint
+	 */
+	public static final class Occurrence {
+		private final CycleFingerprint fingerprint;
+		private final String structureId;
+		private final int model;
+		private final int cycleId;
+		private final int firstResiduePosition;
+		private final int lastResiduePosition;
+
+		Occurrence(CycleFingerprint aFingerprint, String aStructureId,
+				int aModel, int aCycleId, int aFirstPosition, int aLastPosition) {
+			fingerprint = aFingerprint;
+			structureId = aStructureId;
+			model = aModel;
+			cycleId = aCycleId;
+			firstResiduePosition = aFirstPosition;
+			lastResiduePosition = aLastPosition;
+		}
+
+		/**
+		 * @return the fingerprint of the cycle
+		 */
+		public CycleFingerprint getFingerprint() {
+			return fingerprint;
+		}
+
+		/**
+		 * @return the identifier of the structure, eg. its PDB id
+		 */
+		public String getStructureId() {
+			return structureId;
+		}
+
+		/**
+		 * @return the model number of the nucleic acid
+		 */
+		public int getModel() {
+			return model;
+		}
+
+		/**
+		 * @return the position of the cycle in the cycle basis of the model
+		 */
+		public int getCycleId() {
+			return cycleId;
+		}
+
+		/**
+		 * @return the smallest residue position of the cycle
+		 */
+		public int getFirstResiduePosition() {
+			return firstResiduePosition;
+		}
+
+		/**
+		 * @return the largest residue position of the cycle
+		 */
+		public int getLastResiduePosition() {
+			return lastResiduePosition;
+		}
+
+		@Override
+		public String toString() {
+			return structureId + "\t" + model + "\t" + cycleId + "\t"
+					+ firstResiduePosition + "-" + lastResiduePosition;
+		}
+	}
+}
@@ -0,0 +1,262 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticscience.narf.graphs.lib.cycles.Cycle;
+import org.semanticscience.narf.graphs.lib.cycles.CycleFingerprint;
+import org.semanticscience.narf.graphs.lib.cycles.CycleProfileCache;
+import org.semanticscience.narf.graphs.nucleicacid.InteractionEdge;
+import org.semanticscience.narf.graphs.nucleicacid.NucleicAcid;
+import org.semanticscience.narf.structures.parts.Nucleotide;
+
+/**
+ * Build a {@link MotifIndex} incrementally. The cycles of every structure
+ * are added as the structures are processed and the index file is written
+ * when the writer is closed. If the index file already exists its
+ * occurrences are kept, except those of the structures that are added again,
+ * so an index can grow over several runs.
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class MotifIndexWriter implements Closeable {
+	private final File indexFile;
+	/**
+	 * The identifiers of the structures by number
+	 */
+	private final List<String> structureIds = new ArrayList<String>();
+	private final Map<String, Integer> structureNumbers = new HashMap<String, Integer>();
+	/**
+	 * The records of the existing index
+	 */
+	private final byte[] oldRecords;
+	/**
+	 * The numbers of the structures added by this writer
+	 */
+	private final Set<Integer> addedStructures = new HashSet<Integer>();
+	/**
+	 * The records added by this writer, one after the other
+	 */
+	private byte[] records = new byte[1024 * MotifIndex.RECORD_LENGTH];
+	private int recordCount = 0;
+	private boolean closed = false;
+
+	/**
+	 * Create a writer for an index file, loading the file if it exists
+	 * 
+	 * @param anIndexFile
+	 *            the file of the index
+	 * @throws IOException
+	 *             if the existing file cannot be read
+	 */
+	public MotifIndexWriter(File anIndexFile) throws IOException {
+		indexFile = anIndexFile;
+		if (anIndexFile.exists()) {
+			MotifIndex old = new MotifIndex(anIndexFile);
+			try {
+				for (String anId : old.getStructureIds()) {
+					this.getStructureNumber(anId);
+				}
+				oldRecords = old.readAllRecords();
+			} finally {
+				old.close();
+			}
+		} else {
+			oldRecords = new byte[0];
+		}
+	}
+
+	/**
+	 * Add the cycles of a nucleic acid. The position of a cycle in
+	 * someCycles is its cycle id.
+	 * 
+	 * @param aStructureId
+	 *            the identifier of the structure, eg. its PDB id
+	 * @param aNucleicAcid
+	 *            a model of the structure
+	 * @param someCycles
+	 *            the cycle basis of aNucleicAcid
+	 * @param level2
+	 *            if true the level 2 fingerprints are indexed along with the
+	 *            level 1 fingerprints
+	 */
+	public void add(String aStructureId, NucleicAcid aNucleicAcid,
+			List<Cycle<Nucleotide, InteractionEdge>> someCycles, boolean level2) {
+		CycleProfileCache profiles = aNucleicAcid.getCycleProfileCache();
+		int model = aNucleicAcid.getModelNumber();
+		for (int i = 0; i < someCycles.size(); i++) {
+			Cycle<Nucleotide, InteractionEdge> aCycle = someCycles.get(i);
+			int first = Integer.MAX_VALUE;
+			int last = Integer.MIN_VALUE;
+			for (Nucleotide aNuc : aCycle.getVertexList()) {
+				first = Math.min(first, aNuc.getResiduePosition());
+				last = Math.max(last, aNuc.getResiduePosition());
+			}
+			this.add(aStructureId, model, i,
+					profiles.getFingerprint(aCycle, CycleFingerprint.LEVEL_1),
+					first, last);
+			if (level2) {
+				this.add(aStructureId, model, i, profiles.getFingerprint(
+						aCycle, CycleFingerprint.LEVEL_2), first, last);
+			}
+		}
+	}
+
+	/**
+	 * Add one occurrence of a fingerprint
+	 * 
+	 * @param aStructureId
+	 *            the identifier of the structure
+	 * @param aModel
+	 *            the model number
+	 * @param aCycleId
+	 *            the position of the cycle in the cycle basis of the model
+	 * @param aFingerprint
+	 *            the fingerprint of the cycle
+	 * @param aFirstPosition
+	 *            the smallest residue position of the cycle
+	 * @param aLastPosition
+	 *            the largest residue position of the cycle
+	 */
+	public synchronized void add(String aStructureId, int aModel,
+			int aCycleId, CycleFingerprint aFingerprint, int aFirstPosition,
+			int aLastPosition) {
+		if (closed) {
+			throw new IllegalStateException("The motif index writer is closed");
+		}
+		int structure = this.getStructureNumber(aStructureId);
+		addedStructures.add(structure);
+		if ((recordCount + 1) * MotifIndex.RECORD_LENGTH > records.length) {
+			records = Arrays.copyOf(records, 2 * records.length);
+		}
+		int pos = recordCount * MotifIndex.RECORD_LENGTH;
+		byte[] fp = aFingerprint.toBytes();
+		System.arraycopy(fp, 0, records, pos, fp.length);
+		pos += fp.length;
+		for (int v : new int[] { structure, aModel, aCycleId, aFirstPosition,
+				aLastPosition }) {
+			records[pos++] = (byte) (v >>> 24);
+			records[pos++] = (byte) (v >>> 16);
+			records[pos++] = (byte) (v >>> 8);
+			records[pos++] = (byte) v;
+		}
+		recordCount++;
+	}
+
+	/**
+	 * @return the number of occurrences added by this writer
+	 */
+	public synchronized int getAddedOccurrenceCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Sort the occurrences and write the index file. The file is replaced
+	 * only once the new index has been completely written.
+	 * 
+	 * @throws IOException
+	 */
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		// the records to write are the old records of the structures that
+		// were not added again, followed by the new records
+		final byte[] all = new byte[oldRecords.length + recordCount
+				* MotifIndex.RECORD_LENGTH];
+		int n = 0;
+		for (int pos = 0; pos < oldRecords.length; pos += MotifIndex.RECORD_LENGTH) {
+			int structure = MotifIndex.readInt(oldRecords, pos
+					+ CycleFingerprint.BYTES);
+			if (!addedStructures.contains(structure)) {
+				System.arraycopy(oldRecords, pos, all, n
+						* MotifIndex.RECORD_LENGTH, MotifIndex.RECORD_LENGTH);
+				n++;
+			}
+		}
+		System.arraycopy(records, 0, all, n * MotifIndex.RECORD_LENGTH,
+				recordCount * MotifIndex.RECORD_LENGTH);
+		n += recordCount;
+		Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			public int compare(Integer i1, Integer i2) {
+				return MotifIndex.compare(all, i1 * MotifIndex.RECORD_LENGTH,
+						all, i2 * MotifIndex.RECORD_LENGTH,
+						MotifIndex.KEY_LENGTH);
+			}
+		});
+		File tmp = new File(indexFile.getAbsolutePath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(tmp)));
+		try {
+			out.writeInt(MotifIndex.MAGIC);
+			out.writeInt(MotifIndex.VERSION);
+			out.writeLong(n);
+			out.writeInt(structureIds.size());
+			for (Integer i : order) {
+				out.write(all, i * MotifIndex.RECORD_LENGTH,
+						MotifIndex.RECORD_LENGTH);
+			}
+			for (String anId : structureIds) {
+				out.writeUTF(anId);
+			}
+		} finally {
+			out.close();
+		}
+		if (indexFile.exists() && !indexFile.delete()) {
+			throw new IOException("Could not replace the motif index: "
+					+ indexFile);
+		}
+		if (!tmp.renameTo(indexFile)) {
+			throw new IOException("Could not write the motif index: "
+					+ indexFile);
+		}
+	}
+
+	private int getStructureNumber(String aStructureId) {
+		Integer rm = structureNumbers.get(aStructureId);
+		if (rm == null) {
+			rm = structureIds.size();
+			structureIds.add(aStructureId);
+			structureNumbers.put(aStructureId, rm);
+		}
+		return rm;
+	}
+}
@@ -0,0 +1,408 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jgrapht.UndirectedGraph;
+import org.semanticscience.narf.graphs.lib.CompactGraph;
+import org.semanticscience.narf.graphs.nucleicacid.NucleicAcid;
+
+/**
+ * A minimum cycle basis computed one biconnected component at a time. Cycles
+ * never go through an articulation point, so the minimum cycle basis of a
+ * graph is the union of the minimum cycle bases of its biconnected
+ * components. Components made of a single edge (bridges) have no cycles and
+ * are skipped, the others are solved independently. Graphs with a large
+ * component are solved on a pool of daemon threads shared by all the bases,
+ * graphs whose components are all small are solved by the calling thread.
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class BiconnectedCycleBasis<V, E> extends CycleBasis<V, E> {
+	/**
+	 * The number of edges from which a component is worth solving on another
+	 * thread. Below it the handoff costs more than the minimum cycle basis.
+	 */
+	public static final int PARALLEL_THRESHOLD = 256;
+
+	/**
+	 * The pool shared by every basis, created the first time it is needed
+	 */
+	private static volatile ExecutorService sharedPool = null;
+
+	/**
+	 * The edge sets of the biconnected components that contain cycles
+	 */
+	private List<List<E>> components;
+
+	/**
+	 * Compute the minimum cycle basis of a nucleic acid using as many threads
+	 * as there are available processors
+	 * 
+	 * @param na
+	 *            a nucleic acid
+	 */
+	public BiconnectedCycleBasis(NucleicAcid na) {
+		this(na, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Compute the minimum cycle basis of a nucleic acid
+	 * 
+	 * @param na
+	 *            a nucleic acid
+	 * @param aThreadCount
+	 *            the maximum number of components solved at the same time
+	 */
+	public BiconnectedCycleBasis(NucleicAcid na, int aThreadCount) {
+		super(na);
+		cycleBasis = computeCycleBasis(aThreadCount);
+	}
+
+	/**
+	 * Compute the minimum cycle basis of a graph using as many threads as
+	 * there are available processors
+	 * 
+	 * @param aG
+	 *            an undirected graph
+	 */
+	public BiconnectedCycleBasis(UndirectedGraph<V, E> aG) {
+		this(aG, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Compute the minimum cycle basis of a graph
+	 * 
+	 * @param aG
+	 *            an undirected graph
+	 * @param aThreadCount
+	 *            the maximum number of components solved at the same time
+	 */
+	public BiconnectedCycleBasis(UndirectedGraph<V, E> aG, int aThreadCount) {
+		super(aG);
+		cycleBasis = computeCycleBasis(aThreadCount);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.semanticscience.narf.graphs.lib.cycles.CycleBasis#getCycleBasis()
+	 */
+	@Override
+	public List<Cycle<V, E>> getCycleBasis() {
+		return this.cycleBasis;
+	}
+
+	/**
+	 * Get the edge sets of the biconnected components of the base graph that
+	 * contain at least one cycle
+	 * 
+	 * @return an unmodifiable list of edge lists
+	 */
+	public List<List<E>> getComponents() {
+		return Collections.unmodifiableList(this.components);
+	}
+
+	/**
+	 * Split the base graph into biconnected components and compute the
+	 * minimum cycle basis of each one
+	 * 
+	 * @param aThreadCount
+	 *            the maximum number of components solved at the same time
+	 * @return the list of cycles of the minimum cycle basis sorted by size
+	 */
+	private List<Cycle<V, E>> computeCycleBasis(int aThreadCount) {
+		this.components = findBiconnectedComponents(this.getBaseGraph());
+		List<Cycle<V, E>> rm = new ArrayList<Cycle<V, E>>();
+		if (!this.isWorthSplitting(aThreadCount)) {
+			for (List<E> aComponent : this.components) {
+				rm.addAll(new MinimumCycleBasis<V, E>(this.getBaseGraph(),
+						aComponent).getCycleBasis());
+			}
+		} else {
+			rm.addAll(this.solveInParallel(aThreadCount));
+		}
+		// keep the basis sorted by size as if it was computed at once
+		Collections.sort(rm, new Comparator<Cycle<V, E>>() {
+			public int compare(Cycle<V, E> c1, Cycle<V, E> c2) {
+				return c1.size() - c2.size();
+			}
+		});
+		return rm;
+	}
+
+	/**
+	 * @param aThreadCount
+	 *            the maximum number of components solved at the same time
+	 * @return true if there are several components, at least one of which
+	 *         has PARALLEL_THRESHOLD edges or more
+	 */
+	private boolean isWorthSplitting(int aThreadCount) {
+		if (this.components.size() <= 1 || aThreadCount <= 1) {
+			return false;
+		}
+		for (List<E> aComponent : this.components) {
+			if (aComponent.size() >= PARALLEL_THRESHOLD) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Solve the components on the shared pool. The calling thread solves
+	 * components too and only waits for the components taken by pool
+	 * threads, so a call never waits for a pool thread to become free.
+	 * 
+	 * @param aThreadCount
+	 *            the maximum number of components solved at the same time
+	 * @return the cycles of every component
+	 */
+	private List<Cycle<V, E>> solveInParallel(int aThreadCount) {
+		final int n = this.components.size();
+		final List<List<Cycle<V, E>>> found = new ArrayList<List<Cycle<V, E>>>(
+				n);
+		for (int i = 0; i < n; i++) {
+			found.add(null);
+		}
+		final AtomicInteger next = new AtomicInteger();
+		final CountDownLatch solved = new CountDownLatch(n);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		Runnable worker = new Runnable() {
+			public void run() {
+				int i;
+				while ((i = next.getAndIncrement()) < n) {
+					try {
+						found.set(i, new MinimumCycleBasis<V, E>(
+								getBaseGraph(), components.get(i))
+								.getCycleBasis());
+					} catch (RuntimeException e) {
+						failure.compareAndSet(null, e);
+					} catch (Error e) {
+						failure.compareAndSet(null, e);
+					} finally {
+						solved.countDown();
+					}
+				}
+			}
+		};
+		ExecutorService pool = getSharedPool();
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (int i = 1; i < Math.min(aThreadCount, n); i++) {
+			futures.add(pool.submit(worker));
+		}
+		worker.run();
+		// the tasks that have not started yet have nothing left to do
+		for (Future<?> f : futures) {
+			f.cancel(false);
+		}
+		try {
+			solved.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(
+					"Interrupted while computing the cycle basis", e);
+		}
+		if (failure.get() != null) {
+			throw new IllegalStateException(
+					"Could not compute the cycle basis of a component",
+					failure.get());
+		}
+		List<Cycle<V, E>> rm = new ArrayList<Cycle<V, E>>();
+		for (List<Cycle<V, E>> l : found) {
+			rm.addAll(l);
+		}
+		return rm;
+	}
+
+	/**
+	 * Get the pool shared by every basis. Its threads are daemons, so it
+	 * never keeps the JVM alive.
+	 * 
+	 * @return a pool with as many threads as there are available processors
+	 */
+	private static ExecutorService getSharedPool() {
+		if (sharedPool == null) {
+			synchronized (BiconnectedCycleBasis.class) {
+				if (sharedPool == null) {
+					final AtomicInteger count = new AtomicInteger();
+					sharedPool = Executors.newFixedThreadPool(Runtime
+							.getRuntime().availableProcessors(),
+							new ThreadFactory() {
+								public Thread newThread(Runnable r) {
+									Thread t = new Thread(r,
+											"narf-cycle-basis-"
+													+ count.incrementAndGet());
+									t.setDaemon(true);
+									return t;
+								}
+							});
+				}
+			}
+		}
+		return sharedPool;
+	}
+
+	/**
+	 * Find the biconnected components of a graph that contain at least one
+	 * cycle. Bridges, which are components of a single edge, are not
+	 * returned.
+	 * 
+	 * @param aG
+	 *            an undirected graph
+	 * @return a list with the edges of each biconnected component
+	 */
+	public static <V, E> List<List<E>> findBiconnectedComponents(
+			UndirectedGraph<V, E> aG) {
+		CompactGraph<V, E> g = CompactGraph.fromGraph(aG);
+		List<List<E>> rm = new ArrayList<List<E>>();
+		for (int[] aComponent : findBiconnectedComponents(g)) {
+			List<E> edges = new ArrayList<E>(aComponent.length);
+			for (int e : aComponent) {
+				edges.add(g.getEdge(e));
+			}
+			rm.add(edges);
+		}
+		return rm;
+	}
+
+	/**
+	 * Find the biconnected component of a graph that contains an edge
+	 * 
+	 * @param aG
+	 *            an undirected graph
+	 * @param anEdge
+	 *            an edge of aG
+	 * @return the edges of the biconnected component that contains anEdge, or
+	 *         an empty list if anEdge is a bridge or is not in aG
+	 */
+	public static <V, E> List<E> findBiconnectedComponent(
+			UndirectedGraph<V, E> aG, E anEdge) {
+		CompactGraph<V, E> g = CompactGraph.fromGraph(aG);
+		List<E> rm = new ArrayList<E>();
+		int id = g.getEdgeId(anEdge);
+		if (id < 0) {
+			return rm;
+		}
+		for (int[] aComponent : findBiconnectedComponents(g)) {
+			for (int e : aComponent) {
+				if (e == id) {
+					for (int f : aComponent) {
+						rm.add(g.getEdge(f));
+					}
+					return rm;
+				}
+			}
+		}
+		return rm;
+	}
+
+	/**
+	 * Find the biconnected components of a compact graph that contain at
+	 * least one cycle, using an iterative version of the Hopcroft-Tarjan
+	 * algorithm. Bridges, which are components of a single edge, are not
+	 * returned.
+	 * 
+	 * @param g
+	 *            a compact graph
+	 * @return a list with the edge ids of each biconnected component
+	 */
+	public static List<int[]> findBiconnectedComponents(CompactGraph<?, ?> g) {
+		List<int[]> rm = new ArrayList<int[]>();
+		int n = g.getVertexCount();
+		int m = g.getEdgeCount();
+		int[] disc = new int[n];
+		int[] low = new int[n];
+		int[] parentEdge = new int[n];
+		int[] next = new int[n];
+		int[] vertexStack = new int[n];
+		int[] edgeStack = new int[m];
+		Arrays.fill(disc, -1);
+		int time = 0;
+		for (int root = 0; root < n; root++) {
+			if (disc[root] != -1) {
+				continue;
+			}
+			int vTop = 0;
+			int eTop = 0;
+			disc[root] = low[root] = time++;
+			parentEdge[root] = -1;
+			next[root] = g.getAdjacencyStart(root);
+			vertexStack[vTop++] = root;
+			while (vTop > 0) {
+				int v = vertexStack[vTop - 1];
+				if (next[v] < g.getAdjacencyEnd(v)) {
+					int w = g.getAdjacentVertex(next[v]);
+					int e = g.getAdjacentEdge(next[v]++);
+					if (e == parentEdge[v]) {
+						continue;
+					}
+					if (disc[w] == -1) {
+						// tree edge
+						edgeStack[eTop++] = e;
+						disc[w] = low[w] = time++;
+						parentEdge[w] = e;
+						next[w] = g.getAdjacencyStart(w);
+						vertexStack[vTop++] = w;
+					} else if (disc[w] < disc[v]) {
+						// back edge
+						edgeStack[eTop++] = e;
+						low[v] = Math.min(low[v], disc[w]);
+					}
+				} else {
+					vTop--;
+					if (v == root) {
+						continue;
+					}
+					int pe = parentEdge[v];
+					int u = g.getOpposite(pe, v);
+					low[u] = Math.min(low[u], low[v]);
+					if (low[v] >= disc[u]) {
+						// u separates the component hanging from pe
+						int start = eTop;
+						do {
+							start--;
+						} while (edgeStack[start] != pe);
+						if (eTop - start > 1) {
+							rm.add(Arrays.copyOfRange(edgeStack, start, eTop));
+						}
+						eTop = start;
+					}
+				}
+			}
+		}
+		return rm;
+	}
+}
@@ -20,17 +20,29 @@
  */
 package org.semanticscience.narf.graphs.lib.cycles;
 
-import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jgrapht.UndirectedGraph;
+import org.semanticscience.narf.graphs.lib.CompactGraph;
 import org.semanticscience.narf.graphs.lib.cycles.exceptions.CycleBasisException;
 import org.semanticscience.narf.graphs.lib.cycles.exceptions.CycleException;
-import org.semanticscience.narf.graphs.nucleicacid.NucleicAcid;
 
 /**
+ * All the chordless cycles of a graph, optionally limited to a maximum
+ * length. The cycles are enumerated by a {@link ChordlessCycleEnumerator} on
+ * the adjacency lists of a compact snapshot of the graph; the start vertices
+ * are independent and are explored on a pool of threads. The cycles are
+ * returned ordered by their lowest vertex id whatever the number of threads.
+ * 
  * @author Jose Cruz-Toledo
  * 
  */
@@ -39,112 +51,236 @@ public class ChordlessCycleBasis<V, E> extends CycleBasis<V, E> {
 	 * A list with all chordless cycles in this graph
 	 */
 	private List<Cycle<V, E>> chordlessCycleBasis;
+	/**
+	 * A compact snapshot of the base graph
+	 */
+	private CompactGraph<V, E> graph;
+
+	/**
+	 * Find all the chordless cycles of a graph using as many threads as there
+	 * are available processors
+	 * 
+	 * @param aG
+	 *            an undirected graph without loops
+	 * @throws CycleBasisException
+	 *             if an edge has the same source and target
+	 */
+	public ChordlessCycleBasis(UndirectedGraph<V, E> aG)
+			throws CycleBasisException {
+		this(aG, Integer.MAX_VALUE);
+	}
 
+	/**
+	 * Find the chordless cycles of a graph that have at most aMaxLength edges
+	 * using as many threads as there are available processors
+	 * 
+	 * @param aG
+	 *            an undirected graph without loops
+	 * @param aMaxLength
+	 *            the maximum number of edges of a cycle, at least 3
+	 * @throws CycleBasisException
+	 *             if an edge has the same source and target
+	 */
+	public ChordlessCycleBasis(UndirectedGraph<V, E> aG, int aMaxLength)
+			throws CycleBasisException {
+		this(aG, aMaxLength, Runtime.getRuntime().availableProcessors());
+	}
 
-	@SuppressWarnings("unchecked")
-	public ChordlessCycleBasis(UndirectedGraph<V, E> aG) throws CycleBasisException {
+	/**
+	 * Find the chordless cycles of a graph that have at most aMaxLength edges
+	 * 
+	 * @param aG
+	 *            an undirected graph without loops
+	 * @param aMaxLength
+	 *            the maximum number of edges of a cycle, at least 3
+	 * @param aThreadCount
+	 *            the maximum number of start vertices explored at the same
+	 *            time
+	 * @throws CycleBasisException
+	 *             if an edge has the same source and target
+	 */
+	public ChordlessCycleBasis(UndirectedGraph<V, E> aG, int aMaxLength,
+			int aThreadCount) throws CycleBasisException {
 		super(aG);
-		chordlessCycleBasis = new LinkedList<Cycle<V, E>>();
-		// compute the cycle basis
-		// iterate over each edge of the passed in graph
 		Set<E> edges = aG.edgeSet();
 		for (E anEdge : edges) {
-			// get the source and target
-			V s = aG.getEdgeSource(anEdge);
-			V t = aG.getEdgeTarget(anEdge);
-			V[] ls = (V[]) new Object[1];
-			V[] lt = (V[]) new Object[1];
-			ls[0] = s;
-			lt[0] = t;
-			if (s.equals(t)) {
+			if (aG.getEdgeSource(anEdge).equals(aG.getEdgeTarget(anEdge))) {
 				throw new CycleBasisException(
 						"Invalid Graph! Source and target vertices are the same for edge: "
 								+ anEdge.toString());
 			}
-			findChordlessCycles(ls);
-			findChordlessCycles(lt);
 		}
+		graph = CompactGraph.fromGraph(aG);
+		chordlessCycleBasis = findChordlessCycles(aMaxLength, aThreadCount);
 	}
-	
-	
+
 	/**
-	 * Identifies all chordless cycles of this.getBaseGraph()
+	 * Enumerate the chordless cycles of the base graph
 	 * 
-	 * @param aVertexList
-	 * @throws CycleBasisException
+	 * @param aMaxLength
+	 *            the maximum number of edges of a cycle
+	 * @param aThreadCount
+	 *            the maximum number of start vertices explored at the same
+	 *            time
+	 * @return the chordless cycles ordered by their lowest vertex id
 	 */
-	@SuppressWarnings("unchecked")
-	private void findChordlessCycles(V[] aVertexList)
-			throws CycleBasisException {
-		V n = aVertexList[0];
-		V x = null;
-		V[] sub = (V[]) new Object[aVertexList.length + 1];
-		// LinkedList<V> sub = new LinkedList<V>();
-		Iterator<E> eItr = this.getBaseGraph().edgeSet().iterator();
-		while (eItr.hasNext()) {
-			E anEdge = eItr.next();
-			// get the source and the target vertices for the current edge
-			V source = this.getBaseGraph().getEdgeSource(anEdge);
-			V target = this.getBaseGraph().getEdgeTarget(anEdge);
-			if (source.equals(target)) {
-				throw new CycleBasisException(
-						"Invalid Graph! Source and target vertices are the same for edge: "
-								+ anEdge.toString());
-			}
-			if (source.equals(n)) {
-				x = target;
-				if (!this.myInArray(x, aVertexList)) {
-					sub[0] = x;
-					System.arraycopy(aVertexList, 0, sub, 1, aVertexList.length);
-					findChordlessCycles(sub);
-				} else if ((aVertexList.length > 2)
-						&& (x.equals(aVertexList[aVertexList.length - 1]))) {
-					// cycle found
-					// create a cycle from a vertex list
-					// check if there is a non adjacent vertex in vertexlist
-					boolean rabid = this
-							.edgeExistsBetweenNonAdjacentVertices(aVertexList);
-					if (rabid == false) {
-						Cycle<V, E> c = this.createCycleFromVertices(
-								this.getBaseGraph(), aVertexList);
-						Cycle<V, E> c_invert = c.invertCycle();
-						if (!this.getChordlessCycleBasis().contains(c)) {
-							if (!this.getChordlessCycleBasis().contains(
-									c_invert)) {
-								this.getChordlessCycleBasis().add(c);
-								continue;
-							}
-						}
+	private List<Cycle<V, E>> findChordlessCycles(final int aMaxLength,
+			int aThreadCount) {
+		final int n = this.graph.getVertexCount();
+		// the cycles found from every start vertex
+		final List<List<Cycle<V, E>>> found = new ArrayList<List<Cycle<V, E>>>(
+				n);
+		for (int i = 0; i < n; i++) {
+			found.add(null);
+		}
+		final AtomicInteger nextStart = new AtomicInteger();
+		Callable<Void> worker = new Callable<Void>() {
+			public Void call() {
+				ChordlessCycleEnumerator en = new ChordlessCycleEnumerator(
+						graph, aMaxLength, 0, 0);
+				int s;
+				while ((s = nextStart.getAndIncrement()) < n) {
+					List<Cycle<V, E>> l = new ArrayList<Cycle<V, E>>();
+					en.reset(s, s + 1);
+					while (en.hasNext()) {
+						l.add(makeCycle(getBaseGraph(), graph, en.next()));
 					}
+					found.set(s, l);
 				}
-			} else if (target.equals(n)) {
-				x = source;
-				if (!this.myInArray(x, aVertexList)) {
-					sub[0] = x;
-					System.arraycopy(aVertexList, 0, sub, 1, aVertexList.length);
-					findChordlessCycles(sub);
-				} else if ((aVertexList.length > 2)
-						&& (x.equals(aVertexList[aVertexList.length - 1]))) {
-					// cycle found
-					// create a cycle from a vertex list
-					boolean rabid = edgeExistsBetweenNonAdjacentVertices(aVertexList);
-					if (rabid == false) {
-						Cycle<V, E> c = this.createCycleFromVertices(
-								this.getBaseGraph(), aVertexList);
-						Cycle<V, E> c_invert = c.invertCycle();
-						if (!this.getChordlessCycleBasis().contains(c)) {
-							if (!this.getChordlessCycleBasis().contains(
-									c_invert)) {
-								this.getChordlessCycleBasis().add(c);
-								continue;
-							}
-						}
-					}
+				return null;
+			}
+		};
+		int threads = Math.min(aThreadCount, n);
+		if (threads <= 1) {
+			try {
+				worker.call();
+			} catch (Exception e) {
+				throw new IllegalStateException(
+						"Could not enumerate the chordless cycles", e);
+			}
+		} else {
+			ExecutorService pool = Executors.newFixedThreadPool(threads);
+			try {
+				List<Future<Void>> futures = new ArrayList<Future<Void>>();
+				for (int i = 0; i < threads; i++) {
+					futures.add(pool.submit(worker));
+				}
+				for (Future<Void> f : futures) {
+					f.get();
 				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(
+						"Interrupted while enumerating the chordless cycles", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException(
+						"Could not enumerate the chordless cycles",
+						e.getCause());
+			} finally {
+				pool.shutdown();
 			}
 		}
+		List<Cycle<V, E>> rm = new LinkedList<Cycle<V, E>>();
+		for (List<Cycle<V, E>> l : found) {
+			rm.addAll(l);
+		}
+		return rm;
 	}
-	
+
+	/**
+	 * Iterate lazily over the chordless cycles of a graph that have at most
+	 * aMaxLength edges. Unlike the constructors, the cycles are not kept in
+	 * memory; they are enumerated as the iterator advances. Splitting the
+	 * iterator splits the start vertices that have not been explored yet.
+	 * 
+	 * @param aG
+	 *            an undirected graph without loops
+	 * @param aMaxLength
+	 *            the maximum number of edges of a cycle, at least 3
+	 * @return an iterator over the chordless cycles ordered by their lowest
+	 *         vertex id
+	 */
+	public static <V, E> CycleIterator<V, E> iterator(UndirectedGraph<V, E> aG,
+			int aMaxLength) {
+		CompactGraph<V, E> g = CompactGraph.fromGraph(aG);
+		return new ChordlessCycleIterator<V, E>(aG, g,
+				new ChordlessCycleEnumerator(g, aMaxLength));
+	}
+
+	/**
+	 * Create a Cycle object from the vertex ids returned by the enumerator
+	 * 
+	 * @param aG
+	 *            the base graph
+	 * @param aCompactGraph
+	 *            the snapshot of aG the ids refer to
+	 * @param someVertexIds
+	 *            the vertex ids of a cycle in the order they are traversed
+	 * @return the cycle
+	 * @throws IllegalStateException
+	 *             if the vertex ids do not describe a cycle of aG, which
+	 *             means the enumerator and the snapshot disagree
+	 */
+	private static <V, E> Cycle<V, E> makeCycle(UndirectedGraph<V, E> aG,
+			CompactGraph<V, E> aCompactGraph, int[] someVertexIds) {
+		int k = someVertexIds.length;
+		List<E> el = new ArrayList<E>(k);
+		for (int i = 0; i < k; i++) {
+			el.add(aCompactGraph.getEdge(aCompactGraph.findEdge(
+					someVertexIds[i], someVertexIds[(i + 1) % k])));
+		}
+		try {
+			return new Cycle<V, E>(aG, aCompactGraph.getVertex(someVertexIds[0]),
+					aCompactGraph.getVertex(someVertexIds[k - 1]), el,
+					el.size());
+		} catch (CycleException e) {
+			throw new IllegalStateException(
+					"Could not create a chordless cycle", e);
+		}
+	}
+
+	/**
+	 * A lazy iterator backed by a chordless cycle enumerator
+	 */
+	private static final class ChordlessCycleIterator<V, E> extends
+			CycleIterator<V, E> {
+		private final UndirectedGraph<V, E> baseGraph;
+		private final CompactGraph<V, E> graph;
+		private final ChordlessCycleEnumerator enumerator;
+
+		private ChordlessCycleIterator(UndirectedGraph<V, E> aG,
+				CompactGraph<V, E> aCompactGraph,
+				ChordlessCycleEnumerator anEnumerator) {
+			baseGraph = aG;
+			graph = aCompactGraph;
+			enumerator = anEnumerator;
+		}
+
+		public boolean hasNext() {
+			return enumerator.hasNext();
+		}
+
+		public Cycle<V, E> next() {
+			return makeCycle(baseGraph, graph, enumerator.next());
+		}
+
+		@Override
+		public CycleIterator<V, E> trySplit() {
+			ChordlessCycleEnumerator split = enumerator.trySplit();
+			return (split == null) ? null : new ChordlessCycleIterator<V, E>(
+					baseGraph, graph, split);
+		}
+
+		/**
+		 * The number of cycles is not known in advance, the number of start
+		 * vertices left is used instead
+		 */
+		@Override
+		public long estimateSize() {
+			return enumerator.getToVertex() - enumerator.getNextStart();
+		}
+	}
+
 	/**
 	 * Create a Cycle object from a given list of vertices. Note that the first
 	 * element in the vertex list will be the start of the cycle and the last
@@ -242,25 +378,6 @@ public class ChordlessCycleBasis<V, E> extends CycleBasis<V, E> {
 		return false;
 	}
 	
-	/**
-	 * Return true if aV is in aVArr
-	 * 
-	 * @param aV
-	 *            search
-	 * @param aVArr
-	 *            where to search
-	 * @return true if aV is in aVArr
-	 */
-	private boolean myInArray(V aV, V[] aVArr) {
-		for (int i = 0; i < aVArr.length; i++) {
-			if (aV.equals(aVArr[i])) {
-				return true;
-			}
-		}
-		return false;
-	}
-	
-
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -0,0 +1,330 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import java.util.NoSuchElementException;
+
+import org.semanticscience.narf.graphs.lib.CompactGraph;
+
+/**
+ * An iterative enumerator of the chordless cycles of a simple graph. Every
+ * chordless cycle is reported once, from its vertex with the lowest id and
+ * in the direction where the second vertex has a lower id than the last one.
+ * 
+ * Paths are grown from a start vertex s through vertices with an id higher
+ * than s. For every vertex the number of path vertices (other than s) it is
+ * adjacent to is maintained as the path grows and shrinks, so a vertex can
+ * only extend the path if the last vertex is its single neighbour on the
+ * path; in that case the path stays chordless. A vertex adjacent to s closes
+ * a cycle and is never used to extend the path.
+ * 
+ * The enumeration is resumable: cycles are returned one at a time by
+ * {@link #next()} and the search continues from where it stopped. It only
+ * covers the start vertices in [fromVertex, toVertex), so that disjoint
+ * ranges can be enumerated independently.
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class ChordlessCycleEnumerator {
+	/**
+	 * The graph whose cycles are enumerated
+	 */
+	private final CompactGraph<?, ?> graph;
+	/**
+	 * The maximum number of edges of the cycles that are returned
+	 */
+	private final int maxLength;
+	/**
+	 * The vertex ids of the current path, path[0] is the start vertex
+	 */
+	private final int[] path;
+	/**
+	 * The next adjacency position to explore for every vertex of the path
+	 */
+	private final int[] cursor;
+	/**
+	 * For every vertex, the number of path vertices other than the start
+	 * that are adjacent to it
+	 */
+	private final int[] blocked;
+	/**
+	 * Vertices that are on the current path
+	 */
+	private final boolean[] onPath;
+	/**
+	 * Vertices that are adjacent to the current start vertex
+	 */
+	private final boolean[] closing;
+	/**
+	 * The position of the last vertex of the path, -1 if there is no path
+	 */
+	private int depth;
+	/**
+	 * The next start vertex and the end of the range of start vertices
+	 */
+	private int nextStart;
+	private int toVertex;
+	/**
+	 * The cycle that will be returned by next(), if it was already found
+	 */
+	private int[] pending;
+
+	/**
+	 * Enumerate the chordless cycles of a graph whose length is at most
+	 * aMaxLength
+	 * 
+	 * @param aGraph
+	 *            a compact snapshot of a simple graph
+	 * @param aMaxLength
+	 *            the maximum number of edges of a cycle
+	 * @throws IllegalArgumentException
+	 *             if aMaxLength is lower than 3
+	 */
+	public ChordlessCycleEnumerator(CompactGraph<?, ?> aGraph, int aMaxLength) {
+		this(aGraph, aMaxLength, 0, aGraph.getVertexCount());
+	}
+
+	/**
+	 * Enumerate the chordless cycles of a graph whose length is at most
+	 * aMaxLength and whose lowest vertex id is in [fromVertex, toVertex)
+	 * 
+	 * @param aGraph
+	 *            a compact snapshot of a simple graph
+	 * @param aMaxLength
+	 *            the maximum number of edges of a cycle
+	 * @param fromVertex
+	 *            the first start vertex id
+	 * @param toVertex
+	 *            the start vertex id where the enumeration stops
+	 * @throws IllegalArgumentException
+	 *             if aMaxLength is lower than 3
+	 */
+	public ChordlessCycleEnumerator(CompactGraph<?, ?> aGraph, int aMaxLength,
+			int fromVertex, int toVertex) {
+		if (aMaxLength < 3) {
+			throw new IllegalArgumentException(
+					"The maximum cycle length must be at least 3");
+		}
+		int n = aGraph.getVertexCount();
+		this.graph = aGraph;
+		this.maxLength = aMaxLength;
+		this.path = new int[Math.min(n, aMaxLength)];
+		this.cursor = new int[this.path.length];
+		this.blocked = new int[n];
+		this.onPath = new boolean[n];
+		this.closing = new boolean[n];
+		this.depth = -1;
+		this.reset(fromVertex, toVertex);
+	}
+
+	/**
+	 * Restart the enumeration on another range of start vertices
+	 * 
+	 * @param fromVertex
+	 *            the first start vertex id
+	 * @param toVertex
+	 *            the start vertex id where the enumeration stops
+	 */
+	public void reset(int fromVertex, int toVertex) {
+		while (this.depth > 0) {
+			this.pop();
+		}
+		if (this.depth == 0) {
+			this.leaveStart();
+		}
+		this.depth = -1;
+		this.nextStart = Math.max(0, fromVertex);
+		this.toVertex = Math.min(toVertex, this.graph.getVertexCount());
+		this.pending = null;
+	}
+
+	/**
+	 * @return true if there is at least another chordless cycle to enumerate
+	 */
+	public boolean hasNext() {
+		if (this.pending == null) {
+			this.pending = this.findNext();
+		}
+		return this.pending != null;
+	}
+
+	/**
+	 * Get the next chordless cycle
+	 * 
+	 * @return the vertex ids of the cycle in the order they are traversed,
+	 *         the last vertex is adjacent to the first one
+	 * @throws NoSuchElementException
+	 *             if there are no more cycles
+	 */
+	public int[] next() {
+		if (!this.hasNext()) {
+			throw new NoSuchElementException();
+		}
+		int[] rm = this.pending;
+		this.pending = null;
+		return rm;
+	}
+
+	/**
+	 * Split the start vertices that have not been explored yet. The upper half
+	 * of them is handed to a new enumerator and removed from this one.
+	 * 
+	 * @return an enumerator over the upper half of the unexplored start
+	 *         vertices, or null if there are not enough of them
+	 */
+	public ChordlessCycleEnumerator trySplit() {
+		int remaining = this.toVertex - this.nextStart;
+		// the start being explored counts as one part
+		boolean exploring = this.depth >= 0 || this.pending != null;
+		if (remaining < 1 || (remaining < 2 && !exploring)) {
+			return null;
+		}
+		int mid = this.nextStart + remaining / 2;
+		ChordlessCycleEnumerator rm = new ChordlessCycleEnumerator(
+				this.graph, this.maxLength, mid, this.toVertex);
+		this.toVertex = mid;
+		return rm;
+	}
+
+	/**
+	 * @return the id of the start vertex the enumeration will explore next,
+	 *         or the end of the range if all of them have been explored
+	 */
+	public int getNextStart() {
+		return this.nextStart;
+	}
+
+	/**
+	 * @return the end of the range of start vertices
+	 */
+	public int getToVertex() {
+		return this.toVertex;
+	}
+
+	/**
+	 * Continue the depth first search until a cycle is found
+	 * 
+	 * @return the next cycle or null if the enumeration is over
+	 */
+	private int[] findNext() {
+		while (true) {
+			if (this.depth < 0) {
+				if (this.nextStart >= this.toVertex) {
+					return null;
+				}
+				this.enterStart(this.nextStart++);
+				continue;
+			}
+			int last = this.path[this.depth];
+			if (this.cursor[this.depth] >= this.graph.getAdjacencyEnd(last)) {
+				if (this.depth == 0) {
+					this.leaveStart();
+					this.depth = -1;
+				} else {
+					this.pop();
+				}
+				continue;
+			}
+			int w = this.graph.getAdjacentVertex(this.cursor[this.depth]++);
+			if (w <= this.path[0] || this.onPath[w]) {
+				continue;
+			}
+			if (this.depth == 0) {
+				this.push(w);
+				continue;
+			}
+			if (this.blocked[w] != 1) {
+				// w is adjacent to a vertex of the path other than the last
+				continue;
+			}
+			if (this.closing[w]) {
+				if (this.depth + 2 <= this.maxLength && this.path[1] < w) {
+					int[] rm = new int[this.depth + 2];
+					System.arraycopy(this.path, 0, rm, 0, this.depth + 1);
+					rm[this.depth + 1] = w;
+					return rm;
+				}
+			} else if (this.depth + 3 <= this.maxLength) {
+				this.push(w);
+			}
+		}
+	}
+
+	/**
+	 * Start a new search from a vertex
+	 * 
+	 * @param s
+	 *            the start vertex
+	 */
+	private void enterStart(int s) {
+		this.depth = 0;
+		this.path[0] = s;
+		this.cursor[0] = this.graph.getAdjacencyStart(s);
+		this.onPath[s] = true;
+		for (int i = this.graph.getAdjacencyStart(s); i < this.graph
+				.getAdjacencyEnd(s); i++) {
+			this.closing[this.graph.getAdjacentVertex(i)] = true;
+		}
+	}
+
+	/**
+	 * Clear the state of the current start vertex
+	 */
+	private void leaveStart() {
+		int s = this.path[0];
+		this.onPath[s] = false;
+		for (int i = this.graph.getAdjacencyStart(s); i < this.graph
+				.getAdjacencyEnd(s); i++) {
+			this.closing[this.graph.getAdjacentVertex(i)] = false;
+		}
+	}
+
+	/**
+	 * Extend the path with a vertex
+	 * 
+	 * @param v
+	 *            the new last vertex of the path
+	 */
+	private void push(int v) {
+		this.depth++;
+		this.path[this.depth] = v;
+		this.cursor[this.depth] = this.graph.getAdjacencyStart(v);
+		this.onPath[v] = true;
+		for (int i = this.graph.getAdjacencyStart(v); i < this.graph
+				.getAdjacencyEnd(v); i++) {
+			this.blocked[this.graph.getAdjacentVertex(i)]++;
+		}
+	}
+
+	/**
+	 * Remove the last vertex of the path
+	 */
+	private void pop() {
+		int v = this.path[this.depth];
+		this.onPath[v] = false;
+		for (int i = this.graph.getAdjacencyStart(v); i < this.graph
+				.getAdjacencyEnd(v); i++) {
+			this.blocked[this.graph.getAdjacentVertex(i)]--;
+		}
+		this.depth--;
+	}
+}
@@ -0,0 +1,393 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.semanticscience.narf.graphs.lib.CompactGraph;
+
+/**
+ * A memory compact immutable cycle. A CompactCycle only holds the ids of its
+ * vertices and edges in the {@link CompactGraph} of the structure it was
+ * found in, so all the cycles of a structure share one table of vertices and
+ * edges. The i-th edge goes from the i-th vertex to the next one.
+ * {@link #asCycle()} wraps a CompactCycle in a {@link Cycle} whose vertex and
+ * edge lists are views over the ids, for code that uses the Cycle API.
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public final class CompactCycle<V, E> {
+	/**
+	 * The graph whose ids are used
+	 */
+	private final CompactGraph<V, E> graph;
+	/**
+	 * The vertex ids in the order of the cycle
+	 */
+	private final int[] vertexIds;
+	/**
+	 * The edge ids in the order of the cycle
+	 */
+	private final int[] edgeIds;
+	/**
+	 * The hash code, it does not depend on where the cycle starts nor on its
+	 * direction
+	 */
+	private final int hash;
+
+	private CompactCycle(CompactGraph<V, E> aGraph, int[] someVertexIds,
+			int[] someEdgeIds) {
+		graph = aGraph;
+		vertexIds = someVertexIds;
+		edgeIds = someEdgeIds;
+		int h = 0;
+		for (int e : someEdgeIds) {
+			h += e * 0x9E3779B9;
+		}
+		hash = h;
+	}
+
+	/**
+	 * Create a compact cycle from the ordered edge ids of a cycle. The cycle
+	 * starts at the vertex shared by the first and the last edge.
+	 * 
+	 * @param aGraph
+	 *            the graph of the edges
+	 * @param someEdgeIds
+	 *            the edge ids in the order of the cycle
+	 * @return the compact cycle
+	 * @throws IllegalArgumentException
+	 *             if the edges do not form a simple cycle of at least 3
+	 *             edges
+	 */
+	public static <V, E> CompactCycle<V, E> fromEdgeIds(
+			CompactGraph<V, E> aGraph, int[] someEdgeIds) {
+		int n = someEdgeIds.length;
+		if (n < 3) {
+			throw new IllegalArgumentException(
+					"Invalid number of edges. Minimum 3 accepted!");
+		}
+		int first = someEdgeIds[0];
+		int last = someEdgeIds[n - 1];
+		int v = aGraph.getEdgeSource(first);
+		if (v != aGraph.getEdgeSource(last) && v != aGraph.getEdgeTarget(last)) {
+			v = aGraph.getEdgeTarget(first);
+		}
+		int start = v;
+		int[] vertices = new int[n];
+		for (int i = 0; i < n; i++) {
+			vertices[i] = v;
+			int e = someEdgeIds[i];
+			if (aGraph.getEdgeSource(e) == v) {
+				v = aGraph.getEdgeTarget(e);
+			} else if (aGraph.getEdgeTarget(e) == v) {
+				v = aGraph.getEdgeSource(e);
+			} else {
+				throw new IllegalArgumentException(
+						"Consecutive edges do not share a vertex");
+			}
+		}
+		if (v != start) {
+			throw new IllegalArgumentException("The edges do not close a cycle");
+		}
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				if (vertices[i] == vertices[j]) {
+					throw new IllegalArgumentException(
+							"The edges do not form a simple cycle");
+				}
+			}
+		}
+		return new CompactCycle<V, E>(aGraph, vertices, someEdgeIds.clone());
+	}
+
+	/**
+	 * Create a compact cycle from a cycle
+	 * 
+	 * @param aCycle
+	 *            a cycle
+	 * @param aGraph
+	 *            a compact graph that contains the vertices and edges of
+	 *            aCycle
+	 * @return the compact cycle, with the same start and order as aCycle
+	 * @throws IllegalArgumentException
+	 *             if a vertex or an edge of aCycle is not in aGraph
+	 */
+	public static <V, E> CompactCycle<V, E> fromCycle(Cycle<V, E> aCycle,
+			CompactGraph<V, E> aGraph) {
+		int n = aCycle.size();
+		int[] vertices = new int[n];
+		int[] edges = new int[n];
+		for (int i = 0; i < n; i++) {
+			vertices[i] = aGraph.getVertexId(aCycle.getVertex(i));
+			edges[i] = aGraph.getEdgeId(aCycle.getEdge(i));
+			if (vertices[i] == -1 || edges[i] == -1) {
+				throw new IllegalArgumentException(
+						"The cycle is not part of the graph");
+			}
+		}
+		return new CompactCycle<V, E>(aGraph, vertices, edges);
+	}
+
+	/**
+	 * Create compact cycles from a list of cycles of the same graph
+	 * 
+	 * @param someCycles
+	 *            cycles
+	 * @param aGraph
+	 *            a compact graph that contains all the cycles
+	 * @return the compact cycles in the same order
+	 */
+	public static <V, E> List<CompactCycle<V, E>> fromCycles(
+			List<Cycle<V, E>> someCycles, CompactGraph<V, E> aGraph) {
+		List<CompactCycle<V, E>> rm = new ArrayList<CompactCycle<V, E>>(
+				someCycles.size());
+		for (Cycle<V, E> c : someCycles) {
+			rm.add(fromCycle(c, aGraph));
+		}
+		return rm;
+	}
+
+	/**
+	 * @return the graph whose ids are used by this cycle
+	 */
+	public CompactGraph<V, E> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the number of edges of this cycle
+	 */
+	public int size() {
+		return edgeIds.length;
+	}
+
+	/**
+	 * @param aPosition
+	 *            a position between 0 and size()-1
+	 * @return the id of the vertex at aPosition
+	 */
+	public int getVertexId(int aPosition) {
+		return vertexIds[aPosition];
+	}
+
+	/**
+	 * @param aPosition
+	 *            a position between 0 and size()-1
+	 * @return the id of the edge that goes from the vertex at aPosition to
+	 *         the next one
+	 */
+	public int getEdgeId(int aPosition) {
+		return edgeIds[aPosition];
+	}
+
+	/**
+	 * @param aPosition
+	 *            a position between 0 and size()-1
+	 * @return the vertex at aPosition
+	 */
+	public V getVertex(int aPosition) {
+		return graph.getVertex(vertexIds[aPosition]);
+	}
+
+	/**
+	 * @param aPosition
+	 *            a position between 0 and size()-1
+	 * @return the edge that goes from the vertex at aPosition to the next one
+	 */
+	public E getEdge(int aPosition) {
+		return graph.getEdge(edgeIds[aPosition]);
+	}
+
+	/**
+	 * @return a copy of the vertex ids in the order of the cycle
+	 */
+	public int[] getVertexIds() {
+		return vertexIds.clone();
+	}
+
+	/**
+	 * @return a copy of the edge ids in the order of the cycle
+	 */
+	public int[] getEdgeIds() {
+		return edgeIds.clone();
+	}
+
+	/**
+	 * Get the position of a vertex in this cycle
+	 * 
+	 * @param aVertexId
+	 *            a vertex id
+	 * @return the position of the vertex, -1 if it is not part of this cycle
+	 */
+	public int getPosition(int aVertexId) {
+		for (int i = 0; i < vertexIds.length; i++) {
+			if (vertexIds[i] == aVertexId) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Rotate this cycle so that it starts at another position, keeping its
+	 * direction
+	 * 
+	 * @param aPosition
+	 *            the position of the new first vertex
+	 * @return the rotated cycle
+	 */
+	public CompactCycle<V, E> rotate(int aPosition) {
+		int n = edgeIds.length;
+		int[] vertices = new int[n];
+		int[] edges = new int[n];
+		for (int i = 0; i < n; i++) {
+			vertices[i] = vertexIds[(aPosition + i) % n];
+			edges[i] = edgeIds[(aPosition + i) % n];
+		}
+		return new CompactCycle<V, E>(graph, vertices, edges);
+	}
+
+	/**
+	 * Walk this cycle in the other direction from the same first vertex
+	 * 
+	 * @return the inverted cycle
+	 */
+	public CompactCycle<V, E> invert() {
+		int n = edgeIds.length;
+		int[] vertices = new int[n];
+		int[] edges = new int[n];
+		vertices[0] = vertexIds[0];
+		for (int i = 1; i < n; i++) {
+			vertices[i] = vertexIds[n - i];
+		}
+		for (int i = 0; i < n; i++) {
+			edges[i] = edgeIds[n - 1 - i];
+		}
+		return new CompactCycle<V, E>(graph, vertices, edges);
+	}
+
+	/**
+	 * @return the key of the set of edges of this cycle
+	 */
+	public CycleKey toKey() {
+		return CycleKey.fromEdgeIds(edgeIds);
+	}
+
+	/**
+	 * Wrap this cycle in a Cycle. The vertex and edge lists of the returned
+	 * cycle are views over the ids of this cycle, nothing is copied.
+	 * 
+	 * @return a cycle of the base graph of the compact graph
+	 */
+	public Cycle<V, E> asCycle() {
+		return new Cycle<V, E>(graph.getBaseGraph(), new VertexView(),
+				new EdgeView());
+	}
+
+	/**
+	 * Two compact cycles are equal if they have the same edges in the same
+	 * graph, wherever they start and whatever their direction
+	 * 
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CompactCycle)) {
+			return false;
+		}
+		CompactCycle<?, ?> other = (CompactCycle<?, ?>) obj;
+		if (other.graph != graph || other.hash != hash
+				|| other.edgeIds.length != edgeIds.length) {
+			return false;
+		}
+		int start = other.getPosition(vertexIds[0]);
+		if (start == -1) {
+			return false;
+		}
+		int n = edgeIds.length;
+		// same direction, or the other way around
+		boolean forward = true;
+		boolean backward = true;
+		for (int i = 0; i < n && (forward || backward); i++) {
+			forward &= edgeIds[i] == other.edgeIds[(start + i) % n];
+			backward &= edgeIds[i] == other.edgeIds[(start - 1 - i + 2 * n)
+					% n];
+		}
+		return forward || backward;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("CompactCycle: [");
+		for (int i = 0; i < vertexIds.length; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(vertexIds[i]);
+		}
+		return sb.append("]").toString();
+	}
+
+	/**
+	 * The vertices of this cycle, translated on access
+	 */
+	private final class VertexView extends AbstractList<V> implements
+			RandomAccess {
+		@Override
+		public V get(int index) {
+			return graph.getVertex(vertexIds[index]);
+		}
+
+		@Override
+		public int size() {
+			return vertexIds.length;
+		}
+	}
+
+	/**
+	 * The edges of this cycle, translated on access
+	 */
+	private final class EdgeView extends AbstractList<E> implements
+			RandomAccess {
+		@Override
+		public E get(int index) {
+			return graph.getEdge(edgeIds[index]);
+		}
+
+		@Override
+		public int size() {
+			return edgeIds.length;
+		}
+	}
+}
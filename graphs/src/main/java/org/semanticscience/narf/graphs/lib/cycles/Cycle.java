@@ -20,25 +20,56 @@
  */
 package org.semanticscience.narf.graphs.lib.cycles;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.jgrapht.Graph;
 import org.jgrapht.graph.GraphPathImpl;
 import org.semanticscience.narf.graphs.lib.cycles.exceptions.CycleException;
 
 /**
+ * An immutable cycle. The vertices and the edges are kept in random access
+ * lists so that the i-th edge goes from the i-th vertex to the next one.
+ * Positions are found by scanning the vertices of short cycles, and through a
+ * vertex to position map built on first use for long ones, so that small
+ * cycles only cost their two lists. The lists can also be views over the ids
+ * of a {@link CompactCycle}.
+ * 
  * @author Jose Cruz-Toledo
  * 
  */
 public class Cycle<V, E> extends GraphPathImpl<V, E> {
 	/**
-	 * The vertices that compose this cycle
+	 * Cycles with more vertices than this use a map to find positions
+	 */
+	private static final int POSITION_MAP_THRESHOLD = 16;
+	/**
+	 * An unmodifiable random access list of the vertices that compose this
+	 * cycle
+	 */
+	private final List<V> vertices;
+	/**
+	 * The edges that compose this cycle, the i-th edge starts at the i-th
+	 * vertex
+	 */
+	private final List<E> edges;
+	/**
+	 * The position of every vertex of a long cycle, built on first use
+	 */
+	private volatile Map<V, Integer> vertexPositions = null;
+	/**
+	 * The hash code of this cycle, it does not depend on where the cycle
+	 * starts nor on its direction
 	 */
-	private LinkedList<V> vertexList;
-	private LinkedList<E> edgeLinkedList;
+	private final int hash;
 
 	/**
 	 * Create a Cycle that starts at startVertex ends at endVertex traversing
@@ -57,83 +88,213 @@ public class Cycle<V, E> extends GraphPathImpl<V, E> {
 	 * @throws CycleException
 	 *             if an invalid number of edges is found
 	 */
+	@SuppressWarnings("unchecked")
 	public Cycle(Graph<V, E> aGraph, V startVertex, V endVertex,
 			List<E> edgeList, double weight) throws CycleException {
-		super(aGraph, startVertex, endVertex, edgeList, weight);
-		vertexList = new LinkedList<V>();
-		edgeLinkedList = new LinkedList<E>();
-		//add the edges from the edgelist
-		for(E anEdge: edgeList){
-			edgeLinkedList.add(anEdge);
-		}
+		super(aGraph, startVertex, endVertex, copyEdgeList(edgeList), weight);
+		edges = this.getEdgeList();
 		// check that you have at least 3 edges
-		if (edgeList.size() < 3) {
+		if (edges.size() < 3) {
 			throw new CycleException(
 					"Invalid number of edges. Minimum 3 accepted!");
-		} else {
-			// get the first and last edge
-			E lastE = edgeList.get(edgeList.size() - 1);
-			E firstE = edgeList.get(0);
-			V firstV = this.getCommonVertex(firstE, lastE);
-			if (!vertexList.contains(firstV)) {
-				vertexList.add(firstV);
+		}
+		List<V> vl = this.walkEdges();
+		if (vl == null) {
+			// the edges are not given in the order of the cycle
+			vl = this.collectVertices();
+		}
+		int d = edges.size() - vl.size();
+		if (d < 0) {
+			throw new CycleException("Incorrect number of edges");
+		}
+		vertices = Collections.unmodifiableList(Arrays.asList(vl
+				.toArray((V[]) new Object[vl.size()])));
+		hash = computeHash(edges);
+		// check if start and end vertex are in the vertex list
+		if (!this.containsVertex(startVertex)) {
+			throw new CycleException(
+					"Requested start vertex not found in vertex list");
+		}
+		if (!this.containsVertex(endVertex)) {
+			throw new CycleException(
+					"Requested end vertex not found in vertex list");
+		}
+	}// constructor
+
+	/**
+	 * Create a cycle over lists that are already in the order of the cycle:
+	 * the i-th edge goes from the i-th vertex to the next one. The lists are
+	 * used as they are, so they must be unmodifiable and random access.
+	 * 
+	 * @param aGraph
+	 *            the base graph where the cycle is found
+	 * @param someVertices
+	 *            the ordered vertices
+	 * @param someEdges
+	 *            the ordered edges
+	 */
+	Cycle(Graph<V, E> aGraph, List<V> someVertices, List<E> someEdges) {
+		super(aGraph, someVertices.get(0), someVertices.get(someVertices
+				.size() - 1), someEdges, someEdges.size());
+		edges = someEdges;
+		vertices = someVertices;
+		hash = computeHash(edges);
+	}
+
+	private static <E> int computeHash(List<E> someEdges) {
+		int h = 0;
+		for (E anEdge : someEdges) {
+			h += anEdge.hashCode();
+		}
+		return 31 + h;
+	}
+
+	/**
+	 * Copy an edge list into an unmodifiable random access list
+	 * 
+	 * @param edgeList
+	 *            a list of edges
+	 * @return an unmodifiable copy of edgeList
+	 */
+	private static <E> List<E> copyEdgeList(List<E> edgeList) {
+		return Collections.unmodifiableList(new ArrayList<E>(edgeList));
+	}
+
+	/**
+	 * Walk the edges of this cycle in order, starting at the vertex shared by
+	 * the first and the last edge
+	 * 
+	 * @return the vertices in the order they are visited, or null if the edges
+	 *         do not form a simple closed walk in the order they were given
+	 */
+	private List<V> walkEdges() {
+		int n = edges.size();
+		V v = this.getCommonVertex(edges.get(0), edges.get(n - 1));
+		if (v == null) {
+			return null;
+		}
+		V first = v;
+		List<V> rm = new ArrayList<V>(n);
+		Set<V> seen = new HashSet<V>(n * 2);
+		for (int i = 0; i < n; i++) {
+			if (!seen.add(v)) {
+				return null;
+			}
+			rm.add(v);
+			v = this.getOpposite(edges.get(i), v);
+			if (v == null) {
+				return null;
 			}
-			for (int i = 1; i < edgeList.size(); i++) {
-				E anEdge = edgeList.get(i);
-				for (int j = i - 1; j < edgeList.size() - 1; j++) {
-					E anotherEdge = edgeList.get(j);
-					// get the common vertex
-					if (i != j) {
-						V cV = this.getCommonVertex(anEdge, anotherEdge);
-						if (!vertexList.contains(cV) && cV != null) {
-							vertexList.add(cV);
-						}
+		}
+		return v.equals(first) ? rm : null;
+	}
+
+	/**
+	 * Collect the vertices of edges that are not listed in the order of the
+	 * cycle by looking for the vertices shared by pairs of edges
+	 * 
+	 * @return the vertices of this cycle
+	 * @throws CycleException
+	 *             if two consecutive edges do not share a vertex
+	 */
+	private List<V> collectVertices() throws CycleException {
+		Set<V> rm = new LinkedHashSet<V>();
+		// get the first and last edge
+		E lastE = edges.get(edges.size() - 1);
+		E firstE = edges.get(0);
+		V firstV = this.getCommonVertex(firstE, lastE);
+		if (firstV == null) {
+			throw new CycleException(
+					"The first and the last edge do not share a vertex");
+		}
+		rm.add(firstV);
+		for (int i = 1; i < edges.size(); i++) {
+			E anEdge = edges.get(i);
+			for (int j = i - 1; j < edges.size() - 1; j++) {
+				E anotherEdge = edges.get(j);
+				// get the common vertex
+				if (i != j) {
+					V cV = this.getCommonVertex(anEdge, anotherEdge);
+					if (cV != null) {
+						rm.add(cV);
 					}
 				}
 			}
-			// now add the last vertex
-			E secondToLastE = edgeList.get(edgeList.size() - 2);
-			V lastV = this.getCommonVertex(lastE, secondToLastE);
-			if (!vertexList.contains(lastV)) {
-				vertexList.add(lastV);
-			}
-			int d = edgeList.size() - vertexList.size();
-			if (d < 0) {
-				throw new CycleException("Incorrect number of edges");
-			}
-			// check if start and end vertex are in the vertex list
-			if (!this.containsVertex(startVertex)) {
-				throw new CycleException(
-						"Requested start vertex not found in vertex list");
+		}
+		// now add the last vertex
+		E secondToLastE = edges.get(edges.size() - 2);
+		V lastV = this.getCommonVertex(lastE, secondToLastE);
+		if (lastV == null) {
+			throw new CycleException(
+					"The last two edges do not share a vertex");
+		}
+		rm.add(lastV);
+		return new ArrayList<V>(rm);
+	}
+
+	/**
+	 * Get the position of a vertex in this cycle
+	 * 
+	 * @param aVertex
+	 *            a vertex
+	 * @return the position of aVertex in the vertex list, -1 if aVertex is not
+	 *         part of this cycle
+	 */
+	public int getVertexPosition(V aVertex) {
+		if (aVertex == null) {
+			return -1;
+		}
+		int n = vertices.size();
+		if (n <= POSITION_MAP_THRESHOLD) {
+			for (int i = 0; i < n; i++) {
+				if (aVertex.equals(vertices.get(i))) {
+					return i;
+				}
 			}
-			if (!this.containsVertex(endVertex)) {
-				throw new CycleException(
-						"Requested end vertex not found in vertex list");
+			return -1;
+		}
+		Map<V, Integer> positions = vertexPositions;
+		if (positions == null) {
+			positions = new HashMap<V, Integer>(n * 2);
+			for (int i = n - 1; i >= 0; i--) {
+				positions.put(vertices.get(i), i);
 			}
+			vertexPositions = positions;
 		}
-	}// constructor
+		Integer rm = positions.get(aVertex);
+		return (rm == null) ? -1 : rm;
+	}
+
+	/**
+	 * Get the vertex at a position of this cycle
+	 * 
+	 * @param aPosition
+	 *            a position between 0 and size()-1
+	 * @return the vertex at aPosition
+	 */
+	public V getVertex(int aPosition) {
+		return vertices.get(aPosition);
+	}
+
+	/**
+	 * Get the edge at a position of this cycle. The edge at position i goes
+	 * from the vertex at position i to the vertex at position i+1
+	 * 
+	 * @param aPosition
+	 *            a position between 0 and size()-1
+	 * @return the edge at aPosition
+	 */
+	public E getEdge(int aPosition) {
+		return edges.get(aPosition);
+	}
 
 	private int computeDistance(V vStart, V vEnd) throws CycleException {
-		int startpos = 0;
-		int endpos = 0;
-		int pos = 0;
-		List<V> vl = this.getVertexList();
-		if (!vl.contains(vStart) || !vl.contains(vEnd)) {
+		int startpos = this.getVertexPosition(vStart);
+		int endpos = this.getVertexPosition(vEnd);
+		if (startpos < 0 || endpos < 0) {
 			throw new CycleException("Either vStart or vEnd were not in vlist");
 		}
-		Iterator<V> itr = vl.iterator();
-		while (itr.hasNext()) {
-			V vert = itr.next();
-			if (vert.equals(vStart)) {
-				startpos = pos;
-			}
-			if (vert.equals(vEnd)) {
-				endpos = pos;
-			}
-			pos++;
-		}
-		int dis = Math.abs(startpos - endpos);
-		return dis;
+		return Math.abs(startpos - endpos);
 	}
 
 	public E getFirstEdge() {
@@ -146,12 +307,11 @@ public class Cycle<V, E> extends GraphPathImpl<V, E> {
 	}
 
 	public V getFirstVertex() {
-		return this.getVertexList().get(0);
+		return vertices.get(0);
 	}
 
 	public V getLastVertex() {
-		int s = this.getVertexList().size();
-		return this.getVertexList().get(s - 1);
+		return vertices.get(vertices.size() - 1);
 	}
 
 
@@ -167,17 +327,17 @@ public class Cycle<V, E> extends GraphPathImpl<V, E> {
 	private E getCommonEdge(V aVertex, V anotherVertex) throws CycleException {
 		if (aVertex == null || anotherVertex == null) {
 			throw new CycleException("null vertices passed in");
-		} else {
-			Iterator<E> itr = this.getEdgeList().iterator();
-			while (itr.hasNext()) {
-				E anEdge = itr.next();
-				V s = this.getGraph().getEdgeSource(anEdge);
-				V t = this.getGraph().getEdgeTarget(anEdge);
-				if ((aVertex.equals(s) && anotherVertex.equals(t))
-						|| (aVertex.equals(t) && anotherVertex.equals(s))) {
-					return anEdge;
-				}
-			}
+		}
+		int i = this.getVertexPosition(aVertex);
+		int j = this.getVertexPosition(anotherVertex);
+		if (i < 0 || j < 0) {
+			return null;
+		}
+		int n = vertices.size();
+		if ((i + 1) % n == j) {
+			return edges.get(i);
+		} else if ((j + 1) % n == i) {
+			return edges.get(j);
 		}
 		return null;
 	}
@@ -189,15 +349,8 @@ public class Cycle<V, E> extends GraphPathImpl<V, E> {
 	 * @return the edge pointing to the next vertex in the cycle from aVertex
 	 */
 	public E getNextEdge(V aVertex) {
-		E rm = null;
-		List<V> vl = this.getVertexList();
-		for (int j = 0; j < vl.size(); j++) {
-			if (vl.get(j).equals(aVertex)) {
-				rm = this.getEdgeList().get(j);
-				break;
-			}
-		}
-		return rm;
+		int i = this.getVertexPosition(aVertex);
+		return (i < 0) ? null : edges.get(i);
 	}
 
 	/**
@@ -209,16 +362,8 @@ public class Cycle<V, E> extends GraphPathImpl<V, E> {
 	 * @return the next vertex in the set, null if not found
 	 */
 	public V getNextVertex(V aVertex) {
-		if (this.getVertexList().contains(aVertex)) {
-			if (aVertex.equals(this.getVertexList().get(
-					this.getVertexList().size() - 1))) {
-				return this.getVertexList().get(0);
-			} else {
-				int i = this.getVertexList().indexOf(aVertex) + 1;
-				return this.getVertexList().get(i);
-			}
-		}
-		return null;
+		int i = this.getVertexPosition(aVertex);
+		return (i < 0) ? null : vertices.get((i + 1) % vertices.size());
 	}
 
 	/**
@@ -227,30 +372,7 @@ public class Cycle<V, E> extends GraphPathImpl<V, E> {
 	 * @return true if aVert is found in vertexList
 	 */
 	public boolean containsVertex(V aVertex) {
-		boolean rm = false;
-		if (aVertex == null) {
-			return rm;
-		}
-		List<V> vl = this.getVertexList();
-		if (vl != null) {
-			for (V aVert : vl) {
-				try {
-					if (aVert == null) {
-						rm = false;
-						break;
-					}
-					if (aVert.equals(aVertex)) {
-						rm = true;
-						break;
-					}
-				} catch (NullPointerException e) {
-					e.printStackTrace();
-				}
-			}
-		} else {
-			rm = false;
-		}
-		return rm;
+		return this.getVertexPosition(aVertex) >= 0;
 	}
 
 	/**
@@ -266,12 +388,12 @@ public class Cycle<V, E> extends GraphPathImpl<V, E> {
 		V newStart = this.getEndVertex();
 		V newEnd = this.getStartVertex();
 		try {
-			List<E> newEdList = new LinkedList<E>();
-			for (int i = this.getEdgeList().size() - 2; i >= 0; i--) {
-				newEdList.add(this.getEdgeList().get(i));
+			int n = edges.size();
+			List<E> newEdList = new ArrayList<E>(n);
+			for (int i = n - 2; i >= 0; i--) {
+				newEdList.add(edges.get(i));
 			}
-			newEdList
-					.add(this.getEdgeList().get(this.getEdgeList().size() - 1));
+			newEdList.add(edges.get(n - 1));
 			// retrun a new cycle
 			Cycle<V, E> r = new Cycle<V, E>(this.getGraph(), newStart, newEnd,
 					newEdList, newEdList.size());
@@ -290,21 +412,12 @@ public class Cycle<V, E> extends GraphPathImpl<V, E> {
 	 * @return null if the vertex is not in this cycle
 	 */
 	public E getIncomingEdge(V aVertex) {
-		E rm = null;
-		// find v in vlist
-		List<V> vList = this.getVertexList();
-		for (int j = 0; j < vList.size(); j++) {
-			if (vList.get(j).equals(aVertex)) {
-				List<E> el = this.getEdgeList();
-				if (j == 0) {
-					// use the last edge of edgelist
-					return el.get(el.size() - 1);
-				} else {
-					return el.get(j - 1);
-				}
-			}
+		int i = this.getVertexPosition(aVertex);
+		if (i < 0) {
+			return null;
 		}
-		return rm;
+		// the first vertex is reached through the last edge
+		return edges.get((i == 0) ? edges.size() - 1 : i - 1);
 	}
 
 	/**
@@ -312,7 +425,7 @@ public class Cycle<V, E> extends GraphPathImpl<V, E> {
 	 * cycle
 	 */
 	public int size() {
-		return this.getEdgeList().size();
+		return edges.size();
 	}
 
 	
@@ -350,9 +463,9 @@ public class Cycle<V, E> extends GraphPathImpl<V, E> {
 			else if (newStart.equals(this.getEndVertex())
 					&& newEnd.equals(this.getStartVertex())) {
 				// reverse the order of the contents
-				List<E> newEdList = new LinkedList<E>();
-				for (int i = this.getEdgeList().size() - 1; i >= 0; i--) {
-					newEdList.add(this.getEdgeList().get(i));
+				List<E> newEdList = new ArrayList<E>(edges.size());
+				for (int i = edges.size() - 1; i >= 0; i--) {
+					newEdList.add(edges.get(i));
 				}
 				// retrun a new cycle
 				Cycle<V, E> r = new Cycle<V, E>(this.getGraph(), newStart,
@@ -362,12 +475,6 @@ public class Cycle<V, E> extends GraphPathImpl<V, E> {
 			// edges between newstart and end
 			// check if start is equal to new end
 			if (this.getStartVertex().equals(newEnd)) {
-				// do something special :)
-				if(newStart.equals(this.getEndVertex())){
-					int p = 0;
-					
-				}
-					
 				List<E> e = computeEdgeSubList(newStart, this.getEndVertex());
 				E extra = this.getNextEdge(this.getFirstVertex());
 				e.add(extra);
@@ -375,10 +482,6 @@ public class Cycle<V, E> extends GraphPathImpl<V, E> {
 						newEnd, e, e.size());
 				return c;
 			} else {
-				if(newStart.equals(this.getEndVertex()) || newEnd.equals(this.getStartVertex())){
-					int p = 0;
-					
-				}
 				// check if newEnd is equal to start
 				List<E> e = computeEdgeSubList(newStart, this.getEndVertex());
 				List<E> d = computeEdgeSubList(this.getStartVertex(), newEnd);
@@ -404,48 +507,20 @@ public class Cycle<V, E> extends GraphPathImpl<V, E> {
 	public List<E> computeEdgeSubList(V startV, V endV) throws CycleException {
 		if (startV.equals(endV)) {
 			throw new CycleException("Start Vertex cannot equal End Vertex!");
-		} else {
-			List<E> eList = new LinkedList<E>();
-			// iterate over vertex list and find vertices that are between
-			// startV and endV
-			List<V> vList = new LinkedList<V>();
-			boolean b = false;
-			Iterator<V> vItr = this.getVertexList().iterator();
-			x: while (vItr.hasNext()) {
-				V aVert = vItr.next();
-				if (aVert.equals(startV)) {
-					vList.add(aVert);
-					b = true;
-					continue x;
-				}
-				if (b == true) {
-					vList.add(aVert);
-					if (aVert.equals(endV)) {
-						b = false;
-						break x;
-					}
-				}
-			}// while
-
-			for (int i = 1; i < vList.size(); i++) {
-				V aV = vList.get(i);
-				for (int j = i - 1; j < vList.size() - 1; j++) {
-					V anotherV = vList.get(j);
-					// get common edge
-					E aE = this.getCommonEdge(aV, anotherV);
-					if (aE != null) {
-						if (!eList.contains(aE)) {
-							eList.add(aE);
-						}// if
-					}// if
-				}// for
-				if (i == vList.size() - 1) {
-					E lastEdge = this.getNextEdge(aV);
-					eList.add(lastEdge);
-				}
-			}// for
+		}
+		List<E> eList = new LinkedList<E>();
+		int i = this.getVertexPosition(startV);
+		if (i < 0 || i == vertices.size() - 1) {
 			return eList;
 		}
+		// when endV is not found after startV the edges up to the end of
+		// the vertex list are returned
+		int j = this.getVertexPosition(endV);
+		if (j < i) {
+			j = vertices.size() - 1;
+		}
+		eList.addAll(edges.subList(i, j + 1));
+		return eList;
 	}
 
 	/**
@@ -453,7 +528,7 @@ public class Cycle<V, E> extends GraphPathImpl<V, E> {
 	 * @return an unmodifiable list of vertices
 	 */
 	public List<V> getVertexList() {
-		return Collections.unmodifiableList(vertexList);
+		return vertices;
 	}
 
 	public boolean equals(Object obj) {
@@ -467,9 +542,12 @@ public class Cycle<V, E> extends GraphPathImpl<V, E> {
 		}
 		@SuppressWarnings("unchecked")
 		final Cycle<V, E> other = (Cycle<V, E>) obj;
+		if (this.hash != other.hash) {
+			return false;
+		}
 		// check that both cycles have the same edges
 		if (compareEdgeLists(this.getEdgeList(), other.getEdgeList())) {
-			if (compareVertexLists(this.getVertexList(), other.getVertexList())) {
+			if (compareVertexLists(this, other)) {
 				if (this.getWeight() == other.getWeight()) {
 					// check that c contains both the start and the end
 					// vertex of this
@@ -503,42 +581,36 @@ public class Cycle<V, E> extends GraphPathImpl<V, E> {
 	 *         any order
 	 */
 	private boolean compareEdgeLists(List<E> aList, List<E> anotherList) {
-		if (aList.size() == anotherList.size()) {
-			for (E e : aList) {
-				if (!anotherList.contains(e)) {
-					return false;
-				}
-			}
-		} else {
+		if (aList.size() != anotherList.size()) {
 			return false;
 		}
-		return true;
+		return new HashSet<E>(anotherList).containsAll(aList);
 	}// compareEdgeLists
 
 	/**
 	 * See compare edgeLists
 	 * 
-	 * @param aList
-	 * @param anotherList
-	 * @return
+	 * @param aCycle
+	 * @param anotherCycle
+	 * @return true iff both cycles have the same vertices in any order
 	 */
-	private boolean compareVertexLists(List<V> aList, List<V> anotherList) {
-		if (aList.size() == anotherList.size()) {
-			for (V aVert : aList) {
-				if (!anotherList.contains(aVert)) {
-					return false;
-				}
-			}
-		} else {
+	private boolean compareVertexLists(Cycle<V, E> aCycle,
+			Cycle<V, E> anotherCycle) {
+		if (aCycle.vertices.size() != anotherCycle.vertices.size()) {
 			return false;
 		}
+		for (V aVert : aCycle.vertices) {
+			if (!anotherCycle.containsVertex(aVert)) {
+				return false;
+			}
+		}
 		return true;
 	}// compareVertexLists
 
 	public String toString() {
 		String r = "";
-		r += "Cycle: Size: [" + vertexList.size() + "] ,\nVertexList: [\n";
-		for (V ver : vertexList) {
+		r += "Cycle: Size: [" + vertices.size() + "] ,\nVertexList: [\n";
+		for (V ver : vertices) {
 			r += ver + "\n ";
 		}
 		r = r.substring(0, r.length() - 2);
@@ -579,20 +651,45 @@ public class Cycle<V, E> extends GraphPathImpl<V, E> {
 		return null;
 	}
 
-	/*
-	 * (non-Javadoc)
+	/**
+	 * Compute the vertex at the other end of an edge
+	 * 
+	 * @param anEdge
+	 *            an edge
+	 * @param aVertex
+	 *            one of the endpoints of anEdge
+	 * @return the other endpoint of anEdge, null if aVertex is not one of its
+	 *         endpoints
+	 */
+	private V getOpposite(E anEdge, V aVertex) {
+		V source = this.getGraph().getEdgeSource(anEdge);
+		V target = this.getGraph().getEdgeTarget(anEdge);
+		if (source.equals(aVertex)) {
+			return target;
+		} else if (target.equals(aVertex)) {
+			return source;
+		}
+		return null;
+	}
+
+	/**
+	 * The hash code is computed from the set of edges so that it is the same
+	 * for every rotation and for the inverse of this cycle, as required by
+	 * equals
 	 * 
 	 * @see java.lang.Object#hashCode()
 	 */
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result
-				+ ((vertexList == null) ? 0 : vertexList.hashCode());
-		return result;
+		return hash;
 	}
-	public LinkedList<E> getEdgeLinkedList(){
-		return this.edgeLinkedList;
+
+	/**
+	 * Get a copy of the edges of this cycle
+	 * 
+	 * @return a new linked list of the edges of this cycle
+	 */
+	public LinkedList<E> getEdgeLinkedList() {
+		return new LinkedList<E>(edges);
 	}
 }
@@ -0,0 +1,411 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A graph whose vertices are the cycles of a cycle basis and where two cycles
+ * are linked if they share a vertex, or an edge, of the graph they were found
+ * in. The links are built once from a {@link CycleIncidenceIndex} and stored
+ * in compressed sparse row form, so that neighbourhoods of any degree,
+ * clusters of connected cycles and degree statistics are computed with
+ * breadth first searches over int arrays.
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class CycleAdjacencyGraph<V, E> {
+	/**
+	 * The index of the cycles, cycle ids are the ids of this index
+	 */
+	private final CycleIncidenceIndex<V, E> index;
+	/**
+	 * true if cycles are linked by shared edges, false if they are linked by
+	 * shared vertices
+	 */
+	private final boolean sharedEdges;
+	/**
+	 * The neighbours of cycle i are stored in neighbours between offsets[i]
+	 * (inclusive) and offsets[i+1] (exclusive), sorted by id
+	 */
+	private final int[] offsets;
+	private final int[] neighbours;
+	/**
+	 * The cluster of every cycle, computed on first use
+	 */
+	private int[] clusters = null;
+	private int clusterCount;
+
+	/**
+	 * Link the cycles of a cycle basis that share at least one vertex
+	 * 
+	 * @param someCycles
+	 *            the cycles of a cycle basis
+	 */
+	public CycleAdjacencyGraph(List<Cycle<V, E>> someCycles) {
+		this(new CycleIncidenceIndex<V, E>(someCycles), false);
+	}
+
+	/**
+	 * Link the indexed cycles that share at least one vertex or at least one
+	 * edge
+	 * 
+	 * @param anIndex
+	 *            an index of the cycles of a cycle basis
+	 * @param linkBySharedEdges
+	 *            true to link the cycles that share an edge, false to link
+	 *            the cycles that share a vertex
+	 */
+	public CycleAdjacencyGraph(CycleIncidenceIndex<V, E> anIndex,
+			boolean linkBySharedEdges) {
+		this.index = anIndex;
+		this.sharedEdges = linkBySharedEdges;
+		int n = anIndex.getCycles().size();
+		this.offsets = new int[n + 1];
+		int[][] rows = new int[n][];
+		for (int i = 0; i < n; i++) {
+			BitSet bs = linkBySharedEdges ? anIndex.findEdgeNeighbourIds(i)
+					: anIndex.findVertexNeighbourIds(i);
+			int[] row = new int[bs.cardinality()];
+			int k = 0;
+			for (int j = bs.nextSetBit(0); j >= 0; j = bs.nextSetBit(j + 1)) {
+				row[k++] = j;
+			}
+			rows[i] = row;
+			offsets[i + 1] = offsets[i] + row.length;
+		}
+		this.neighbours = new int[offsets[n]];
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(rows[i], 0, neighbours, offsets[i],
+					rows[i].length);
+		}
+	}
+
+	/**
+	 * @return the index of the cycles of this graph
+	 */
+	public CycleIncidenceIndex<V, E> getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return true if cycles are linked by shared edges, false if they are
+	 *         linked by shared vertices
+	 */
+	public boolean isLinkedBySharedEdges() {
+		return sharedEdges;
+	}
+
+	/**
+	 * @return the number of cycles
+	 */
+	public int getCycleCount() {
+		return offsets.length - 1;
+	}
+
+	/**
+	 * @return the number of links between cycles
+	 */
+	public int getLinkCount() {
+		return neighbours.length / 2;
+	}
+
+	/**
+	 * @param aCycleId
+	 *            a cycle id
+	 * @return the cycle with the given id
+	 */
+	public Cycle<V, E> getCycle(int aCycleId) {
+		return index.getCycle(aCycleId);
+	}
+
+	/**
+	 * @param aCycle
+	 *            a cycle
+	 * @return the id of aCycle or -1 if it is not in this graph
+	 */
+	public int getCycleId(Cycle<V, E> aCycle) {
+		return index.getCycleId(aCycle);
+	}
+
+	/**
+	 * @param aCycleId
+	 *            a cycle id
+	 * @return the number of cycles linked to the cycle
+	 */
+	public int getDegree(int aCycleId) {
+		return offsets[aCycleId + 1] - offsets[aCycleId];
+	}
+
+	/**
+	 * @param aCycleId
+	 *            a cycle id
+	 * @return the ids of the cycles linked to the cycle, sorted
+	 */
+	public int[] getNeighbourIds(int aCycleId) {
+		return Arrays.copyOfRange(neighbours, offsets[aCycleId],
+				offsets[aCycleId + 1]);
+	}
+
+	/**
+	 * Compute the number of links between a cycle and the cycles around it,
+	 * up to a maximum depth
+	 * 
+	 * @param aCycleId
+	 *            a cycle id
+	 * @param aDepth
+	 *            the maximum number of links to follow
+	 * @return for every cycle its distance to aCycleId, or -1 if it is
+	 *         farther than aDepth
+	 */
+	public int[] computeDistances(int aCycleId, int aDepth) {
+		int n = this.getCycleCount();
+		int[] dist = new int[n];
+		Arrays.fill(dist, -1);
+		int[] queue = new int[n];
+		int head = 0;
+		int tail = 0;
+		dist[aCycleId] = 0;
+		queue[tail++] = aCycleId;
+		while (head < tail) {
+			int c = queue[head++];
+			if (dist[c] == aDepth) {
+				// the queue is sorted by distance
+				break;
+			}
+			for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+				int d = neighbours[i];
+				if (dist[d] == -1) {
+					dist[d] = dist[c] + 1;
+					queue[tail++] = d;
+				}
+			}
+		}
+		return dist;
+	}
+
+	/**
+	 * Get the ids of the cycles that are at most k links away from a cycle
+	 * 
+	 * @param aCycleId
+	 *            a cycle id
+	 * @param k
+	 *            the degree of the neighbourhood
+	 * @return the sorted ids of the cycles at distance 1 to k of aCycleId
+	 */
+	public int[] findNeighbourhoodIds(int aCycleId, int k) {
+		return this.collect(this.computeDistances(aCycleId, k), 1, k);
+	}
+
+	/**
+	 * Get the ids of the cycles that are exactly k links away from a cycle,
+	 * that is its k-th degree neighbours
+	 * 
+	 * @param aCycleId
+	 *            a cycle id
+	 * @param k
+	 *            the degree of the neighbours
+	 * @return the sorted ids of the cycles at distance k of aCycleId
+	 */
+	public int[] findNeighbourIdsAtDistance(int aCycleId, int k) {
+		return this.collect(this.computeDistances(aCycleId, k), k, k);
+	}
+
+	/**
+	 * Get the cycles that are at most k links away from a cycle
+	 * 
+	 * @param aCycle
+	 *            a cycle of this graph
+	 * @param k
+	 *            the degree of the neighbourhood
+	 * @return the cycles at distance 1 to k of aCycle ordered by id
+	 * @throws IllegalArgumentException
+	 *             if aCycle is not in this graph
+	 */
+	public List<Cycle<V, E>> findNeighbourhood(Cycle<V, E> aCycle, int k) {
+		return this.toCycles(this.findNeighbourhoodIds(
+				this.checkedId(aCycle), k));
+	}
+
+	/**
+	 * Get the cycles that are exactly k links away from a cycle
+	 * 
+	 * @param aCycle
+	 *            a cycle of this graph
+	 * @param k
+	 *            the degree of the neighbours
+	 * @return the cycles at distance k of aCycle ordered by id
+	 * @throws IllegalArgumentException
+	 *             if aCycle is not in this graph
+	 */
+	public List<Cycle<V, E>> findNeighboursAtDistance(Cycle<V, E> aCycle,
+			int k) {
+		return this.toCycles(this.findNeighbourIdsAtDistance(
+				this.checkedId(aCycle), k));
+	}
+
+	/**
+	 * Get the cluster of every cycle. Two cycles are in the same cluster if
+	 * they are connected by a chain of links.
+	 * 
+	 * @return the cluster number of every cycle, clusters are numbered from
+	 *         0 in the order of their lowest cycle id
+	 */
+	public int[] getClusterIds() {
+		return this.computeClusters().clone();
+	}
+
+	/**
+	 * @return the number of clusters of connected cycles
+	 */
+	public int getClusterCount() {
+		this.computeClusters();
+		return clusterCount;
+	}
+
+	/**
+	 * Get the clusters of connected cycles
+	 * 
+	 * @return a list of clusters, each one a list of cycles ordered by id
+	 */
+	public List<List<Cycle<V, E>>> getClusters() {
+		int[] c = this.computeClusters();
+		List<List<Cycle<V, E>>> rm = new ArrayList<List<Cycle<V, E>>>();
+		for (int i = 0; i < clusterCount; i++) {
+			rm.add(new ArrayList<Cycle<V, E>>());
+		}
+		for (int i = 0; i < c.length; i++) {
+			rm.get(c[i]).add(this.getCycle(i));
+		}
+		return rm;
+	}
+
+	/**
+	 * @return the largest number of links of a cycle, 0 if there are no
+	 *         cycles
+	 */
+	public int getMaxDegree() {
+		int rm = 0;
+		for (int i = 0; i < this.getCycleCount(); i++) {
+			rm = Math.max(rm, this.getDegree(i));
+		}
+		return rm;
+	}
+
+	/**
+	 * @return the average number of links of a cycle, 0 if there are no
+	 *         cycles
+	 */
+	public double getMeanDegree() {
+		if (this.getCycleCount() == 0) {
+			return 0;
+		}
+		return (double) neighbours.length / this.getCycleCount();
+	}
+
+	/**
+	 * @return the number of cycles of every degree, indexed by degree
+	 */
+	public int[] getDegreeHistogram() {
+		int[] rm = new int[this.getMaxDegree() + 1];
+		for (int i = 0; i < this.getCycleCount(); i++) {
+			rm[this.getDegree(i)]++;
+		}
+		return rm;
+	}
+
+	/**
+	 * Label the connected clusters of cycles, only once
+	 */
+	private synchronized int[] computeClusters() {
+		if (clusters != null) {
+			return clusters;
+		}
+		int n = this.getCycleCount();
+		int[] rm = new int[n];
+		Arrays.fill(rm, -1);
+		int[] queue = new int[n];
+		int count = 0;
+		for (int s = 0; s < n; s++) {
+			if (rm[s] != -1) {
+				continue;
+			}
+			int head = 0;
+			int tail = 0;
+			rm[s] = count;
+			queue[tail++] = s;
+			while (head < tail) {
+				int c = queue[head++];
+				for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+					if (rm[neighbours[i]] == -1) {
+						rm[neighbours[i]] = count;
+						queue[tail++] = neighbours[i];
+					}
+				}
+			}
+			count++;
+		}
+		clusterCount = count;
+		clusters = rm;
+		return rm;
+	}
+
+	/**
+	 * Collect the ids whose distance is within bounds
+	 */
+	private int[] collect(int[] someDistances, int aMin, int aMax) {
+		int count = 0;
+		for (int d : someDistances) {
+			if (d >= aMin && d <= aMax) {
+				count++;
+			}
+		}
+		int[] rm = new int[count];
+		int k = 0;
+		for (int i = 0; i < someDistances.length; i++) {
+			if (someDistances[i] >= aMin && someDistances[i] <= aMax) {
+				rm[k++] = i;
+			}
+		}
+		return rm;
+	}
+
+	private int checkedId(Cycle<V, E> aCycle) {
+		int rm = index.getCycleId(aCycle);
+		if (rm == -1) {
+			throw new IllegalArgumentException("Cycle " + aCycle
+					+ " is not in the cycle adjacency graph");
+		}
+		return rm;
+	}
+
+	private List<Cycle<V, E>> toCycles(int[] someIds) {
+		List<Cycle<V, E>> rm = new ArrayList<Cycle<V, E>>(someIds.length);
+		for (int id : someIds) {
+			rm.add(index.getCycle(id));
+		}
+		return rm;
+	}
+}
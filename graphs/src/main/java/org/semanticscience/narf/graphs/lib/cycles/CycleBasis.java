@@ -74,4 +74,13 @@ public abstract class CycleBasis<V,E> {
 	 * @return A list of the cycles that belong to this basis
 	 */
 	public abstract List<Cycle<V,E>> getCycleBasis();
+
+	/**
+	 * Iterate over the cycles of this basis
+	 * 
+	 * @return an iterator over the cycles returned by getCycleBasis()
+	 */
+	public CycleIterator<V, E> cycleIterator() {
+		return CycleIterator.fromList(this.getCycleBasis());
+	}
 }
@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.semanticscience.narf.graphs.nucleicacid.InteractionEdge;
+import org.semanticscience.narf.structures.parts.Nucleotide;
+
+/**
+ * Count the nucleotides of cycles by base. Every nucleotide is classified by
+ * its normalized nucleotide code (see
+ * {@link Nucleotide#getNormalizedNucleotide()}) in a single pass: the
+ * ribonucleotides and deoxyribonucleotides A, C, G, U and T each have their
+ * column and every other residue is counted as modified. A composition is an
+ * int[] of {@link #COLUMNS} counts indexed by the column constants of this
+ * class.
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public final class CycleComposition {
+	public static final int A = 0;
+	public static final int C = 1;
+	public static final int G = 2;
+	public static final int U = 3;
+	public static final int T = 4;
+	public static final int MODIFIED = 5;
+	/**
+	 * The number of counts of a composition
+	 */
+	public static final int COLUMNS = 6;
+
+	/**
+	 * The column of every normalized nucleotide code
+	 */
+	private static final int[] COLUMN_BY_CODE = makeColumns();
+
+	private CycleComposition() {
+	}
+
+	private static int[] makeColumns() {
+		// the ribo- and deoxyribonucleotides of every column
+		String[][] residues = { { "A", "DA" }, { "C", "DC" }, { "G", "DG" },
+				{ "U", "DU" }, { "T", "DT" } };
+		int[] columns = { A, C, G, U, T };
+		int max = 0;
+		for (String[] someResidues : residues) {
+			for (String aResidue : someResidues) {
+				max = Math.max(max,
+						Nucleotide.findNormalizedNucleotideCode(aResidue));
+			}
+		}
+		int[] rm = new int[max + 1];
+		Arrays.fill(rm, MODIFIED);
+		for (int i = 0; i < residues.length; i++) {
+			for (String aResidue : residues[i]) {
+				int code = Nucleotide.findNormalizedNucleotideCode(aResidue);
+				if (code >= 0) {
+					rm[code] = columns[i];
+				}
+			}
+		}
+		return rm;
+	}
+
+	/**
+	 * Get the column of a normalized nucleotide code
+	 * 
+	 * @param aCode
+	 *            a normalized nucleotide code
+	 * @return A, C, G, U, T or MODIFIED
+	 */
+	public static int getColumn(int aCode) {
+		if (aCode < 0 || aCode >= COLUMN_BY_CODE.length) {
+			return MODIFIED;
+		}
+		return COLUMN_BY_CODE[aCode];
+	}
+
+	/**
+	 * Get the column of a nucleotide
+	 * 
+	 * @param aNucleotide
+	 *            a nucleotide
+	 * @return A, C, G, U, T or MODIFIED
+	 */
+	public static int getColumn(Nucleotide aNucleotide) {
+		return getColumn(aNucleotide.getNormalizedNucleotideCode());
+	}
+
+	/**
+	 * Count the nucleotides of a cycle by base
+	 * 
+	 * @param aCycle
+	 *            a cycle
+	 * @return the composition of aCycle
+	 */
+	public static int[] count(Cycle<Nucleotide, InteractionEdge> aCycle) {
+		int[] rm = new int[COLUMNS];
+		count(aCycle, rm, 0);
+		return rm;
+	}
+
+	/**
+	 * Add the counts of the nucleotides of a cycle to a composition stored in
+	 * an array
+	 * 
+	 * @param aCycle
+	 *            a cycle
+	 * @param counts
+	 *            the array of the composition
+	 * @param offset
+	 *            the position of the A column of the composition in counts
+	 */
+	public static void count(Cycle<Nucleotide, InteractionEdge> aCycle,
+			int[] counts, int offset) {
+		List<Nucleotide> nucs = aCycle.getVertexList();
+		for (int i = 0; i < nucs.size(); i++) {
+			counts[offset + getColumn(nucs.get(i))]++;
+		}
+	}
+
+	/**
+	 * Count the nucleotides of every cycle of a list, for instance a cycle
+	 * basis
+	 * 
+	 * @param someCycles
+	 *            a list of cycles
+	 * @return a matrix with one row per cycle, in the order of someCycles,
+	 *         and one column per base
+	 */
+	public static int[][] countAll(
+			List<Cycle<Nucleotide, InteractionEdge>> someCycles) {
+		int[][] rm = new int[someCycles.size()][COLUMNS];
+		for (int i = 0; i < rm.length; i++) {
+			count(someCycles.get(i), rm[i], 0);
+		}
+		return rm;
+	}
+
+	/**
+	 * @param aComposition
+	 *            a composition
+	 * @return the number of nucleotides counted in aComposition
+	 */
+	public static int size(int[] aComposition) {
+		int rm = 0;
+		for (int i = 0; i < COLUMNS; i++) {
+			rm += aComposition[i];
+		}
+		return rm;
+	}
+
+	/**
+	 * Compute the percentage of the nucleotides of a composition that are G
+	 * or C
+	 * 
+	 * @param aComposition
+	 *            a composition
+	 * @return the GC content, between 0 and 100
+	 */
+	public static double computeGCContent(int[] aComposition) {
+		int gc = aComposition[G] + aComposition[C];
+		if (gc == 0) {
+			return 0.0;
+		}
+		double d = gc;
+		return d / size(aComposition) * 100;
+	}
+
+	/**
+	 * Compute the GC content of every row of a matrix returned by countAll()
+	 * 
+	 * @param aMatrix
+	 *            the compositions of a list of cycles
+	 * @return the GC content of every cycle
+	 */
+	public static double[] computeGCContents(int[][] aMatrix) {
+		double[] rm = new double[aMatrix.length];
+		for (int i = 0; i < rm.length; i++) {
+			rm[i] = computeGCContent(aMatrix[i]);
+		}
+		return rm;
+	}
+}
@@ -0,0 +1,281 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.semanticscience.narf.graphs.nucleicacid.InteractionEdge;
+import org.semanticscience.narf.structures.parts.Nucleotide;
+
+/**
+ * The fingerprint of a cycle profile: the 128 bit MD5 hash of the smallest
+ * normalization of a cycle (see
+ * {@link CycleHelper#findMinimalNormalizationString(Cycle, boolean)}) and the
+ * level of annotation it was computed at. Level 1 profiles do not tell base
+ * pair classes apart, level 2 profiles do. Two cycles with the same profile
+ * have the same fingerprint, so fingerprints can be used as map keys in
+ * place of the normalization strings. The printable form of a fingerprint is
+ * the hexadecimal MD5 hash of its normalization, and its binary form is
+ * {@link #BYTES} bytes long.
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public final class CycleFingerprint implements Comparable<CycleFingerprint> {
+	/**
+	 * The level of the profiles without base pair classes
+	 */
+	public static final int LEVEL_1 = 1;
+	/**
+	 * The level of the profiles with base pair classes
+	 */
+	public static final int LEVEL_2 = 2;
+	/**
+	 * The length of the binary form of a fingerprint: the level and the hash
+	 */
+	public static final int BYTES = 17;
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef"
+			.toCharArray();
+
+	/**
+	 * A MessageDigest for every thread, so that hashing does not look up a
+	 * provider every time
+	 */
+	private static final ThreadLocal<MessageDigest> MD5 = new ThreadLocal<MessageDigest>() {
+		@Override
+		protected MessageDigest initialValue() {
+			try {
+				return MessageDigest.getInstance("MD5");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	};
+
+	/**
+	 * The level of annotation of the profile
+	 */
+	private final int level;
+	/**
+	 * The first 8 bytes of the hash
+	 */
+	private final long high;
+	/**
+	 * The last 8 bytes of the hash
+	 */
+	private final long low;
+
+	private CycleFingerprint(int aLevel, long aHigh, long aLow) {
+		if (aLevel != LEVEL_1 && aLevel != LEVEL_2) {
+			throw new IllegalArgumentException("Invalid profile level: "
+					+ aLevel);
+		}
+		level = aLevel;
+		high = aHigh;
+		low = aLow;
+	}
+
+	/**
+	 * Compute the fingerprint of a cycle at the given level
+	 * 
+	 * @param aCycle
+	 *            a cycle of a nucleic acid
+	 * @param aLevel
+	 *            either LEVEL_1 or LEVEL_2
+	 * @return the fingerprint of the profile of aCycle
+	 */
+	public static CycleFingerprint compute(
+			Cycle<Nucleotide, InteractionEdge> aCycle, int aLevel) {
+		return fromNormalization(CycleHelper.findMinimalNormalizationString(
+				aCycle, aLevel == LEVEL_1), aLevel);
+	}
+
+	/**
+	 * Compute the fingerprint of a smallest normalization
+	 * 
+	 * @param aNormalization
+	 *            the digits of the smallest normalization of a cycle
+	 * @param aLevel
+	 *            either LEVEL_1 or LEVEL_2
+	 * @return the fingerprint of aNormalization
+	 */
+	public static CycleFingerprint fromNormalization(String aNormalization,
+			int aLevel) {
+		byte[] hash = md5(aNormalization);
+		return new CycleFingerprint(aLevel, toLong(hash, 0), toLong(hash, 8));
+	}
+
+	/**
+	 * Compute the MD5 hash of a string with the MessageDigest of the current
+	 * thread
+	 * 
+	 * @param aString
+	 *            a string
+	 * @return the 16 bytes of the MD5 hash of aString
+	 */
+	public static byte[] md5(String aString) {
+		return MD5.get().digest(aString.getBytes());
+	}
+
+	/**
+	 * Read a fingerprint from its binary form
+	 * 
+	 * @param someBytes
+	 *            the bytes returned by toBytes()
+	 * @return the fingerprint
+	 */
+	public static CycleFingerprint fromBytes(byte[] someBytes) {
+		if (someBytes.length != BYTES) {
+			throw new IllegalArgumentException("A fingerprint is " + BYTES
+					+ " bytes long, found " + someBytes.length);
+		}
+		return new CycleFingerprint(someBytes[0], toLong(someBytes, 1),
+				toLong(someBytes, 9));
+	}
+
+	/**
+	 * Read a fingerprint written by write()
+	 * 
+	 * @param in
+	 *            the input
+	 * @return the fingerprint
+	 * @throws IOException
+	 */
+	public static CycleFingerprint read(DataInput in) throws IOException {
+		int aLevel = in.readByte();
+		long aHigh = in.readLong();
+		long aLow = in.readLong();
+		return new CycleFingerprint(aLevel, aHigh, aLow);
+	}
+
+	/**
+	 * Write the binary form of this fingerprint
+	 * 
+	 * @param out
+	 *            the output
+	 * @throws IOException
+	 */
+	public void write(DataOutput out) throws IOException {
+		out.writeByte(level);
+		out.writeLong(high);
+		out.writeLong(low);
+	}
+
+	/**
+	 * Get the binary form of this fingerprint: the level followed by the hash
+	 * in big endian order
+	 * 
+	 * @return {@link #BYTES} bytes
+	 */
+	public byte[] toBytes() {
+		byte[] rm = new byte[BYTES];
+		rm[0] = (byte) level;
+		for (int i = 0; i < 8; i++) {
+			rm[1 + i] = (byte) (high >>> (56 - 8 * i));
+			rm[9 + i] = (byte) (low >>> (56 - 8 * i));
+		}
+		return rm;
+	}
+
+	/**
+	 * Get the printable form of this fingerprint
+	 * 
+	 * @return the 32 lower case hexadecimal digits of the hash
+	 */
+	public String toHexString() {
+		char[] rm = new char[32];
+		for (int i = 0; i < 16; i++) {
+			rm[i] = HEX_DIGITS[(int) (high >>> (60 - 4 * i)) & 0xF];
+			rm[16 + i] = HEX_DIGITS[(int) (low >>> (60 - 4 * i)) & 0xF];
+		}
+		return new String(rm);
+	}
+
+	/**
+	 * @return the level of annotation of the profile
+	 */
+	public int getLevel() {
+		return level;
+	}
+
+	/**
+	 * @return the first 8 bytes of the hash
+	 */
+	public long getMostSignificantBits() {
+		return high;
+	}
+
+	/**
+	 * @return the last 8 bytes of the hash
+	 */
+	public long getLeastSignificantBits() {
+		return low;
+	}
+
+	private static long toLong(byte[] someBytes, int offset) {
+		long rm = 0;
+		for (int i = 0; i < 8; i++) {
+			rm = (rm << 8) | (someBytes[offset + i] & 0xFF);
+		}
+		return rm;
+	}
+
+	public int compareTo(CycleFingerprint o) {
+		if (level != o.level) {
+			return level < o.level ? -1 : 1;
+		}
+		if (high != o.high) {
+			// unsigned order, as the printable form
+			return (high ^ Long.MIN_VALUE) < (o.high ^ Long.MIN_VALUE) ? -1 : 1;
+		}
+		if (low != o.low) {
+			return (low ^ Long.MIN_VALUE) < (o.low ^ Long.MIN_VALUE) ? -1 : 1;
+		}
+		return 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) high;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CycleFingerprint)) {
+			return false;
+		}
+		CycleFingerprint other = (CycleFingerprint) obj;
+		return high == other.high && low == other.low && level == other.level;
+	}
+
+	@Override
+	public String toString() {
+		return this.toHexString();
+	}
+}
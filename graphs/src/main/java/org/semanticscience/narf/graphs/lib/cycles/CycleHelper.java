@@ -22,14 +22,13 @@ package org.semanticscience.narf.graphs.lib.cycles;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
-import org.apache.commons.lang3.StringUtils;
 import org.semanticscience.narf.graphs.lib.cycles.exceptions.CycleException;
 import org.semanticscience.narf.graphs.nucleicacid.InteractionEdge;
 import org.semanticscience.narf.graphs.nucleicacid.NucleicAcid;
@@ -47,87 +46,17 @@ import org.semanticscience.narf.structures.parts.Nucleotide;
  */
 public class CycleHelper {
 
+	/**
+	 * Compute the percentage of the nucleotides of a cycle that are G or C
+	 * 
+	 * @param aCycle
+	 *            a cycle
+	 * @return the GC content of aCycle, between 0 and 100
+	 * @see CycleComposition
+	 */
 	public static Double computeCycleGCContent(Cycle<Nucleotide, InteractionEdge> aCycle){
-		Map<String, Integer> residue_count_map = new HashMap<String, Integer>();
-		List<Nucleotide> nucs = aCycle.getVertexList();
-		List<String> residue_labels = new ArrayList<String>();
-		String seq_tmp = "";
-		for (Nucleotide aNuc : nucs) {
-			residue_labels.add(aNuc.getResidueIdentifier().toUpperCase());
-			seq_tmp += aNuc.getResidueIdentifier().toUpperCase();
-		}
-		
-		//now get the counts and store them in residue_count_map
-		for (String albl : residue_labels) {
-			int c = CycleHelper.countOccurences(seq_tmp, albl);
-			residue_count_map.put(albl, c);
-		}
-		
-		double q = 0;
-		for(Map.Entry<String, Integer> entry:residue_count_map.entrySet()){
-			String key = entry.getKey();
-			Integer val = entry.getValue();
-			q += val;
-		}
-		
-		int g = 0;
-		try{
-			g = residue_count_map.get("G");
-		}catch(NullPointerException e){
-			g = 0;
-		}
-		
-		int c = 0;
-		try{
-			c = residue_count_map.get("C");
-		}catch(NullPointerException e){
-			c = 0;
-		}
-		
-		if(g >0 ||c>0){
-			double d = g + c;
-			double s = d/q;
-			return s * 100;
-		} 
-		
-		return 0.0;
-		//int g = residue_count_map.get("G");
-	
-		/*if(residue_count_map.get("U") == 0){
-			//if dna
-			int q = 0;
-			for(Map.Entry<String, Integer> entry:residue_count_map.entrySet()){
-				String key = entry.getKey();
-				Integer val = entry.getValue();
-				q += val;
-			}
-			double s = (residue_count_map.get("G") + residue_count_map.get("C"))/q;
-			return s * 100;
-		}else if(residue_count_map.get("T") == 0){
-			//if rna
-			int q = 0;
-			for(Map.Entry<String, Integer> entry:residue_count_map.entrySet()){
-				String key = entry.getKey();
-				Integer val = entry.getValue();
-				q += val;
-			}
-			double s = (residue_count_map.get("G") + residue_count_map.get("C"))/q;
-			return s * 100;
-		}*/
-		/*double g = StringUtils.countMatches(seq_tmp, "G")*1.0;
-		double c = StringUtils.countMatches(seq_tmp, "C")*1.0;
-		double t = StringUtils.countMatches(seq_tmp, "T")*1.0;
-		double u = StringUtils.countMatches(seq_tmp, "U")*1.0;
-		double a = StringUtils.countMatches(seq_tmp, "A")*1.0;
-		if(u ==0){//if dna
-			double q = a+t+g+c;
-			double s = (g+c)/q ;
-			return s*100;
-		}else if(t== 0){//if rna
-			return ((g+c)/(a+g+u+c))*100;
-		}else{
-			return ((g+c)/(a+g+u+t+c))*100;
-		}*/
+		return CycleComposition.computeGCContent(CycleComposition
+				.count(aCycle));
 	}
 	
 	/**
@@ -152,8 +81,11 @@ public class CycleHelper {
 	}
 	
 	/**
-	 * For a given cycle, compute all counter-clockwise 1-step unique rotations
-	 * of aCycle, and return the double representation of the smallest one
+	 * For a given cycle, return the number representation of its canonical
+	 * code: the rotation and the direction of aCycle whose codes are the
+	 * smallest, found with Booth's least rotation in linear time. The result
+	 * is the same for every rotation of aCycle and for aCycle walked the other
+	 * way, so it does not depend on how the cycle basis was computed.
 	 * 
 	 * @param aNucleicAcid
 	 * @param aCycle
@@ -162,24 +94,276 @@ public class CycleHelper {
 	 *            for the base pair class if set to true base pairs classes will
 	 *            not make use neither glycosidic bond orientation nor of
 	 *            edge-edge interactions
-	 * @return
+	 * @return the canonical code of aCycle as a number
+	 * @throws IllegalArgumentException
+	 *             if a nucleotide of the cycle has no normalized code
 	 */
 	public static BigDecimal findMinmalNormalization(NucleicAcid aNucleicAcid,
 			Cycle<Nucleotide, InteractionEdge> aCycle, boolean basepaironly) {
-		// find all rotations of the parameter cycle
-		List<Cycle<Nucleotide, InteractionEdge>> rotatedCycles = CycleHelper
-				.findAllRotations(aNucleicAcid, aCycle);
-		// now find the smallest double
-		BigDecimal min = BigDecimal.valueOf(Double.MAX_VALUE);
-		for (Cycle<Nucleotide, InteractionEdge> rot : rotatedCycles) {
-			BigDecimal ad = CycleHelper.normalizeCycle(rot, basepaironly);
-			// if (ad < min) {
-			if (ad.compareTo(min) < 0) {
-				min = ad;
+		return new BigDecimal(CycleHelper.findMinimalNormalizationString(
+				aCycle, basepaironly));
+	}
+
+	/**
+	 * Find the digits of the canonical code of aCycle, that is the string
+	 * representation of findMinmalNormalization(). The digits do not depend
+	 * on the vertex the cycle starts at nor on the direction it was found in,
+	 * see {@link #computeCanonicalCode(Cycle, boolean)}.
+	 * 
+	 * @param aCycle
+	 * @param basepaironly
+	 *            a boolean flag that specifies the level of desired annotation
+	 *            for the base pair class if set to true base pairs classes will
+	 *            not make use neither glycosidic bond orientation nor of
+	 *            edge-edge interactions
+	 * @return the digits of the canonical code of aCycle
+	 */
+	public static String findMinimalNormalizationString(
+			Cycle<Nucleotide, InteractionEdge> aCycle, boolean basepaironly) {
+		return CycleHelper.codeToString(CycleHelper.computeCanonicalCode(
+				aCycle, basepaironly));
+	}
+
+	/**
+	 * Compute the canonical code of a cycle: the codes of its nucleotides
+	 * and of the interactions between them, read from the rotation and the
+	 * direction of the cycle that give the smallest sequence. Two cycles have
+	 * the same canonical code if and only if they have the same nucleotides
+	 * and interactions in the same circular order, wherever they start and in
+	 * whichever direction they were found. Nucleotide codes are all larger
+	 * than interaction codes, so a new nucleotide starts at every code above
+	 * {@link PhosphodiesterBond#getNormalizedBackBone()}.
+	 * 
+	 * @param aCycle
+	 *            a cycle of a nucleic acid
+	 * @param basepaironly
+	 *            if set to true glycosidic bond orientation and nucleobase
+	 *            edge-edge interactions are ignored (level 1), otherwise the
+	 *            base pair classes are used (level 2)
+	 * @return the canonical code of aCycle
+	 */
+	public static int[] computeCanonicalCode(
+			Cycle<Nucleotide, InteractionEdge> aCycle, boolean basepaironly) {
+		int[][] forward = CycleHelper.encodeUnits(aCycle, basepaironly, false);
+		int[][] backward = CycleHelper
+				.encodeUnits(aCycle, basepaironly, true);
+		int n = forward.length;
+		// rank the units of both directions so that Booth's algorithm
+		// compares single ints
+		int[][] all = new int[2 * n][];
+		System.arraycopy(forward, 0, all, 0, n);
+		System.arraycopy(backward, 0, all, n, n);
+		int[] ranks = rankUnits(all);
+		int[] fr = Arrays.copyOfRange(ranks, 0, n);
+		int[] br = Arrays.copyOfRange(ranks, n, 2 * n);
+		int f = leastRotation(fr);
+		int b = leastRotation(br);
+		int[][] units = forward;
+		int start = f;
+		for (int i = 0; i < n; i++) {
+			int c = br[(b + i) % n] - fr[(f + i) % n];
+			if (c != 0) {
+				if (c < 0) {
+					units = backward;
+					start = b;
+				}
+				break;
 			}
+		}
+		int size = 0;
+		for (int[] u : units) {
+			size += u.length;
+		}
+		int[] rm = new int[size];
+		int pos = 0;
+		for (int i = 0; i < n; i++) {
+			int[] u = units[(start + i) % n];
+			System.arraycopy(u, 0, rm, pos, u.length);
+			pos += u.length;
+		}
+		return rm;
+	}
 
+	/**
+	 * Compute the level 1 canonical code of a cycle, where base pairs are not
+	 * told apart by their class
+	 * 
+	 * @param aCycle
+	 *            a cycle of a nucleic acid
+	 * @return the level 1 canonical code
+	 */
+	public static int[] computeLevel1Code(
+			Cycle<Nucleotide, InteractionEdge> aCycle) {
+		return computeCanonicalCode(aCycle, true);
+	}
+
+	/**
+	 * Compute the level 2 canonical code of a cycle, where base pairs are
+	 * told apart by their class
+	 * 
+	 * @param aCycle
+	 *            a cycle of a nucleic acid
+	 * @return the level 2 canonical code
+	 */
+	public static int[] computeLevel2Code(
+			Cycle<Nucleotide, InteractionEdge> aCycle) {
+		return computeCanonicalCode(aCycle, false);
+	}
+
+	/**
+	 * Encode every vertex of a cycle as the code of its nucleotide followed by
+	 * the codes of the interactions of the edge that leaves it, as in
+	 * normalizeCycle()
+	 * 
+	 * @param aCycle
+	 *            a cycle
+	 * @param basepaironly
+	 *            if set to true every base pair is encoded as 1
+	 * @param reverse
+	 *            false to walk the cycle in the order of its vertex list,
+	 *            true to walk it the other way from the same first vertex
+	 * @return the codes of every vertex in walking order
+	 * @throws IllegalArgumentException
+	 *             if a nucleotide of the cycle has no normalized code
+	 */
+	private static int[][] encodeUnits(
+			Cycle<Nucleotide, InteractionEdge> aCycle, boolean basepaironly,
+			boolean reverse) {
+		int n = aCycle.size();
+		int[][] rm = new int[n][];
+		int[] buffer = new int[8];
+		for (int i = 0; i < n; i++) {
+			int v = reverse ? (n - i) % n : i;
+			Nucleotide aNuc = aCycle.getVertex(v);
+			// the edge that leaves aNuc in the walking direction
+			InteractionEdge ie = aCycle.getEdge(reverse ? (v + n - 1) % n : v);
+			int c = 0;
+			buffer[c++] = aNuc.getNormalizedNucleotideCode();
+			if (buffer[0] < 0) {
+				throw new IllegalArgumentException(
+						"No normalized code for nucleotide: " + aNuc);
+			}
+			for (NucleotideInteraction aNi : ie.getInteractions()) {
+				if (c == buffer.length) {
+					buffer = Arrays.copyOf(buffer, 2 * c);
+				}
+				if (aNi instanceof BasePair) {
+					if (basepaironly == false) {
+						buffer[c++] = ((BasePair) aNi)
+								.getNormalizedBasePairCode();
+					} else {
+						buffer[c++] = 1;
+					}
+				}
+				if (aNi instanceof PhosphodiesterBond) {
+					buffer[c++] = ((PhosphodiesterBond) aNi)
+							.getNormalizedBackBone();
+				}
+			}
+			rm[i] = Arrays.copyOf(buffer, c);
+		}
+		return rm;
+	}
+
+	/**
+	 * Replace every unit by its rank in the lexicographic order of the units
+	 * 
+	 * @param someUnits
+	 *            int sequences
+	 * @return the rank of every unit, equal units having the same rank
+	 */
+	private static int[] rankUnits(final int[][] someUnits) {
+		Integer[] order = new Integer[someUnits.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Comparator<Integer> lexicographic = new Comparator<Integer>() {
+			public int compare(Integer i1, Integer i2) {
+				return compareCodes(someUnits[i1], someUnits[i2]);
+			}
+		};
+		Arrays.sort(order, lexicographic);
+		int[] rm = new int[someUnits.length];
+		int rank = 0;
+		for (int i = 0; i < order.length; i++) {
+			if (i > 0 && lexicographic.compare(order[i - 1], order[i]) != 0) {
+				rank++;
+			}
+			rm[order[i]] = rank;
+		}
+		return rm;
+	}
+
+	/**
+	 * Compare two codes lexicographically, a code being smaller than the
+	 * codes it is a prefix of
+	 * 
+	 * @param aCode
+	 *            a code
+	 * @param anotherCode
+	 *            another code
+	 * @return a negative integer, zero, or a positive integer as aCode is
+	 *         smaller than, equal to, or greater than anotherCode
+	 */
+	public static int compareCodes(int[] aCode, int[] anotherCode) {
+		int n = Math.min(aCode.length, anotherCode.length);
+		for (int i = 0; i < n; i++) {
+			if (aCode[i] != anotherCode[i]) {
+				return (aCode[i] < anotherCode[i]) ? -1 : 1;
+			}
+		}
+		return aCode.length - anotherCode.length;
+	}
+
+	/**
+	 * Find the rotation of a sequence that is the smallest in lexicographic
+	 * order with Booth's algorithm (1980), in linear time
+	 * 
+	 * @param s
+	 *            a non empty sequence
+	 * @return the position where the least rotation of s starts
+	 */
+	public static int leastRotation(int[] s) {
+		int n = s.length;
+		int[] f = new int[2 * n];
+		Arrays.fill(f, -1);
+		int k = 0;
+		for (int j = 1; j < 2 * n; j++) {
+			int sj = s[j % n];
+			int i = f[j - k - 1];
+			while (i != -1 && sj != s[(k + i + 1) % n]) {
+				if (sj < s[(k + i + 1) % n]) {
+					k = j - i - 1;
+				}
+				i = f[i];
+			}
+			if (sj != s[(k + i + 1) % n]) {
+				// i is -1
+				if (sj < s[k % n]) {
+					k = j;
+				}
+				f[j - k] = -1;
+			} else {
+				f[j - k] = i + 1;
+			}
+		}
+		return k % n;
+	}
+
+	/**
+	 * Print a canonical code the way normalizeCycle() prints a cycle, by
+	 * concatenating its codes
+	 * 
+	 * @param aCode
+	 *            a canonical code
+	 * @return the digits of aCode
+	 */
+	public static String codeToString(int[] aCode) {
+		StringBuilder sb = new StringBuilder();
+		for (int c : aCode) {
+			sb.append(c);
 		}
-		return min;
+		return sb.toString();
 	}
 
 	/**
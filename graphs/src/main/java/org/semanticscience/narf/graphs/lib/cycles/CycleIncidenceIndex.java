@@ -0,0 +1,261 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index of the cycles of a cycle basis by vertex and by edge. Each cycle
+ * is identified by its position in the basis and the cycles incident to a
+ * vertex or an edge are kept in a BitSet, so that finding the cycles that
+ * share a vertex or an edge with a given cycle only costs one bitset union
+ * per vertex or edge of the cycle.
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class CycleIncidenceIndex<V, E> {
+	/**
+	 * The indexed cycles; the id of a cycle is its position in this list
+	 */
+	private final List<Cycle<V, E>> cycles;
+	/**
+	 * The id of every cycle, looked up by identity
+	 */
+	private final Map<Cycle<V, E>, Integer> cycleIds;
+	/**
+	 * The ids of the cycles that contain a vertex
+	 */
+	private final Map<V, BitSet> vertexCycles;
+	/**
+	 * The ids of the cycles that contain an edge. Edges are looked up by
+	 * identity, as graph edges do not need to override equals
+	 */
+	private final Map<E, BitSet> edgeCycles;
+
+	/**
+	 * Index a list of cycles
+	 * 
+	 * @param someCycles
+	 *            the cycles of a cycle basis
+	 */
+	public CycleIncidenceIndex(List<Cycle<V, E>> someCycles) {
+		this.cycles = Collections.unmodifiableList(new ArrayList<Cycle<V, E>>(
+				someCycles));
+		this.cycleIds = new IdentityHashMap<Cycle<V, E>, Integer>();
+		this.vertexCycles = new HashMap<V, BitSet>();
+		this.edgeCycles = new IdentityHashMap<E, BitSet>();
+		for (int i = 0; i < this.cycles.size(); i++) {
+			Cycle<V, E> c = this.cycles.get(i);
+			this.cycleIds.put(c, i);
+			for (V aV : c.getVertexList()) {
+				BitSet bs = this.vertexCycles.get(aV);
+				if (bs == null) {
+					bs = new BitSet();
+					this.vertexCycles.put(aV, bs);
+				}
+				bs.set(i);
+			}
+			for (E anE : c.getEdgeList()) {
+				BitSet bs = this.edgeCycles.get(anE);
+				if (bs == null) {
+					bs = new BitSet();
+					this.edgeCycles.put(anE, bs);
+				}
+				bs.set(i);
+			}
+		}
+	}
+
+	/**
+	 * @return an unmodifiable list of the indexed cycles ordered by id
+	 */
+	public List<Cycle<V, E>> getCycles() {
+		return this.cycles;
+	}
+
+	/**
+	 * @param aCycleId
+	 *            a cycle id
+	 * @return the cycle with the given id
+	 */
+	public Cycle<V, E> getCycle(int aCycleId) {
+		return this.cycles.get(aCycleId);
+	}
+
+	/**
+	 * Get the id of a cycle. Cycles are first looked up by identity and then
+	 * by equality
+	 * 
+	 * @param aCycle
+	 *            a cycle
+	 * @return the id of aCycle or -1 if it is not indexed
+	 */
+	public int getCycleId(Cycle<V, E> aCycle) {
+		Integer rm = this.cycleIds.get(aCycle);
+		if (rm == null) {
+			return this.cycles.indexOf(aCycle);
+		}
+		return rm;
+	}
+
+	/**
+	 * @return an unmodifiable set of the vertices that belong to at least one
+	 *         cycle
+	 */
+	public Set<V> getVertices() {
+		return Collections.unmodifiableSet(this.vertexCycles.keySet());
+	}
+
+	/**
+	 * @return an unmodifiable set of the edges that belong to at least one
+	 *         cycle
+	 */
+	public Set<E> getEdges() {
+		return Collections.unmodifiableSet(this.edgeCycles.keySet());
+	}
+
+	/**
+	 * Get the ids of the cycles that contain a vertex
+	 * 
+	 * @param aVertex
+	 *            a vertex
+	 * @return a new BitSet with the ids of the cycles that contain aVertex
+	 */
+	public BitSet getCycleIdsByVertex(V aVertex) {
+		BitSet bs = this.vertexCycles.get(aVertex);
+		return (bs == null) ? new BitSet() : (BitSet) bs.clone();
+	}
+
+	/**
+	 * Get the ids of the cycles that contain an edge
+	 * 
+	 * @param anEdge
+	 *            an edge
+	 * @return a new BitSet with the ids of the cycles that contain anEdge
+	 */
+	public BitSet getCycleIdsByEdge(E anEdge) {
+		BitSet bs = this.edgeCycles.get(anEdge);
+		return (bs == null) ? new BitSet() : (BitSet) bs.clone();
+	}
+
+	/**
+	 * Get the cycles that contain a vertex
+	 * 
+	 * @param aVertex
+	 *            a vertex
+	 * @return the cycles that contain aVertex ordered by id
+	 */
+	public List<Cycle<V, E>> getCyclesByVertex(V aVertex) {
+		return this.toCycles(this.vertexCycles.get(aVertex));
+	}
+
+	/**
+	 * Get the cycles that contain an edge
+	 * 
+	 * @param anEdge
+	 *            an edge
+	 * @return the cycles that contain anEdge ordered by id
+	 */
+	public List<Cycle<V, E>> getCyclesByEdge(E anEdge) {
+		return this.toCycles(this.edgeCycles.get(anEdge));
+	}
+
+	/**
+	 * Get the ids of the cycles that share at least one vertex with a cycle
+	 * 
+	 * @param aCycleId
+	 *            a cycle id
+	 * @return the ids of the neighbouring cycles, aCycleId excluded
+	 */
+	public BitSet findVertexNeighbourIds(int aCycleId) {
+		BitSet rm = new BitSet();
+		for (V aV : this.cycles.get(aCycleId).getVertexList()) {
+			rm.or(this.vertexCycles.get(aV));
+		}
+		rm.clear(aCycleId);
+		return rm;
+	}
+
+	/**
+	 * Get the ids of the cycles that share at least one edge with a cycle
+	 * 
+	 * @param aCycleId
+	 *            a cycle id
+	 * @return the ids of the neighbouring cycles, aCycleId excluded
+	 */
+	public BitSet findEdgeNeighbourIds(int aCycleId) {
+		BitSet rm = new BitSet();
+		for (E anE : this.cycles.get(aCycleId).getEdgeList()) {
+			rm.or(this.edgeCycles.get(anE));
+		}
+		rm.clear(aCycleId);
+		return rm;
+	}
+
+	/**
+	 * Get the cycles that share at least one vertex with a cycle
+	 * 
+	 * @param aCycleId
+	 *            a cycle id
+	 * @return the neighbouring cycles ordered by id
+	 */
+	public List<Cycle<V, E>> findVertexNeighbours(int aCycleId) {
+		return this.toCycles(this.findVertexNeighbourIds(aCycleId));
+	}
+
+	/**
+	 * Get the cycles that share at least one edge with a cycle
+	 * 
+	 * @param aCycleId
+	 *            a cycle id
+	 * @return the neighbouring cycles ordered by id
+	 */
+	public List<Cycle<V, E>> findEdgeNeighbours(int aCycleId) {
+		return this.toCycles(this.findEdgeNeighbourIds(aCycleId));
+	}
+
+	/**
+	 * Translate a set of cycle ids into cycles
+	 * 
+	 * @param someIds
+	 *            cycle ids, can be null
+	 * @return the cycles ordered by id
+	 */
+	public List<Cycle<V, E>> toCycles(BitSet someIds) {
+		List<Cycle<V, E>> rm = new ArrayList<Cycle<V, E>>();
+		if (someIds == null) {
+			return rm;
+		}
+		for (int i = someIds.nextSetBit(0); i >= 0; i = someIds
+				.nextSetBit(i + 1)) {
+			rm.add(this.cycles.get(i));
+		}
+		return rm;
+	}
+}
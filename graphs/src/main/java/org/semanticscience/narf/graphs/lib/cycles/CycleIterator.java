@@ -0,0 +1,304 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A lazy sequence of cycles. Cycles are produced one at a time so that the
+ * cycles of a large graph can be processed without keeping all of them in
+ * memory. Like a spliterator, a CycleIterator can hand part of its remaining
+ * cycles to a new iterator with {@link #trySplit()}, which is how
+ * {@link #forEach(CycleIterator, Visitor, int)} processes cycles on several
+ * threads.
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public abstract class CycleIterator<V, E> implements Iterator<Cycle<V, E>> {
+
+	/**
+	 * A callback that receives the cycles of an iterator
+	 */
+	public interface Visitor<V, E> {
+		/**
+		 * Process a cycle
+		 * 
+		 * @param aCycle
+		 *            a cycle
+		 * @return false to stop the iteration
+		 */
+		boolean visit(Cycle<V, E> aCycle);
+	}
+
+	/**
+	 * Split this iterator. The cycles of the returned iterator are no longer
+	 * returned by this one.
+	 * 
+	 * @return an iterator over part of the remaining cycles, or null if this
+	 *         iterator cannot be split
+	 */
+	public abstract CycleIterator<V, E> trySplit();
+
+	/**
+	 * @return an estimate of the number of cycles left, used to decide which
+	 *         iterator to split
+	 */
+	public abstract long estimateSize();
+
+	/**
+	 * Cycles cannot be removed
+	 * 
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Pass the remaining cycles to a visitor until it returns false
+	 * 
+	 * @param aVisitor
+	 *            the visitor
+	 * @return false if the visitor stopped the iteration
+	 */
+	public boolean visitRemaining(Visitor<V, E> aVisitor) {
+		while (this.hasNext()) {
+			if (!aVisitor.visit(this.next())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Copy the remaining cycles into a list
+	 * 
+	 * @return a list with the remaining cycles
+	 */
+	public List<Cycle<V, E>> toList() {
+		List<Cycle<V, E>> rm = new ArrayList<Cycle<V, E>>();
+		while (this.hasNext()) {
+			rm.add(this.next());
+		}
+		return rm;
+	}
+
+	/**
+	 * Create an iterator over a list of cycles
+	 * 
+	 * @param someCycles
+	 *            a list of cycles, it must not change during the iteration
+	 * @return an iterator that splits the list in halves
+	 */
+	public static <V, E> CycleIterator<V, E> fromList(
+			List<Cycle<V, E>> someCycles) {
+		return new ListCycleIterator<V, E>(someCycles, 0, someCycles.size());
+	}
+
+	/**
+	 * Keep only the cycles of an iterator whose size is within bounds
+	 * 
+	 * @param anIterator
+	 *            an iterator
+	 * @param aMinSize
+	 *            the minimum number of edges of a cycle
+	 * @param aMaxSize
+	 *            the maximum number of edges of a cycle
+	 * @return an iterator over the cycles of anIterator whose size is in
+	 *         [aMinSize, aMaxSize]
+	 */
+	public static <V, E> CycleIterator<V, E> withSizeBetween(
+			CycleIterator<V, E> anIterator, int aMinSize, int aMaxSize) {
+		return new SizeFilter<V, E>(anIterator, aMinSize, aMaxSize);
+	}
+
+	/**
+	 * Pass every cycle of an iterator to a visitor using several threads. The
+	 * iterator is split into at most aThreadCount parts that are visited at
+	 * the same time, so the visitor must be thread safe. As soon as the
+	 * visitor returns false all the threads stop after their current cycle.
+	 * 
+	 * @param anIterator
+	 *            an iterator
+	 * @param aVisitor
+	 *            a thread safe visitor
+	 * @param aThreadCount
+	 *            the maximum number of threads
+	 * @return false if the visitor stopped the iteration
+	 */
+	public static <V, E> boolean forEach(CycleIterator<V, E> anIterator,
+			final Visitor<V, E> aVisitor, int aThreadCount) {
+		List<CycleIterator<V, E>> parts = new ArrayList<CycleIterator<V, E>>();
+		parts.add(anIterator);
+		while (parts.size() < aThreadCount) {
+			// split the largest part
+			int largest = 0;
+			for (int i = 1; i < parts.size(); i++) {
+				if (parts.get(i).estimateSize() > parts.get(largest)
+						.estimateSize()) {
+					largest = i;
+				}
+			}
+			CycleIterator<V, E> split = parts.get(largest).trySplit();
+			if (split == null) {
+				break;
+			}
+			parts.add(split);
+		}
+		if (parts.size() == 1) {
+			return anIterator.visitRemaining(aVisitor);
+		}
+		final AtomicBoolean stopped = new AtomicBoolean(false);
+		ExecutorService pool = Executors.newFixedThreadPool(parts.size());
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (final CycleIterator<V, E> aPart : parts) {
+				futures.add(pool.submit(new Callable<Void>() {
+					public Void call() {
+						while (!stopped.get() && aPart.hasNext()) {
+							if (!aVisitor.visit(aPart.next())) {
+								stopped.set(true);
+							}
+						}
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> f : futures) {
+				f.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(
+					"Interrupted while visiting the cycles", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Could not visit the cycles",
+					e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+		return !stopped.get();
+	}
+
+	/**
+	 * An iterator over a range of a list
+	 */
+	private static final class ListCycleIterator<V, E> extends
+			CycleIterator<V, E> {
+		private final List<Cycle<V, E>> cycles;
+		private int from;
+		private final int to;
+
+		private ListCycleIterator(List<Cycle<V, E>> someCycles, int aFrom,
+				int aTo) {
+			cycles = someCycles;
+			from = aFrom;
+			to = aTo;
+		}
+
+		public boolean hasNext() {
+			return from < to;
+		}
+
+		public Cycle<V, E> next() {
+			if (from >= to) {
+				throw new NoSuchElementException();
+			}
+			return cycles.get(from++);
+		}
+
+		@Override
+		public CycleIterator<V, E> trySplit() {
+			int mid = (from + to) >>> 1;
+			if (mid <= from) {
+				return null;
+			}
+			CycleIterator<V, E> rm = new ListCycleIterator<V, E>(cycles, from,
+					mid);
+			from = mid;
+			return rm;
+		}
+
+		@Override
+		public long estimateSize() {
+			return to - from;
+		}
+	}
+
+	/**
+	 * An iterator that skips the cycles whose size is out of bounds
+	 */
+	private static final class SizeFilter<V, E> extends CycleIterator<V, E> {
+		private final CycleIterator<V, E> source;
+		private final int minSize;
+		private final int maxSize;
+		private Cycle<V, E> pending;
+
+		private SizeFilter(CycleIterator<V, E> aSource, int aMinSize,
+				int aMaxSize) {
+			source = aSource;
+			minSize = aMinSize;
+			maxSize = aMaxSize;
+		}
+
+		public boolean hasNext() {
+			while (pending == null && source.hasNext()) {
+				Cycle<V, E> c = source.next();
+				if (c.size() >= minSize && c.size() <= maxSize) {
+					pending = c;
+				}
+			}
+			return pending != null;
+		}
+
+		public Cycle<V, E> next() {
+			if (!this.hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Cycle<V, E> rm = pending;
+			pending = null;
+			return rm;
+		}
+
+		@Override
+		public CycleIterator<V, E> trySplit() {
+			CycleIterator<V, E> split = source.trySplit();
+			return (split == null) ? null : new SizeFilter<V, E>(split,
+					minSize, maxSize);
+		}
+
+		@Override
+		public long estimateSize() {
+			return source.estimateSize() + (pending == null ? 0 : 1);
+		}
+	}
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import java.util.Arrays;
+
+import org.semanticscience.narf.graphs.lib.CompactGraph;
+
+/**
+ * A canonical key for a cycle: the sorted ids of its edges in a compact
+ * snapshot of the base graph. The key does not depend on where a cycle
+ * starts nor on the direction it is traversed, so two cycles have the same
+ * key iff they are made of the same edges. Keys are meant to deduplicate
+ * cycles through hash based collections.
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public final class CycleKey {
+	/**
+	 * The edge ids of the cycle in increasing order
+	 */
+	private final int[] edgeIds;
+	/**
+	 * The cached hash code of edgeIds
+	 */
+	private final int hash;
+
+	private CycleKey(int[] someSortedEdgeIds) {
+		edgeIds = someSortedEdgeIds;
+		hash = Arrays.hashCode(edgeIds);
+	}
+
+	/**
+	 * Create the key of a cycle given the ids of its edges in any order
+	 * 
+	 * @param someEdgeIds
+	 *            the edge ids of a cycle
+	 * @return the key of the cycle
+	 */
+	public static CycleKey fromEdgeIds(int[] someEdgeIds) {
+		int[] sorted = someEdgeIds.clone();
+		Arrays.sort(sorted);
+		return new CycleKey(sorted);
+	}
+
+	/**
+	 * Create the key of a cycle whose vertices are given in the order they are
+	 * traversed. The last vertex is joined to the first one.
+	 * 
+	 * @param aGraph
+	 *            a compact snapshot of the base graph
+	 * @param someVertexIds
+	 *            the ids of the vertices of the cycle in order
+	 * @return the key of the cycle
+	 * @throws IllegalArgumentException
+	 *             if two consecutive vertices are not adjacent
+	 */
+	public static CycleKey fromVertexIds(CompactGraph<?, ?> aGraph,
+			int[] someVertexIds) {
+		int n = someVertexIds.length;
+		int[] ids = new int[n];
+		for (int i = 0; i < n; i++) {
+			ids[i] = aGraph.findEdge(someVertexIds[i], someVertexIds[(i + 1)
+					% n]);
+			if (ids[i] < 0) {
+				throw new IllegalArgumentException("Vertices "
+						+ someVertexIds[i] + " and " + someVertexIds[(i + 1) % n]
+						+ " are not adjacent");
+			}
+		}
+		Arrays.sort(ids);
+		return new CycleKey(ids);
+	}
+
+	/**
+	 * Create the key of a cycle
+	 * 
+	 * @param aCycle
+	 *            a cycle of the base graph
+	 * @param aGraph
+	 *            a compact snapshot of the base graph
+	 * @return the key of aCycle
+	 * @throws IllegalArgumentException
+	 *             if an edge of aCycle is not part of aGraph
+	 */
+	public static <V, E> CycleKey fromCycle(Cycle<V, E> aCycle,
+			CompactGraph<V, E> aGraph) {
+		int n = aCycle.size();
+		int[] ids = new int[n];
+		for (int i = 0; i < n; i++) {
+			ids[i] = aGraph.getEdgeId(aCycle.getEdge(i));
+			if (ids[i] < 0) {
+				throw new IllegalArgumentException("Edge "
+						+ aCycle.getEdge(i) + " is not part of the graph");
+			}
+		}
+		Arrays.sort(ids);
+		return new CycleKey(ids);
+	}
+
+	/**
+	 * @return the number of edges of the cycle
+	 */
+	public int size() {
+		return edgeIds.length;
+	}
+
+	/**
+	 * @return the edge ids of the cycle in increasing order
+	 */
+	public int[] getEdgeIds() {
+		return edgeIds.clone();
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CycleKey)) {
+			return false;
+		}
+		CycleKey other = (CycleKey) obj;
+		return hash == other.hash && Arrays.equals(edgeIds, other.edgeIds);
+	}
+
+	@Override
+	public String toString() {
+		return "CycleKey " + Arrays.toString(edgeIds);
+	}
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.semanticscience.narf.graphs.nucleicacid.InteractionEdge;
+import org.semanticscience.narf.structures.parts.Nucleotide;
+
+/**
+ * A cache of the level 1 and level 2 profiles of the cycles of one nucleic
+ * acid. The canonical normalization of a cycle and its
+ * {@link CycleFingerprint} are computed the first time they are asked for
+ * and then shared by every output that needs them. The cache of a nucleic
+ * acid is dropped whenever its interactions change, see
+ * {@link org.semanticscience.narf.graphs.nucleicacid.NucleicAcid#getCycleProfileCache()}
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class CycleProfileCache {
+	/**
+	 * The profiles of every cycle asked for so far. Cycles are equal whatever
+	 * their first vertex and direction, which is safe because their profiles
+	 * do not depend on either.
+	 */
+	private final Map<Cycle<Nucleotide, InteractionEdge>, Profile> profiles = new HashMap<Cycle<Nucleotide, InteractionEdge>, Profile>();
+
+	/**
+	 * Get the canonical normalization of a cycle, as returned by
+	 * {@link CycleHelper#findMinimalNormalizationString(Cycle, boolean)}
+	 * 
+	 * @param aCycle
+	 *            a cycle of the nucleic acid of this cache
+	 * @param aLevel
+	 *            either CycleFingerprint.LEVEL_1 or CycleFingerprint.LEVEL_2
+	 * @return the digits of the canonical normalization of aCycle
+	 */
+	public synchronized String getNormalization(
+			Cycle<Nucleotide, InteractionEdge> aCycle, int aLevel) {
+		Profile p = this.getProfile(aCycle);
+		int i = index(aLevel);
+		if (p.normalizations[i] == null) {
+			p.normalizations[i] = CycleHelper.findMinimalNormalizationString(
+					aCycle, aLevel == CycleFingerprint.LEVEL_1);
+		}
+		return p.normalizations[i];
+	}
+
+	/**
+	 * Get the fingerprint of a cycle
+	 * 
+	 * @param aCycle
+	 *            a cycle of the nucleic acid of this cache
+	 * @param aLevel
+	 *            either CycleFingerprint.LEVEL_1 or CycleFingerprint.LEVEL_2
+	 * @return the fingerprint of the profile of aCycle
+	 */
+	public synchronized CycleFingerprint getFingerprint(
+			Cycle<Nucleotide, InteractionEdge> aCycle, int aLevel) {
+		Profile p = this.getProfile(aCycle);
+		int i = index(aLevel);
+		if (p.fingerprints[i] == null) {
+			p.fingerprints[i] = CycleFingerprint.fromNormalization(
+					this.getNormalization(aCycle, aLevel), aLevel);
+		}
+		return p.fingerprints[i];
+	}
+
+	/**
+	 * @return the number of cycles that have a profile in this cache
+	 */
+	public synchronized int size() {
+		return this.profiles.size();
+	}
+
+	/**
+	 * Forget every profile
+	 */
+	public synchronized void clear() {
+		this.profiles.clear();
+	}
+
+	private Profile getProfile(Cycle<Nucleotide, InteractionEdge> aCycle) {
+		Profile rm = this.profiles.get(aCycle);
+		if (rm == null) {
+			rm = new Profile();
+			this.profiles.put(aCycle, rm);
+		}
+		return rm;
+	}
+
+	private static int index(int aLevel) {
+		if (aLevel != CycleFingerprint.LEVEL_1
+				&& aLevel != CycleFingerprint.LEVEL_2) {
+			throw new IllegalArgumentException("Invalid profile level: "
+					+ aLevel);
+		}
+		return aLevel - 1;
+	}
+
+	/**
+	 * The profiles of one cycle, indexed by level - 1
+	 */
+	private static final class Profile {
+		private final String[] normalizations = new String[2];
+		private final CycleFingerprint[] fingerprints = new CycleFingerprint[2];
+	}
+}
@@ -0,0 +1,339 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import java.util.List;
+
+import org.semanticscience.narf.graphs.lib.CompactGraph;
+
+/**
+ * The cycle space of a graph over GF(2). A cycle is represented by the
+ * incidence vector of its edges packed in an array of longs, bit e of the
+ * vector being set if the edge of id e is in the cycle. A CycleSpace keeps
+ * the vectors added to it in row echelon form, each row being stored under
+ * its lowest set bit, so that the rank is updated and the independence of a
+ * new cycle is tested with at most one pass over the rows.
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class CycleSpace<V, E> {
+	/**
+	 * The graph whose edges index the vectors
+	 */
+	private final CompactGraph<V, E> graph;
+	/**
+	 * The number of longs of a vector
+	 */
+	private final int words;
+	/**
+	 * The reduced rows indexed by their lowest set bit
+	 */
+	private final long[][] pivots;
+	/**
+	 * The number of rows
+	 */
+	private int rank;
+
+	/**
+	 * Create an empty subspace of the cycle space of a graph
+	 * 
+	 * @param aGraph
+	 *            the graph
+	 */
+	public CycleSpace(CompactGraph<V, E> aGraph) {
+		graph = aGraph;
+		words = (aGraph.getEdgeCount() + 63) >>> 6;
+		pivots = new long[aGraph.getEdgeCount()][];
+		rank = 0;
+	}
+
+	/**
+	 * @return the number of independent vectors added so far
+	 */
+	public int getRank() {
+		return rank;
+	}
+
+	/**
+	 * @return the dimension of the cycle space of the graph, that is the
+	 *         number of cycles of any of its cycle bases
+	 */
+	public int getDimension() {
+		return graph.getEdgeCount() - graph.getVertexCount()
+				+ graph.countComponents();
+	}
+
+	/**
+	 * @return true if the vectors added so far span the whole cycle space
+	 */
+	public boolean isComplete() {
+		return rank == this.getDimension();
+	}
+
+	/**
+	 * Get the incidence vector of a cycle
+	 * 
+	 * @param aCycle
+	 *            a cycle whose edges are edges of the graph
+	 * @return the packed incidence vector of the cycle
+	 * @throws IllegalArgumentException
+	 *             if an edge of the cycle is not in the graph
+	 */
+	public long[] toVector(Cycle<V, E> aCycle) {
+		long[] rm = new long[words];
+		for (E anEdge : aCycle.getEdgeList()) {
+			int e = graph.getEdgeId(anEdge);
+			if (e == -1) {
+				throw new IllegalArgumentException("Edge " + anEdge
+						+ " is not in the graph");
+			}
+			rm[e >>> 6] ^= 1L << e;
+		}
+		return rm;
+	}
+
+	/**
+	 * Get the incidence vector of a set of edges
+	 * 
+	 * @param someEdgeIds
+	 *            the ids of the edges
+	 * @return the packed incidence vector of the edges
+	 */
+	public long[] toVector(int[] someEdgeIds) {
+		long[] rm = new long[words];
+		for (int e : someEdgeIds) {
+			rm[e >>> 6] ^= 1L << e;
+		}
+		return rm;
+	}
+
+	/**
+	 * Reduce a vector by the rows of this space. The vector is left
+	 * untouched.
+	 * 
+	 * @param aVector
+	 *            a packed incidence vector
+	 * @return the reduced vector, which is zero if and only if aVector is a
+	 *         sum of the vectors added to this space
+	 */
+	public long[] reduce(long[] aVector) {
+		long[] rm = aVector.clone();
+		this.reduceInPlace(rm);
+		return rm;
+	}
+
+	/**
+	 * Determine if a vector is independent of the vectors of this space
+	 * 
+	 * @param aVector
+	 *            a packed incidence vector
+	 * @return true if aVector is not a sum of the vectors added so far
+	 */
+	public boolean isIndependent(long[] aVector) {
+		return !isZero(this.reduce(aVector));
+	}
+
+	/**
+	 * Determine if a cycle is independent of the vectors of this space
+	 * 
+	 * @param aCycle
+	 *            a cycle of the graph
+	 * @return true if aCycle is not a sum of the vectors added so far
+	 */
+	public boolean isIndependent(Cycle<V, E> aCycle) {
+		return this.isIndependent(this.toVector(aCycle));
+	}
+
+	/**
+	 * Add a vector to this space
+	 * 
+	 * @param aVector
+	 *            a packed incidence vector, it is left untouched
+	 * @return true if the vector was independent, in which case the rank
+	 *         grew by one
+	 */
+	public boolean add(long[] aVector) {
+		long[] row = aVector.clone();
+		int p = this.reduceInPlace(row);
+		if (p == -1) {
+			return false;
+		}
+		pivots[p] = row;
+		rank++;
+		return true;
+	}
+
+	/**
+	 * Add a set of edges to this space
+	 * 
+	 * @param someEdgeIds
+	 *            the ids of the edges of a cycle
+	 * @return true if the cycle was independent
+	 */
+	public boolean add(int[] someEdgeIds) {
+		return this.add(this.toVector(someEdgeIds));
+	}
+
+	/**
+	 * Add a cycle to this space
+	 * 
+	 * @param aCycle
+	 *            a cycle of the graph
+	 * @return true if the cycle was independent
+	 */
+	public boolean add(Cycle<V, E> aCycle) {
+		return this.add(this.toVector(aCycle));
+	}
+
+	/**
+	 * Eliminate the pivots of this space from a vector
+	 * 
+	 * @param aRow
+	 *            the vector to reduce in place
+	 * @return the lowest set bit of the reduced vector, or -1 if it is zero
+	 */
+	private int reduceInPlace(long[] aRow) {
+		int w = 0;
+		while (w < words) {
+			if (aRow[w] == 0) {
+				w++;
+				continue;
+			}
+			int p = (w << 6) + Long.numberOfTrailingZeros(aRow[w]);
+			long[] pivot = pivots[p];
+			if (pivot == null) {
+				return p;
+			}
+			// the bits of a row below its pivot are all clear
+			for (int k = w; k < words; k++) {
+				aRow[k] ^= pivot[k];
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Determine if every vertex of the graph is incident to an even number of
+	 * the edges of a vector, which is the case of the vectors of the cycle
+	 * space
+	 * 
+	 * @param aVector
+	 *            a packed incidence vector
+	 * @return true if aVector belongs to the cycle space
+	 */
+	public boolean isEulerian(long[] aVector) {
+		boolean[] odd = new boolean[graph.getVertexCount()];
+		for (int w = 0; w < words; w++) {
+			long bits = aVector[w];
+			while (bits != 0) {
+				int e = (w << 6) + Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1;
+				odd[graph.getEdgeSource(e)] ^= true;
+				odd[graph.getEdgeTarget(e)] ^= true;
+			}
+		}
+		for (boolean b : odd) {
+			if (b) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param aVector
+	 *            a packed incidence vector
+	 * @return true if no bit of aVector is set
+	 */
+	public static boolean isZero(long[] aVector) {
+		for (long l : aVector) {
+			if (l != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compute the rank of a list of cycles of a graph
+	 * 
+	 * @param aGraph
+	 *            the graph
+	 * @param someCycles
+	 *            cycles of the graph
+	 * @return the number of linearly independent cycles in the list
+	 */
+	public static <V, E> int rank(CompactGraph<V, E> aGraph,
+			List<Cycle<V, E>> someCycles) {
+		CycleSpace<V, E> space = new CycleSpace<V, E>(aGraph);
+		for (Cycle<V, E> c : someCycles) {
+			space.add(c);
+		}
+		return space.getRank();
+	}
+
+	/**
+	 * Check that the cycles of a cycle basis are a basis of the cycle space
+	 * of its graph: every cycle has to be made of edges of the graph with
+	 * every vertex on an even number of them, the cycles have to be linearly
+	 * independent and there has to be as many of them as the dimension of
+	 * the cycle space.
+	 * 
+	 * @param aBasis
+	 *            a cycle basis
+	 * @return true if aBasis is a basis of the cycle space of its graph
+	 */
+	public static <V, E> boolean verify(CycleBasis<V, E> aBasis) {
+		return verify(CompactGraph.fromGraph(aBasis.getBaseGraph()),
+				aBasis.getCycleBasis());
+	}
+
+	/**
+	 * Check that a list of cycles is a basis of the cycle space of a graph
+	 * 
+	 * @param aGraph
+	 *            the graph
+	 * @param someCycles
+	 *            the cycles
+	 * @return true if the cycles are a basis of the cycle space of aGraph
+	 * @see #verify(CycleBasis)
+	 */
+	public static <V, E> boolean verify(CompactGraph<V, E> aGraph,
+			List<Cycle<V, E>> someCycles) {
+		CycleSpace<V, E> space = new CycleSpace<V, E>(aGraph);
+		if (someCycles.size() != space.getDimension()) {
+			return false;
+		}
+		for (Cycle<V, E> c : someCycles) {
+			long[] v;
+			try {
+				v = space.toVector(c);
+			} catch (IllegalArgumentException e) {
+				return false;
+			}
+			if (!space.isEulerian(v) || !space.add(v)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -20,6 +20,8 @@
  */
 package org.semanticscience.narf.graphs.lib.cycles;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -30,10 +32,22 @@ import org.jgrapht.UndirectedGraph;
 import org.jgrapht.alg.DijkstraShortestPath;
 import org.jgrapht.alg.KruskalMinimumSpanningTree;
 import org.jgrapht.graph.SimpleGraph;
+import org.semanticscience.narf.graphs.lib.CompactGraph;
 import org.semanticscience.narf.graphs.lib.cycles.exceptions.CycleException;
 import org.semanticscience.narf.graphs.nucleicacid.NucleicAcid;
 
 /**
+ * A fundamental cycle basis. By default a breadth first search tree is
+ * grown from the lowest vertex of every connected component, and every edge
+ * that is not in the tree closes one cycle with the tree paths from its
+ * endpoints to their lowest common ancestor. Both paths are found by walking
+ * up the parent array from the deeper endpoint, so each cycle costs
+ * O(length of the cycle).
+ * 
+ * The former behaviour, where the cycles closed on a Kruskal minimum
+ * spanning tree are split by the edges they share, is still available by
+ * asking for split cycles.
+ * 
  * @author Jose Cruz-Toledo
  */
 public class FundamentalCycleBasis<V, E> extends CycleBasis<V, E> {
@@ -50,21 +64,171 @@ public class FundamentalCycleBasis<V, E> extends CycleBasis<V, E> {
 	private UndirectedGraph<V, E> minimumSpanningTreeGraph;
 
 	/**
+	 * Compute the fundamental cycle basis of a nucleic acid on a breadth first
+	 * search tree
+	 * 
 	 * @param na
+	 *            a nucleic acid
 	 */
 	public FundamentalCycleBasis(NucleicAcid na) {
-		super(na);
-		cyclesMap = initializeCycleMap();
-		minimumSpanningTreeGraph = this.retrieveKruskalMSTGraph();
-		cycleBasis = computeCycleBasis(minimumSpanningTreeGraph);
+		this(na, false);
+	}
 
+	/**
+	 * Compute the fundamental cycle basis of a nucleic acid
+	 * 
+	 * @param na
+	 *            a nucleic acid
+	 * @param splitCycles
+	 *            if true the cycles closed on a minimum spanning tree are
+	 *            split by the edges they share, otherwise the cycles are
+	 *            closed on a breadth first search tree
+	 */
+	public FundamentalCycleBasis(NucleicAcid na, boolean splitCycles) {
+		super(na);
+		if (splitCycles) {
+			cyclesMap = initializeCycleMap();
+			minimumSpanningTreeGraph = this.retrieveKruskalMSTGraph();
+			cycleBasis = computeCycleBasis(minimumSpanningTreeGraph);
+		} else {
+			cycleBasis = computeTreeCycleBasis();
+		}
 	}
 
+	/**
+	 * Compute the fundamental cycle basis of a graph on a breadth first search
+	 * tree
+	 * 
+	 * @param aG
+	 *            an undirected graph
+	 */
 	public FundamentalCycleBasis(UndirectedGraph<V, E> aG) {
+		this(aG, false);
+	}
+
+	/**
+	 * Compute the fundamental cycle basis of a graph
+	 * 
+	 * @param aG
+	 *            an undirected graph
+	 * @param splitCycles
+	 *            if true the cycles closed on a minimum spanning tree are
+	 *            split by the edges they share, otherwise the cycles are
+	 *            closed on a breadth first search tree
+	 */
+	public FundamentalCycleBasis(UndirectedGraph<V, E> aG, boolean splitCycles) {
 		super(aG);
-		cyclesMap = initializeCycleMap();
-		minimumSpanningTreeGraph = this.retrieveKruskalMSTGraph();
-		cycleBasis = compFundamentalCycleBasis(minimumSpanningTreeGraph);
+		if (splitCycles) {
+			cyclesMap = initializeCycleMap();
+			minimumSpanningTreeGraph = this.retrieveKruskalMSTGraph();
+			cycleBasis = compFundamentalCycleBasis(minimumSpanningTreeGraph);
+		} else {
+			cycleBasis = computeTreeCycleBasis();
+		}
+	}
+
+	/**
+	 * Compute the fundamental cycles of a breadth first search tree of the
+	 * base graph
+	 * 
+	 * @return one cycle for every edge that is not in the tree, in the order
+	 *         of the edges of the base graph
+	 */
+	private List<Cycle<V, E>> computeTreeCycleBasis() {
+		CompactGraph<V, E> g = CompactGraph.fromGraph(this.getBaseGraph());
+		int n = g.getVertexCount();
+		int[] parentEdge = new int[n];
+		int[] depth = new int[n];
+		int[] queue = new int[n];
+		Arrays.fill(depth, -1);
+		for (int root = 0; root < n; root++) {
+			if (depth[root] != -1) {
+				continue;
+			}
+			// breadth first search from the lowest unvisited vertex
+			depth[root] = 0;
+			parentEdge[root] = -1;
+			int head = 0;
+			int tail = 0;
+			queue[tail++] = root;
+			while (head < tail) {
+				int v = queue[head++];
+				for (int i = g.getAdjacencyStart(v); i < g.getAdjacencyEnd(v); i++) {
+					int w = g.getAdjacentVertex(i);
+					if (depth[w] == -1) {
+						depth[w] = depth[v] + 1;
+						parentEdge[w] = g.getAdjacentEdge(i);
+						queue[tail++] = w;
+					}
+				}
+			}
+		}
+		List<Cycle<V, E>> rm = new ArrayList<Cycle<V, E>>();
+		for (int e = 0; e < g.getEdgeCount(); e++) {
+			int s = g.getEdgeSource(e);
+			int t = g.getEdgeTarget(e);
+			if (s == t || parentEdge[s] == e || parentEdge[t] == e) {
+				continue;
+			}
+			List<E> edgeList = findTreePath(g, s, t, parentEdge, depth);
+			if (edgeList.size() < 2) {
+				// a parallel edge does not close a cycle of 3 or more edges
+				continue;
+			}
+			// add the missing edge to complete the cycle
+			edgeList.add(g.getEdge(e));
+			try {
+				rm.add(new Cycle<V, E>(this.getBaseGraph(), g.getVertex(s), g
+						.getVertex(t), edgeList, edgeList.size()));
+			} catch (CycleException ex) {
+				ex.printStackTrace();
+			}
+		}
+		return rm;
+	}
+
+	/**
+	 * Find the path between two vertices of a rooted spanning tree. Both
+	 * vertices walk up to their lowest common ancestor: first the deeper
+	 * vertex until both are at the same depth, then both of them at the same
+	 * time.
+	 * 
+	 * @param g
+	 *            the compact graph
+	 * @param s
+	 *            the id of the first vertex
+	 * @param t
+	 *            the id of the second vertex
+	 * @param parentEdge
+	 *            the id of the edge to the parent of every vertex
+	 * @param depth
+	 *            the depth of every vertex in the tree
+	 * @return the edges of the tree path from s to t
+	 */
+	private static <V, E> List<E> findTreePath(CompactGraph<V, E> g, int s,
+			int t, int[] parentEdge, int[] depth) {
+		List<E> fromS = new ArrayList<E>();
+		List<E> fromT = new ArrayList<E>();
+		int x = s;
+		int y = t;
+		while (depth[x] > depth[y]) {
+			fromS.add(g.getEdge(parentEdge[x]));
+			x = g.getOpposite(parentEdge[x], x);
+		}
+		while (depth[y] > depth[x]) {
+			fromT.add(g.getEdge(parentEdge[y]));
+			y = g.getOpposite(parentEdge[y], y);
+		}
+		while (x != y) {
+			fromS.add(g.getEdge(parentEdge[x]));
+			x = g.getOpposite(parentEdge[x], x);
+			fromT.add(g.getEdge(parentEdge[y]));
+			y = g.getOpposite(parentEdge[y], y);
+		}
+		for (int i = fromT.size() - 1; i >= 0; i--) {
+			fromS.add(fromT.get(i));
+		}
+		return fromS;
 	}
 
 	/**
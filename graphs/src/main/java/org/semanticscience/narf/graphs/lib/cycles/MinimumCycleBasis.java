@@ -0,0 +1,244 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jgrapht.UndirectedGraph;
+import org.semanticscience.narf.graphs.lib.CompactGraph;
+import org.semanticscience.narf.graphs.lib.cycles.exceptions.CycleException;
+import org.semanticscience.narf.graphs.nucleicacid.NucleicAcid;
+
+/**
+ * A minimum cycle basis computed directly on the base graph using Horton's
+ * candidate set (1987). For every vertex r a breadth first search tree is
+ * built and every non-tree edge (x,y) whose tree paths to r only meet at r
+ * yields the candidate cycle P(r,x) + (x,y) + P(y,r). Candidates are sorted
+ * by length and greedily kept if they are linearly independent (over GF(2))
+ * of the cycles that were already kept. The length of a cycle is its number
+ * of edges, as in CDK's ringsearch.
+ *
+ * @author Jose Cruz-Toledo
+ *
+ */
+public class MinimumCycleBasis<V, E> extends CycleBasis<V, E> {
+	/**
+	 * The compact snapshot of the (sub)graph whose basis is computed
+	 */
+	private CompactGraph<V, E> graph;
+
+	public MinimumCycleBasis(NucleicAcid na) {
+		super(na);
+		cycleBasis = computeCycleBasis(CompactGraph.fromGraph(this
+				.getBaseGraph()));
+	}
+
+	public MinimumCycleBasis(UndirectedGraph<V, E> aG) {
+		super(aG);
+		cycleBasis = computeCycleBasis(CompactGraph.fromGraph(aG));
+	}
+
+	/**
+	 * Compute the minimum cycle basis of the subgraph of aG made of the given
+	 * edges and their endpoints. The cycles returned are paths of aG.
+	 * 
+	 * @param aG
+	 *            the base graph
+	 * @param someEdges
+	 *            the edges of the subgraph
+	 */
+	public MinimumCycleBasis(UndirectedGraph<V, E> aG, Collection<E> someEdges) {
+		super(aG);
+		cycleBasis = computeCycleBasis(CompactGraph.fromEdges(aG, someEdges));
+	}
+
+	/**
+	 * Compute the minimum cycle basis of a compact snapshot of aG
+	 * 
+	 * @param aG
+	 *            the base graph
+	 * @param aCompactGraph
+	 *            a snapshot of aG or of one of its subgraphs
+	 */
+	public MinimumCycleBasis(UndirectedGraph<V, E> aG,
+			CompactGraph<V, E> aCompactGraph) {
+		super(aG);
+		cycleBasis = computeCycleBasis(aCompactGraph);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.semanticscience.narf.graphs.lib.cycles.CycleBasis#getCycleBasis()
+	 */
+	@Override
+	public List<Cycle<V, E>> getCycleBasis() {
+		return this.cycleBasis;
+	}
+
+	/**
+	 * Compute the minimum cycle basis of a snapshot of the base graph
+	 *
+	 * @param aCompactGraph
+	 *            the snapshot of the (sub)graph
+	 * @return the list of cycles of the minimum cycle basis sorted by size
+	 * @throws IllegalStateException
+	 *             if a candidate of the basis is not a cycle of the base graph
+	 */
+	private List<Cycle<V, E>> computeCycleBasis(CompactGraph<V, E> aCompactGraph) {
+		List<Cycle<V, E>> rm = new ArrayList<Cycle<V, E>>();
+		this.graph = aCompactGraph;
+		int rank = graph.getEdgeCount() - graph.getVertexCount()
+				+ graph.countComponents();
+		if (rank <= 0) {
+			return rm;
+		}
+		List<int[]> candidates = this.computeHortonCandidates();
+		// the greedy step of Horton's algorithm
+		Collections.sort(candidates, new Comparator<int[]>() {
+			public int compare(int[] c1, int[] c2) {
+				return c1.length - c2.length;
+			}
+		});
+		CycleSpace<V, E> space = new CycleSpace<V, E>(graph);
+		for (int[] aCandidate : candidates) {
+			if (space.add(aCandidate)) {
+				try {
+					rm.add(this.makeCycle(aCandidate));
+				} catch (CycleException e) {
+					// candidates are paths of the snapshot, so this is a bug
+					throw new IllegalStateException(
+							"Could not create a minimum cycle", e);
+				}
+				if (rm.size() == rank) {
+					break;
+				}
+			}
+		}
+		return rm;
+	}
+
+	/**
+	 * Compute Horton's candidate cycles. Each candidate is returned as the
+	 * ordered array of the edge indexes that compose it, starting at the root
+	 * of the breadth first search that found it. Candidates that have the
+	 * same set of edges are only returned once.
+	 *
+	 * @return a list of candidate cycles
+	 */
+	private List<int[]> computeHortonCandidates() {
+		int n = graph.getVertexCount();
+		int m = graph.getEdgeCount();
+		List<int[]> rm = new ArrayList<int[]>();
+		Set<CycleKey> seen = new HashSet<CycleKey>();
+		int[] dist = new int[n];
+		int[] parentEdge = new int[n];
+		int[] branch = new int[n];
+		int[] queue = new int[n];
+		for (int root = 0; root < n; root++) {
+			// breadth first search from root
+			Arrays.fill(dist, -1);
+			dist[root] = 0;
+			parentEdge[root] = -1;
+			branch[root] = -1;
+			int head = 0;
+			int tail = 0;
+			queue[tail++] = root;
+			while (head < tail) {
+				int v = queue[head++];
+				for (int i = graph.getAdjacencyStart(v); i < graph
+						.getAdjacencyEnd(v); i++) {
+					int w = graph.getAdjacentVertex(i);
+					if (dist[w] == -1) {
+						dist[w] = dist[v] + 1;
+						parentEdge[w] = graph.getAdjacentEdge(i);
+						branch[w] = (v == root) ? w : branch[v];
+						queue[tail++] = w;
+					}
+				}
+			}
+			// every non tree edge whose endpoints hang from different
+			// branches of the tree closes a candidate cycle
+			for (int e = 0; e < m; e++) {
+				int x = graph.getEdgeSource(e);
+				int y = graph.getEdgeTarget(e);
+				if (dist[x] == -1 || parentEdge[x] == e || parentEdge[y] == e) {
+					continue;
+				}
+				if (branch[x] == branch[y]) {
+					continue;
+				}
+				int[] c = new int[dist[x] + dist[y] + 1];
+				// the path from root to x
+				int pos = dist[x] - 1;
+				for (int v = x; v != root; v = graph.getOpposite(parentEdge[v], v)) {
+					c[pos--] = parentEdge[v];
+				}
+				pos = dist[x];
+				c[pos++] = e;
+				// the path from y back to root
+				for (int v = y; v != root; v = graph.getOpposite(parentEdge[v], v)) {
+					c[pos++] = parentEdge[v];
+				}
+				if (seen.add(CycleKey.fromEdgeIds(c))) {
+					rm.add(c);
+				}
+			}
+		}
+		return rm;
+	}
+
+	/**
+	 * Create a Cycle object from the ordered edge indexes of a candidate. The
+	 * first vertex of the candidate becomes the start of the cycle and the
+	 * vertex preceding it the end of the cycle.
+	 *
+	 * @param aCandidate
+	 *            the ordered edge indexes of a cycle
+	 * @return the cycle
+	 * @throws CycleException
+	 *             if the edges do not describe a valid cycle
+	 */
+	private Cycle<V, E> makeCycle(int[] aCandidate) throws CycleException {
+		List<E> el = new ArrayList<E>(aCandidate.length);
+		for (int e : aCandidate) {
+			el.add(graph.getEdge(e));
+		}
+		int first = aCandidate[0];
+		int last = aCandidate[aCandidate.length - 1];
+		int start = graph.getEdgeSource(first);
+		if (start != graph.getEdgeSource(last)
+				&& start != graph.getEdgeTarget(last)) {
+			start = graph.getEdgeTarget(first);
+		}
+		int end = graph.getOpposite(last, start);
+		return new Cycle<V, E>(this.getBaseGraph(), graph.getVertex(start),
+				graph.getVertex(end), el, el.size());
+	}
+}
@@ -0,0 +1,596 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.jgrapht.UndirectedGraph;
+import org.semanticscience.narf.graphs.lib.CompactGraph;
+import org.semanticscience.narf.graphs.lib.cycles.exceptions.CycleException;
+import org.semanticscience.narf.graphs.nucleicacid.NucleicAcid;
+
+/**
+ * The relevant cycles of a graph, that is the union of all its minimum cycle
+ * bases, computed with Vismara's algorithm (1997). The vertices are ordered by
+ * their id and, for every vertex r, shortest paths are searched in the
+ * subgraph made of r and the vertices that come before r. Every pair of such
+ * paths that only meet at r and are closed by an edge (odd cycles) or by a
+ * common neighbour (even cycles) is the prototype of a family of cycles: the
+ * cycles obtained by replacing the two paths by any other pair of shortest
+ * paths with the same ends. A prototype is relevant if it is not the sum of
+ * shorter cycles, in which case all the cycles of its family are relevant.
+ * <p>
+ * Only the prototypes are built. The size of a family is the product of the
+ * number of shortest paths to the two ends, so the number of relevant cycles
+ * is known without enumerating them, and the cycles of a family are only
+ * built when {@link #familyIterator(int)} is used. The prototypes are
+ * returned by {@link #getCycleBasis()}.
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class RelevantCycles<V, E> extends CycleBasis<V, E> {
+	/**
+	 * The compact snapshot of the graph
+	 */
+	private CompactGraph<V, E> graph;
+	/**
+	 * The relevant families sorted by the size of their cycles
+	 */
+	private List<Family> families;
+
+	public RelevantCycles(NucleicAcid na) {
+		super(na);
+		this.computeRelevantFamilies(CompactGraph.fromGraph(this
+				.getBaseGraph()));
+	}
+
+	public RelevantCycles(UndirectedGraph<V, E> aG) {
+		super(aG);
+		this.computeRelevantFamilies(CompactGraph.fromGraph(aG));
+	}
+
+	/**
+	 * Compute the relevant cycles of a compact snapshot of aG
+	 * 
+	 * @param aG
+	 *            the base graph
+	 * @param aCompactGraph
+	 *            a snapshot of aG or of one of its subgraphs
+	 */
+	public RelevantCycles(UndirectedGraph<V, E> aG,
+			CompactGraph<V, E> aCompactGraph) {
+		super(aG);
+		this.computeRelevantFamilies(aCompactGraph);
+	}
+
+	/**
+	 * Get the prototypes of the relevant families. Every relevant cycle has
+	 * the size of its prototype and the prototypes span the cycle space.
+	 * 
+	 * @return one cycle per relevant family sorted by size
+	 */
+	@Override
+	public List<Cycle<V, E>> getCycleBasis() {
+		return this.cycleBasis;
+	}
+
+	/**
+	 * @return the number of relevant families
+	 */
+	public int getFamilyCount() {
+		return families.size();
+	}
+
+	/**
+	 * Get the number of cycles in a relevant family
+	 * 
+	 * @param aFamily
+	 *            the index of the family, which is also the index of its
+	 *            prototype in getCycleBasis()
+	 * @return the number of cycles of the family, Long.MAX_VALUE if it does
+	 *         not fit in a long
+	 */
+	public long getFamilySize(int aFamily) {
+		return families.get(aFamily).size;
+	}
+
+	/**
+	 * Count the relevant cycles without building them
+	 * 
+	 * @return the number of relevant cycles, Long.MAX_VALUE if it does not
+	 *         fit in a long
+	 */
+	public long countRelevantCycles() {
+		long rm = 0;
+		for (Family f : families) {
+			rm = addSaturated(rm, f.size);
+		}
+		return rm;
+	}
+
+	/**
+	 * Iterate over the cycles of a relevant family. The cycles are built one
+	 * at a time, the first one being the prototype.
+	 * 
+	 * @param aFamily
+	 *            the index of the family
+	 * @return an iterator over the cycles of the family
+	 */
+	public CycleIterator<V, E> familyIterator(int aFamily) {
+		return new FamilyIterator(aFamily, aFamily + 1);
+	}
+
+	/**
+	 * Iterate over all the relevant cycles, family by family
+	 * 
+	 * @return an iterator over the relevant cycles
+	 */
+	public CycleIterator<V, E> relevantCycleIterator() {
+		return new FamilyIterator(0, families.size());
+	}
+
+	/**
+	 * Compute the prototypes of the relevant families of a snapshot of the
+	 * base graph
+	 * 
+	 * @param aCompactGraph
+	 *            the snapshot of the graph
+	 * @throws IllegalStateException
+	 *             if a prototype is not a cycle of the base graph
+	 */
+	private void computeRelevantFamilies(CompactGraph<V, E> aCompactGraph) {
+		this.graph = aCompactGraph;
+		this.families = new ArrayList<Family>();
+		this.cycleBasis = new ArrayList<Cycle<V, E>>();
+		int rank = graph.getEdgeCount() - graph.getVertexCount()
+				+ graph.countComponents();
+		if (rank <= 0) {
+			return;
+		}
+		List<Family> candidates = this.computePrototypes();
+		Collections.sort(candidates, new Comparator<Family>() {
+			public int compare(Family f1, Family f2) {
+				return f1.edges.length - f2.edges.length;
+			}
+		});
+		// a prototype is relevant if it is independent of the shorter
+		// cycles, so the cycles of one size are only added to the cycle
+		// space once all of them have been tested
+		CycleSpace<V, E> space = new CycleSpace<V, E>(graph);
+		int i = 0;
+		while (i < candidates.size()) {
+			int j = i;
+			int length = candidates.get(i).edges.length;
+			List<long[]> kept = new ArrayList<long[]>();
+			while (j < candidates.size()
+					&& candidates.get(j).edges.length == length) {
+				Family f = candidates.get(j++);
+				long[] row = space.reduce(space.toVector(f.edges));
+				if (!CycleSpace.isZero(row)) {
+					kept.add(row);
+					families.add(f);
+				}
+			}
+			for (long[] row : kept) {
+				space.add(row);
+			}
+			i = j;
+		}
+		for (Family f : families) {
+			try {
+				cycleBasis.add(this.makeCycle(f.edges));
+			} catch (CycleException e) {
+				// prototypes are paths of the snapshot, so this is a bug
+				throw new IllegalStateException(
+						"Could not create a relevant cycle", e);
+			}
+		}
+	}
+
+	/**
+	 * Compute Vismara's prototypes. For every vertex r the shortest paths
+	 * from r are searched among r and the vertices with a smaller id, and the
+	 * pairs of paths that only meet at r and are closed by one edge or by
+	 * two edges through a common neighbour give a prototype.
+	 * 
+	 * @return the candidate families
+	 */
+	private List<Family> computePrototypes() {
+		int n = graph.getVertexCount();
+		List<Family> rm = new ArrayList<Family>();
+		ShortestPaths sp = new ShortestPaths();
+		int[] closing = new int[n];
+		int closingCount;
+		for (int r = 0; r < n; r++) {
+			sp.search(r);
+			for (int k = 1; k < sp.count; k++) {
+				int y = sp.queue[k];
+				closingCount = 0;
+				for (int i = graph.getAdjacencyStart(y); i < graph
+						.getAdjacencyEnd(y); i++) {
+					int z = graph.getAdjacentVertex(i);
+					if (z > r || sp.dist[z] == -1) {
+						continue;
+					}
+					if (sp.dist[z] + 1 == sp.dist[y]) {
+						closing[closingCount++] = i;
+					} else if (sp.dist[z] == sp.dist[y] && z < y
+							&& sp.branch[z] != sp.branch[y]) {
+						// odd cycle P(r,y) + (y,z) + P(z,r)
+						int e = graph.getAdjacentEdge(i);
+						rm.add(new Family(r, y, e, z, sp.pathEdges(y, e, z),
+								multiplySaturated(sp.paths[y], sp.paths[z])));
+					}
+				}
+				// even cycles P(r,p) + (p,y) + (y,q) + P(q,r)
+				for (int a = 0; a < closingCount; a++) {
+					int p = graph.getAdjacentVertex(closing[a]);
+					for (int b = a + 1; b < closingCount; b++) {
+						int q = graph.getAdjacentVertex(closing[b]);
+						if (sp.branch[p] == sp.branch[q]) {
+							continue;
+						}
+						int ep = graph.getAdjacentEdge(closing[a]);
+						int eq = graph.getAdjacentEdge(closing[b]);
+						rm.add(new Family(r, p, ep, y, eq, q, sp.pathEdges(p,
+								ep, y, eq, q), multiplySaturated(sp.paths[p],
+								sp.paths[q])));
+					}
+				}
+			}
+		}
+		return rm;
+	}
+
+	private static long multiplySaturated(long a, long b) {
+		if (a != 0 && b > Long.MAX_VALUE / a) {
+			return Long.MAX_VALUE;
+		}
+		return a * b;
+	}
+
+	private static long addSaturated(long a, long b) {
+		if (b > Long.MAX_VALUE - a) {
+			return Long.MAX_VALUE;
+		}
+		return a + b;
+	}
+
+	/**
+	 * Create a Cycle object from the ordered edge indexes of a cycle. The
+	 * first vertex of the cycle is the root of its family.
+	 * 
+	 * @param someEdges
+	 *            the ordered edge indexes of a cycle
+	 * @return the cycle
+	 * @throws CycleException
+	 *             if the edges do not describe a valid cycle
+	 */
+	private Cycle<V, E> makeCycle(int[] someEdges) throws CycleException {
+		List<E> el = new ArrayList<E>(someEdges.length);
+		for (int e : someEdges) {
+			el.add(graph.getEdge(e));
+		}
+		int first = someEdges[0];
+		int last = someEdges[someEdges.length - 1];
+		int start = graph.getEdgeSource(first);
+		if (start != graph.getEdgeSource(last)
+				&& start != graph.getEdgeTarget(last)) {
+			start = graph.getEdgeTarget(first);
+		}
+		int end = graph.getOpposite(last, start);
+		return new Cycle<V, E>(this.getBaseGraph(), graph.getVertex(start),
+				graph.getVertex(end), el, el.size());
+	}
+
+	/**
+	 * A relevant family. The cycles of the family are made of a shortest path
+	 * from the root to the first end, the closing edges and a shortest path
+	 * from the last end back to the root.
+	 */
+	private static final class Family {
+		private final int root;
+		/**
+		 * The vertices and edges that close the cycle: {first end, edge,
+		 * last end} for odd cycles and {first end, edge, middle vertex, edge,
+		 * last end} for even cycles
+		 */
+		private final int[] closure;
+		private final int[] edges;
+		private final long size;
+
+		private Family(int aRoot, int y, int e, int z, int[] someEdges,
+				long aSize) {
+			root = aRoot;
+			closure = new int[] { y, e, z };
+			edges = someEdges;
+			size = aSize;
+		}
+
+		private Family(int aRoot, int p, int ep, int y, int eq, int q,
+				int[] someEdges, long aSize) {
+			root = aRoot;
+			closure = new int[] { p, ep, y, eq, q };
+			edges = someEdges;
+			size = aSize;
+		}
+
+		private int getFirstEnd() {
+			return closure[0];
+		}
+
+		private int getLastEnd() {
+			return closure[closure.length - 1];
+		}
+	}
+
+	/**
+	 * Breadth first search from a root in the subgraph made of the root and
+	 * the vertices with a smaller id, counting the shortest paths to every
+	 * vertex
+	 */
+	private final class ShortestPaths {
+		private final int[] dist;
+		private final int[] parentEdge;
+		private final int[] branch;
+		private final long[] paths;
+		private final int[] queue;
+		private int root;
+		private int count;
+
+		private ShortestPaths() {
+			int n = graph.getVertexCount();
+			dist = new int[n];
+			parentEdge = new int[n];
+			branch = new int[n];
+			paths = new long[n];
+			queue = new int[n];
+			Arrays.fill(dist, -1);
+		}
+
+		private void search(int aRoot) {
+			// only the vertices of the previous search need to be cleared
+			for (int k = 0; k < count; k++) {
+				dist[queue[k]] = -1;
+			}
+			root = aRoot;
+			dist[root] = 0;
+			parentEdge[root] = -1;
+			branch[root] = -1;
+			paths[root] = 1;
+			count = 0;
+			queue[count++] = root;
+			for (int head = 0; head < count; head++) {
+				int v = queue[head];
+				for (int i = graph.getAdjacencyStart(v); i < graph
+						.getAdjacencyEnd(v); i++) {
+					int w = graph.getAdjacentVertex(i);
+					if (w > root) {
+						continue;
+					}
+					if (dist[w] == -1) {
+						dist[w] = dist[v] + 1;
+						parentEdge[w] = graph.getAdjacentEdge(i);
+						branch[w] = (v == root) ? w : branch[v];
+						paths[w] = paths[v];
+						queue[count++] = w;
+					} else if (dist[w] == dist[v] + 1) {
+						paths[w] = addSaturated(paths[w], paths[v]);
+					}
+				}
+			}
+		}
+
+		/**
+		 * The tree path from the root to x followed by the edges listed and
+		 * the tree path from the last vertex back to the root
+		 */
+		private int[] pathEdges(int... aClosure) {
+			int x = aClosure[0];
+			int z = aClosure[aClosure.length - 1];
+			int middle = aClosure.length / 2;
+			int[] rm = new int[dist[x] + middle + dist[z]];
+			int pos = dist[x] - 1;
+			for (int v = x; v != root; v = graph.getOpposite(parentEdge[v], v)) {
+				rm[pos--] = parentEdge[v];
+			}
+			pos = dist[x];
+			for (int k = 1; k < aClosure.length; k += 2) {
+				rm[pos++] = aClosure[k];
+			}
+			for (int v = z; v != root; v = graph.getOpposite(parentEdge[v], v)) {
+				rm[pos++] = parentEdge[v];
+			}
+			return rm;
+		}
+
+		/**
+		 * Collect the edges that precede every vertex on a shortest path from
+		 * the root, indexed like the adjacency arrays of the graph
+		 * 
+		 * @return for every vertex reached, the positions in the adjacency
+		 *         arrays of the edges to its predecessors
+		 */
+		private int[][] predecessors() {
+			int[][] rm = new int[graph.getVertexCount()][];
+			int[] buffer = new int[graph.getVertexCount()];
+			for (int k = 1; k < count; k++) {
+				int v = queue[k];
+				int c = 0;
+				for (int i = graph.getAdjacencyStart(v); i < graph
+						.getAdjacencyEnd(v); i++) {
+					int w = graph.getAdjacentVertex(i);
+					if (w <= root && dist[w] != -1 && dist[w] + 1 == dist[v]) {
+						buffer[c++] = i;
+					}
+				}
+				rm[v] = Arrays.copyOf(buffer, c);
+			}
+			return rm;
+		}
+	}
+
+	/**
+	 * Enumerates the shortest paths from the root to a vertex like an
+	 * odometer: the choice of predecessor of the vertex closest to the root
+	 * changes fastest
+	 */
+	private final class PathCursor {
+		private final int[][] predecessors;
+		private final int[] choice;
+		private final int[] vertices;
+		private final int[] edges;
+
+		/**
+		 * @param somePredecessors
+		 *            the predecessors computed by ShortestPaths
+		 * @param aTarget
+		 *            the end of the paths
+		 * @param aLength
+		 *            the distance from the root to aTarget
+		 */
+		private PathCursor(int[][] somePredecessors, int aTarget, int aLength) {
+			predecessors = somePredecessors;
+			choice = new int[aLength];
+			// vertices[k] is the vertex at distance aLength - k from the root
+			vertices = new int[aLength + 1];
+			edges = new int[aLength];
+			vertices[0] = aTarget;
+			this.fill(0);
+		}
+
+		/**
+		 * Follow the first predecessor of every vertex from position k on
+		 */
+		private void fill(int k) {
+			for (int i = k; i < edges.length; i++) {
+				int adj = predecessors[vertices[i]][choice[i]];
+				edges[i] = graph.getAdjacentEdge(adj);
+				vertices[i + 1] = graph.getAdjacentVertex(adj);
+			}
+		}
+
+		/**
+		 * Move to the next path
+		 * 
+		 * @return false if all the paths have been visited, in which case
+		 *         the cursor is back to the first path
+		 */
+		private boolean advance() {
+			for (int k = edges.length - 1; k >= 0; k--) {
+				if (choice[k] + 1 < predecessors[vertices[k]].length) {
+					choice[k]++;
+					this.fill(k);
+					return true;
+				}
+				choice[k] = 0;
+			}
+			this.fill(0);
+			return false;
+		}
+	}
+
+	/**
+	 * Builds the cycles of a range of families one at a time. A family is
+	 * expanded by searching the shortest paths from its root again and
+	 * walking over every pair of paths to its two ends.
+	 */
+	private final class FamilyIterator extends CycleIterator<V, E> {
+		private int current;
+		private int end;
+		private PathCursor first;
+		private PathCursor last;
+		private boolean hasCurrentPair;
+
+		private FamilyIterator(int aStart, int anEnd) {
+			current = aStart;
+			end = anEnd;
+		}
+
+		public boolean hasNext() {
+			return hasCurrentPair || current < end;
+		}
+
+		public Cycle<V, E> next() {
+			if (!this.hasNext()) {
+				throw new NoSuchElementException();
+			}
+			if (!hasCurrentPair) {
+				Family f = families.get(current);
+				ShortestPaths sp = new ShortestPaths();
+				sp.search(f.root);
+				int[][] predecessors = sp.predecessors();
+				first = new PathCursor(predecessors, f.getFirstEnd(),
+						sp.dist[f.getFirstEnd()]);
+				last = new PathCursor(predecessors, f.getLastEnd(),
+						sp.dist[f.getLastEnd()]);
+				hasCurrentPair = true;
+			}
+			int[] closure = families.get(current).closure;
+			int[] c = new int[first.edges.length + closure.length / 2
+					+ last.edges.length];
+			int pos = 0;
+			for (int k = first.edges.length - 1; k >= 0; k--) {
+				c[pos++] = first.edges[k];
+			}
+			for (int k = 1; k < closure.length; k += 2) {
+				c[pos++] = closure[k];
+			}
+			for (int k = 0; k < last.edges.length; k++) {
+				c[pos++] = last.edges[k];
+			}
+			if (!last.advance() && !first.advance()) {
+				hasCurrentPair = false;
+				current++;
+			}
+			try {
+				return makeCycle(c);
+			} catch (CycleException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		public CycleIterator<V, E> trySplit() {
+			int from = hasCurrentPair ? current + 1 : current;
+			if (end - from < 2) {
+				return null;
+			}
+			int middle = from + (end - from) / 2;
+			FamilyIterator rm = new FamilyIterator(middle, end);
+			end = middle;
+			return rm;
+		}
+
+		public long estimateSize() {
+			long rm = 0;
+			for (int k = hasCurrentPair ? current + 1 : current; k < end; k++) {
+				rm = addSaturated(rm, families.get(k).size);
+			}
+			return rm;
+		}
+	}
+}
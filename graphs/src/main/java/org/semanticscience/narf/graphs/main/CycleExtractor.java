@@ -40,6 +40,7 @@ import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.io.FileUtils;
 import org.semanticscience.narf.graphs.lib.CycleSerializer;
+import org.semanticscience.narf.graphs.lib.MotifIndexWriter;
 import org.semanticscience.narf.graphs.lib.cycles.Cycle;
 import org.semanticscience.narf.graphs.lib.cycles.exceptions.CycleException;
 import org.semanticscience.narf.graphs.nucleicacid.ExtractedNucleicAcid;
@@ -68,6 +69,7 @@ public class CycleExtractor {
 		File inputPDBDir = null;
 		String outputdirStr = null;
 		File outputDir = null;
+		MotifIndexWriter motifIndex = null;
 
 		String format = null;
 		try {
@@ -108,6 +110,23 @@ public class CycleExtractor {
 				printUsage();
 				System.exit(1);
 			}
+			if (c.hasOption("mcbEngine")) {
+				String engine = c.getOptionValue("mcbEngine");
+				if (engine.equalsIgnoreCase("cdk")) {
+					NucleicAcid.setDefaultMCBEngine(NucleicAcid.MCBEngine.CDK);
+				} else if (engine.equalsIgnoreCase("native")) {
+					NucleicAcid.setDefaultMCBEngine(NucleicAcid.MCBEngine.NATIVE);
+				} else {
+					System.out.println("Invalid minimum cycle basis engine: "
+							+ engine);
+					printUsage();
+					System.exit(1);
+				}
+			}
+			if (c.hasOption("motifIndex")) {
+				motifIndex = new MotifIndexWriter(new File(
+						c.getOptionValue("motifIndex")));
+			}
 			if (inputPDBDir != null) {
 				//TODO: be able to change default parser for pdb structures
 				CycleSerializer cs = new CycleSerializer("x3dna-dssr", "beta-r21-on-20130903");
@@ -134,6 +153,9 @@ public class CycleExtractor {
 								// the pdbid
 								String aPdbId = CycleExtractor
 										.getPdbIdFromFilePath(aFilePath);
+								if (motifIndex != null) {
+									motifIndex.add(aPdbId, aNuc, ccb, true);
+								}
 								if (format.equals("RDF")) {
 									Model m = cs.createNarfModelFromPDB(
 											aPdbId, aNuc, ccb, false);
@@ -198,6 +220,11 @@ public class CycleExtractor {
 								// get the MCB of each prediction
 								List<Cycle<Nucleotide, InteractionEdge>> ccb = aNuc
 										.getMinimumCycleBasis();
+								// predictions are indexed by their sequence,
+								// which identifies them across runs
+								if (motifIndex != null) {
+									motifIndex.add(aSeq, aNuc, ccb, false);
+								}
 								//get the aptamer type
 								//String apt_type = sl.get(5).replace("\"", "");
 								//get the selex experiment mid
@@ -243,6 +270,15 @@ public class CycleExtractor {
 			e.printStackTrace();
 		} catch (IOException e) {
 			e.printStackTrace();
+		} finally {
+			// the index keeps the structures processed before any failure
+			if (motifIndex != null) {
+				try {
+					motifIndex.close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
 		}
 	}
 
@@ -347,10 +383,24 @@ public class CycleExtractor {
 				.hasArg(true)
 				.withDescription("The output format for the cycles (RDF|tsv)")
 				.isRequired().create("outputFormat");
+		Option mcbEngine = OptionBuilder
+				.withArgName("engine")
+				.hasArg(true)
+				.withDescription(
+						"The engine used to compute the minimum cycle basis (native|cdk). Defaults to native")
+				.create("mcbEngine");
+		Option motifIndex = OptionBuilder
+				.withArgName("/path/to/index")
+				.hasArg(true)
+				.withDescription(
+						"The motif index file where the cycle fingerprints of every structure are added")
+				.create("motifIndex");
 		o.addOption(inputSeqFile);
 		o.addOption(outputFormat);
 		o.addOption(inputPDBDir);
 		o.addOption(outputDir);
+		o.addOption(mcbEngine);
+		o.addOption(motifIndex);
 		return o;
 	}
 
@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.nucleicacid;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticscience.narf.structures.interactions.NucleotideInteraction;
+import org.semanticscience.narf.structures.parts.Nucleotide;
+
+/**
+ * Builds the interaction edges of a nucleic acid in bulk. Interactions are
+ * grouped by nucleotide pair in one pass and each {@link InteractionEdge} is
+ * then created exactly once, with all of its interactions and its final
+ * weight. Consecutive interactions between the same pair of nucleotides,
+ * as produced by annotators that sort their output, are grouped without
+ * any hashing.
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+final class InteractionEdgeBuilder {
+	/**
+	 * The nucleic acid whose edges are built
+	 */
+	private final NucleicAcid nucleicAcid;
+	/**
+	 * The groups of interactions in the order their pair was first seen
+	 */
+	private final List<PairGroup> groups = new ArrayList<PairGroup>();
+	/**
+	 * The group of every pair of nucleotides
+	 */
+	private final Map<PairGroup, PairGroup> pairs = new HashMap<PairGroup, PairGroup>();
+	/**
+	 * The group that received the last interaction
+	 */
+	private PairGroup last = null;
+
+	/**
+	 * @param aNucleicAcid
+	 *            a nucleic acid whose vertices have already been added
+	 */
+	InteractionEdgeBuilder(NucleicAcid aNucleicAcid) {
+		this.nucleicAcid = aNucleicAcid;
+	}
+
+	/**
+	 * Add an interaction to the group of its pair of nucleotides
+	 * 
+	 * @param anInter
+	 *            an interaction
+	 */
+	void add(NucleotideInteraction anInter) {
+		Nucleotide n1 = anInter.getFirstNucleotide();
+		Nucleotide n2 = anInter.getSecondNucleotide();
+		// fast path for consecutive interactions between the same pair
+		if (last != null && last.isPair(n1, n2)) {
+			last.interactions.add(anInter);
+			return;
+		}
+		String n1Chain = nucleicAcid.getChainIdentifier(n1);
+		String n2Chain = nucleicAcid.getChainIdentifier(n2);
+		/*
+		 * check who is "first" or "second" Make sure the first and second
+		 * nucleotide of the interaction are the first and second nucleotide.
+		 * The order is dependent on whether the chain identifier of the first
+		 * nucleotide precedes the chain identifier of the second nucleotide
+		 * alphanumerically or the residue position of the first nucleotide
+		 * precedes the residue position of the second nucleotide and the
+		 * chain.
+		 */
+		if ((n1Chain.compareTo(n2Chain) == 0)
+				&& (n1.getResiduePosition() > n2.getResiduePosition())) {
+			n1 = anInter.getSecondNucleotide();
+			n2 = anInter.getFirstNucleotide();
+		} else if ((n1Chain.compareTo(n2Chain) > 0)) {
+			n1 = anInter.getSecondNucleotide();
+			n2 = anInter.getFirstNucleotide();
+			String tmp = n1Chain;
+			n1Chain = n2Chain;
+			n2Chain = tmp;
+		}
+		PairGroup g = new PairGroup(n1, n2, n1Chain, n2Chain);
+		PairGroup existing = pairs.get(g);
+		if (existing == null) {
+			pairs.put(g, g);
+			groups.add(g);
+		} else {
+			g = existing;
+		}
+		g.interactions.add(anInter);
+		last = g;
+	}
+
+	/**
+	 * Add a collection of interactions
+	 * 
+	 * @param someInteractions
+	 *            the interactions, ideally sorted by pair of nucleotides
+	 */
+	void addAll(Collection<NucleotideInteraction> someInteractions) {
+		for (NucleotideInteraction anInter : someInteractions) {
+			this.add(anInter);
+		}
+	}
+
+	/**
+	 * Create one interaction edge per pair of nucleotides and add it to the
+	 * nucleic acid with its weight. A higher weight edge is given for
+	 * interactions that join chains.
+	 */
+	void build() {
+		for (PairGroup g : groups) {
+			InteractionEdge edge = new InteractionEdge(g.interactions);
+			double edgeWeight = 0;
+			if (!g.firstChain.equals(g.secondChain)) {
+				edgeWeight = nucleicAcid.getSequence(g.firstChain).getLength()
+						+ nucleicAcid.getSequence(g.secondChain).getLength();
+			} else {
+				edgeWeight = Math.abs(edge.getSecondNucleotide()
+						.getResiduePosition()
+						- edge.getFirstNucleotide().getResiduePosition());
+			}
+			nucleicAcid.addEdge(g.first, g.second, edge);
+			nucleicAcid.setEdgeWeight(edge, edgeWeight);
+		}
+		groups.clear();
+		pairs.clear();
+		last = null;
+	}
+
+	/**
+	 * The interactions between an ordered pair of nucleotides
+	 */
+	private static final class PairGroup {
+		private final Nucleotide first;
+		private final Nucleotide second;
+		private final String firstChain;
+		private final String secondChain;
+		private final Set<NucleotideInteraction> interactions = new LinkedHashSet<NucleotideInteraction>();
+		private final int hash;
+
+		private PairGroup(Nucleotide aFirst, Nucleotide aSecond,
+				String aFirstChain, String aSecondChain) {
+			first = aFirst;
+			second = aSecond;
+			firstChain = aFirstChain;
+			secondChain = aSecondChain;
+			hash = 31 * aFirst.hashCode() + aSecond.hashCode();
+		}
+
+		/**
+		 * Determine if this group is for the pair made of two nucleotides, in
+		 * any order. Nucleotides are compared by identity first.
+		 */
+		private boolean isPair(Nucleotide n1, Nucleotide n2) {
+			if ((n1 == first && n2 == second) || (n1 == second && n2 == first)) {
+				return true;
+			}
+			return (n1.equals(first) && n2.equals(second))
+					|| (n1.equals(second) && n2.equals(first));
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof PairGroup)) {
+				return false;
+			}
+			PairGroup other = (PairGroup) obj;
+			return first.equals(other.first) && second.equals(other.second);
+		}
+	}
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.nucleicacid;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.semanticscience.narf.structures.interactions.BasePair;
+import org.semanticscience.narf.structures.interactions.BaseStack;
+import org.semanticscience.narf.structures.interactions.NucleotideInteraction;
+import org.semanticscience.narf.structures.interactions.PhosphodiesterBond;
+
+/**
+ * An immutable partition of a set of interactions by interaction type. The
+ * typed sets are built once and returned without copying.
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+final class InteractionPartition {
+	/**
+	 * An empty partition
+	 */
+	static final InteractionPartition EMPTY = new InteractionPartition(
+			Collections.<NucleotideInteraction> emptySet());
+
+	private final Set<NucleotideInteraction> interactions;
+	private final Set<BasePair> basePairs;
+	private final Set<BaseStack> baseStacks;
+	private final Set<PhosphodiesterBond> phosphodiesterBonds;
+
+	/**
+	 * Partition a collection of interactions in a single pass
+	 * 
+	 * @param someInteractions
+	 *            the interactions
+	 */
+	InteractionPartition(Collection<NucleotideInteraction> someInteractions) {
+		Set<NucleotideInteraction> all = new LinkedHashSet<NucleotideInteraction>();
+		Set<BasePair> bps = new LinkedHashSet<BasePair>();
+		Set<BaseStack> bss = new LinkedHashSet<BaseStack>();
+		Set<PhosphodiesterBond> pdbs = new LinkedHashSet<PhosphodiesterBond>();
+		for (NucleotideInteraction anInt : someInteractions) {
+			all.add(anInt);
+			if (anInt instanceof BasePair) {
+				bps.add((BasePair) anInt);
+			} else if (anInt instanceof BaseStack) {
+				bss.add((BaseStack) anInt);
+			} else if (anInt instanceof PhosphodiesterBond) {
+				pdbs.add((PhosphodiesterBond) anInt);
+			}
+		}
+		this.interactions = Collections.unmodifiableSet(all);
+		this.basePairs = Collections.unmodifiableSet(bps);
+		this.baseStacks = Collections.unmodifiableSet(bss);
+		this.phosphodiesterBonds = Collections.unmodifiableSet(pdbs);
+	}
+
+	Set<NucleotideInteraction> getInteractions() {
+		return this.interactions;
+	}
+
+	Set<BasePair> getBasePairs() {
+		return this.basePairs;
+	}
+
+	Set<BaseStack> getBaseStacks() {
+		return this.baseStacks;
+	}
+
+	Set<PhosphodiesterBond> getPhosphodiesterBonds() {
+		return this.phosphodiesterBonds;
+	}
+
+	/**
+	 * Get the interactions of a given type
+	 * 
+	 * @param aType
+	 *            the class of the interactions
+	 * @return an unmodifiable set of the interactions that are instances of
+	 *         aType
+	 */
+	@SuppressWarnings("unchecked")
+	<T extends NucleotideInteraction> Set<T> getInteractions(Class<T> aType) {
+		if (aType == BasePair.class) {
+			return (Set<T>) this.basePairs;
+		} else if (aType == BaseStack.class) {
+			return (Set<T>) this.baseStacks;
+		} else if (aType == PhosphodiesterBond.class) {
+			return (Set<T>) this.phosphodiesterBonds;
+		} else if (aType == NucleotideInteraction.class) {
+			return (Set<T>) this.interactions;
+		}
+		Set<T> returnMe = new LinkedHashSet<T>();
+		for (NucleotideInteraction anInt : this.interactions) {
+			if (aType.isInstance(anInt)) {
+				returnMe.add(aType.cast(anInt));
+			}
+		}
+		return Collections.unmodifiableSet(returnMe);
+	}
+}
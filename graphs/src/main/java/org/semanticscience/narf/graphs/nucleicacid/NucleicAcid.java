@@ -21,9 +21,13 @@
 package org.semanticscience.narf.graphs.nucleicacid;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -34,8 +38,15 @@ import org.jgrapht.alg.NeighborIndex;
 import org.openscience.cdk.annotations.TestClass;
 import org.openscience.cdk.ringsearch.cyclebasis.CycleBasis;
 import org.openscience.cdk.ringsearch.cyclebasis.SimpleCycle;
+import org.semanticscience.narf.graphs.lib.CompactGraph;
+import org.semanticscience.narf.graphs.lib.cycles.BiconnectedCycleBasis;
+import org.semanticscience.narf.graphs.lib.cycles.CompactCycle;
 import org.semanticscience.narf.graphs.lib.cycles.Cycle;
+import org.semanticscience.narf.graphs.lib.cycles.CycleAdjacencyGraph;
 import org.semanticscience.narf.graphs.lib.cycles.CycleHelper;
+import org.semanticscience.narf.graphs.lib.cycles.CycleIncidenceIndex;
+import org.semanticscience.narf.graphs.lib.cycles.CycleProfileCache;
+import org.semanticscience.narf.graphs.lib.cycles.MinimumCycleBasis;
 import org.semanticscience.narf.graphs.lib.cycles.exceptions.CycleException;
 import org.semanticscience.narf.structures.interactions.BasePair;
 import org.semanticscience.narf.structures.interactions.BaseStack;
@@ -70,9 +81,9 @@ public class NucleicAcid extends AbstractNucleicAcid {
 	public int modelNumber;
 
 	/**
-	 * A set of all the interactions found in the graph.
+	 * All the interactions found in the graph, partitioned by type.
 	 */
-	private Set<NucleotideInteraction> interactions;
+	private InteractionPartition interactionPartition;
 
 	/**
 	 * A mapping of the chain identifier to a sequence object representing the
@@ -81,29 +92,64 @@ public class NucleicAcid extends AbstractNucleicAcid {
 	private Map<String, Sequence> chain2SequenceMap;
 
 	/**
-	 * A mapping of the chain identifier to the set of interactions in and on
-	 * the chain. Each set of interactions for a chain contains intra- and
-	 * inter-chain interactions.
+	 * A mapping of the chain identifier to the interactions in and on the
+	 * chain partitioned by type. Each set of interactions for a chain contains
+	 * intra- and inter-chain interactions.
 	 */
-	private Map<String, Set<NucleotideInteraction>> chain2InteractionMap;
+	private Map<String, InteractionPartition> chain2InteractionMap;
+
+	/**
+	 * A mapping of every nucleotide of the sequences to the identifier of its
+	 * chain. Nucleotides are looked up by identity.
+	 */
+	private Map<Nucleotide, String> nucleotide2ChainMap;
+	/**
+	 * The engines available to compute the minimum cycle basis of a nucleic
+	 * acid. NATIVE runs on this graph directly, CDK uses the CDK ringsearch
+	 * implementation of Horton 1984 on a copy of this graph. NONE never
+	 * computes it (bulk-load mode) and yields an empty basis.
+	 */
+	public enum MCBEngine {
+		NATIVE, CDK, NONE
+	}
+
 	/**
-	 * The minimum cycle basis computed for this nucleic acid Uses the CDK
-	 * ringsearch implementation of Horton 1984
+	 * The engine used to compute the minimum cycle basis of new nucleic acids
 	 */
-	private List<Cycle<Nucleotide, InteractionEdge>> minimumCycleBasis;
+	private static volatile MCBEngine defaultMCBEngine = MCBEngine.NATIVE;
+
+	/**
+	 * The engine used to compute the minimum cycle basis of this nucleic acid.
+	 * It is the default engine at the time this nucleic acid was constructed.
+	 */
+	private final MCBEngine mcbEngine;
+
+	/**
+	 * The minimum cycle basis computed for this nucleic acid. It is computed
+	 * the first time it is needed, see {@link #computeMCBIfNeeded()}.
+	 */
+	private volatile List<Cycle<Nucleotide, InteractionEdge>> minimumCycleBasis = null;
 	/**
 	 * A map where the key is a nucleotide and the value is a list of cycles
 	 * that have the given key as a vertex
 	 */
-	private HashMap<Nucleotide, List<Cycle<Nucleotide, InteractionEdge>>> mcbVertexMap = new HashMap<Nucleotide, List<Cycle<Nucleotide, InteractionEdge>>>();
-
-	//private HashMap<InteractionEdge, List<Cycle<Nucleotide, InteractionEdge>>> mcbEdgeMap = new HashMap<InteractionEdge, List<Cycle<Nucleotide, InteractionEdge>>>();
+	private volatile HashMap<Nucleotide, List<Cycle<Nucleotide, InteractionEdge>>> mcbVertexMap = null;
+	/**
+	 * An index of the cycles of the minimum cycle basis by nucleotide and by
+	 * interaction edge
+	 */
+	private volatile CycleIncidenceIndex<Nucleotide, InteractionEdge> mcbIndex = null;
+	/**
+	 * The level 1 and level 2 profiles of the cycles of this nucleic acid,
+	 * dropped whenever its interactions change
+	 */
+	private transient volatile CycleProfileCache cycleProfiles = null;
 
 	/**
 	 * Construct a nucleic acid using a mapping of chains to their respective
 	 * sequences and a set of interactions that occur in the nucleic acid. The
-	 * minimum cyclic motif graph is also constructed to find all the structural
-	 * motifs in the graph.
+	 * minimum cycle basis is computed the first time it is requested, using
+	 * the default engine at construction time.
 	 * 
 	 * @param aModelNumber
 	 *            the model number of this structural conformation
@@ -118,13 +164,13 @@ public class NucleicAcid extends AbstractNucleicAcid {
 			Set<NucleotideInteraction> someInteractions) {
 		this.modelNumber = aModelNumber;
 		this.chain2SequenceMap = aSequenceMap;
-		this.interactions = someInteractions;
+		this.nucleotide2ChainMap = makeNucleotide2ChainMap(aSequenceMap);
+		this.interactionPartition = new InteractionPartition(someInteractions);
 		this.chain2InteractionMap = makeChain2InteractionMap(aSequenceMap,
 				someInteractions);
 		this.populateNucleicAcid();
-		// now compute the MCB
-		this.minimumCycleBasis = this.computeMCB();
-
+		// the MCB is computed on demand
+		this.mcbEngine = defaultMCBEngine;
 	}
 
 	/**
@@ -143,14 +189,395 @@ public class NucleicAcid extends AbstractNucleicAcid {
 	}
 
 	/**
-	 * Compute the minimum cycle basis of this Nucleic acid. As cycles are
-	 * discovered a map of nucleotide to List<Cycle> is populated and stored.
+	 * Compute the minimum cycle basis of this Nucleic acid, its indexes and its
+	 * map of nucleotide to List<Cycle> unless they have already been computed. The
+	 * computation happens at most once even if several threads ask for the
+	 * cycle basis at the same time.
+	 */
+	private void computeMCBIfNeeded() {
+		if (this.minimumCycleBasis == null) {
+			synchronized (this) {
+				if (this.minimumCycleBasis == null) {
+					List<Cycle<Nucleotide, InteractionEdge>> cycles = this
+							.computeMinimumCycleBasis(this.mcbEngine);
+					this.setMinimumCycleBasis(cycles);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Store a minimum cycle basis and build its indexes and map of nucleotide
+	 * to List<Cycle>
+	 * 
+	 * @param someCycles
+	 *            the cycles of the minimum cycle basis
+	 */
+	private void setMinimumCycleBasis(
+			List<Cycle<Nucleotide, InteractionEdge>> someCycles) {
+		CycleIncidenceIndex<Nucleotide, InteractionEdge> index = new CycleIncidenceIndex<Nucleotide, InteractionEdge>(
+				someCycles);
+		HashMap<Nucleotide, List<Cycle<Nucleotide, InteractionEdge>>> hm = new HashMap<Nucleotide, List<Cycle<Nucleotide, InteractionEdge>>>();
+		for (Nucleotide aNuc : index.getVertices()) {
+			hm.put(aNuc, index.getCyclesByVertex(aNuc));
+		}
+		// the indexes are published before the cycles because the cycles
+		// are the flag checked by the other threads
+		this.mcbIndex = index;
+		this.mcbVertexMap = hm;
+		this.minimumCycleBasis = someCycles;
+	}
+
+	/**
+	 * Add an interaction to this nucleic acid. The interaction is added to the
+	 * edge between its nucleotides, or a new edge is created. If the minimum
+	 * cycle basis has already been computed it is repaired: a new edge adds
+	 * at most one cycle to the basis, and when that shortcut does not apply
+	 * only the biconnected component of the new edge is recomputed.
+	 * 
+	 * @param anInteraction
+	 *            an interaction between two nucleotides of this nucleic acid
+	 * @return <code>true</code> if the interaction was added,
+	 *         <code>false</code> if it was already present
+	 * @throws IllegalArgumentException
+	 *             if a nucleotide of the interaction is not part of this
+	 *             nucleic acid
+	 */
+	public synchronized boolean addInteraction(
+			NucleotideInteraction anInteraction) {
+		Nucleotide n1 = anInteraction.getFirstNucleotide();
+		Nucleotide n2 = anInteraction.getSecondNucleotide();
+		if (!this.containsVertex(n1) || !this.containsVertex(n2)) {
+			throw new IllegalArgumentException(
+					"The nucleotides of the interaction are not part of this nucleic acid: "
+							+ anInteraction);
+		}
+		if (this.getInteractions().contains(anInteraction)) {
+			return false;
+		}
+		Set<NucleotideInteraction> all = new LinkedHashSet<NucleotideInteraction>(
+				this.getInteractions());
+		all.add(anInteraction);
+		this.setInteractions(all);
+		InteractionEdge old = this.getEdge(n1, n2);
+		if (old != null) {
+			Set<NucleotideInteraction> ints = new LinkedHashSet<NucleotideInteraction>(
+					old.getInteractions());
+			ints.add(anInteraction);
+			this.replaceEdge(old, ints);
+			return true;
+		}
+		InteractionEdgeBuilder builder = new InteractionEdgeBuilder(this);
+		builder.add(anInteraction);
+		builder.build();
+		if (this.isMCBMaintained()) {
+			this.repairMCBAfterAddition(this.getEdge(n1, n2));
+		}
+		return true;
+	}
+
+	/**
+	 * Remove an interaction from this nucleic acid. The edge between its
+	 * nucleotides is removed when it has no interactions left. If the minimum
+	 * cycle basis has already been computed it is repaired: when a single
+	 * basis cycle goes through the removed edge that cycle is dropped,
+	 * otherwise only the biconnected component of the edge is recomputed.
+	 * 
+	 * @param anInteraction
+	 *            an interaction of this nucleic acid
+	 * @return <code>true</code> if the interaction was removed,
+	 *         <code>false</code> if it was not present
+	 */
+	public synchronized boolean removeInteraction(
+			NucleotideInteraction anInteraction) {
+		if (!this.getInteractions().contains(anInteraction)) {
+			return false;
+		}
+		Set<NucleotideInteraction> all = new LinkedHashSet<NucleotideInteraction>(
+				this.getInteractions());
+		all.remove(anInteraction);
+		this.setInteractions(all);
+		InteractionEdge old = this.getEdge(anInteraction.getFirstNucleotide(),
+				anInteraction.getSecondNucleotide());
+		if (old == null || !old.getInteractions().contains(anInteraction)) {
+			// the interaction was never part of an edge
+			return true;
+		}
+		Set<NucleotideInteraction> ints = new LinkedHashSet<NucleotideInteraction>(
+				old.getInteractions());
+		ints.remove(anInteraction);
+		if (!ints.isEmpty()) {
+			this.replaceEdge(old, ints);
+			return true;
+		}
+		if (this.isMCBMaintained()) {
+			this.repairMCBBeforeRemoval(old);
+		} else {
+			this.removeEdge(old);
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if a minimum cycle basis has been computed and must be kept
+	 *         up to date
+	 */
+	private boolean isMCBMaintained() {
+		return this.minimumCycleBasis != null
+				&& this.mcbEngine != MCBEngine.NONE;
+	}
+
+	/**
+	 * Replace the interactions and the partitions of this nucleic acid
+	 * 
+	 * @param someInteractions
+	 *            the new set of interactions
+	 */
+	private void setInteractions(Set<NucleotideInteraction> someInteractions) {
+		this.interactionPartition = new InteractionPartition(someInteractions);
+		this.chain2InteractionMap = makeChain2InteractionMap(
+				this.chain2SequenceMap, someInteractions);
+		// the interactions of the cycles may have changed
+		this.cycleProfiles = null;
+	}
+
+	/**
+	 * Replace an edge by a new edge between the same nucleotides, with the
+	 * same weight and a new set of interactions. Cycles of the minimum cycle
+	 * basis that go through the old edge are rebuilt with the new one.
+	 * 
+	 * @param anEdge
+	 *            an edge of this nucleic acid
+	 * @param someInteractions
+	 *            the interactions of the new edge
+	 */
+	private void replaceEdge(InteractionEdge anEdge,
+			Set<NucleotideInteraction> someInteractions) {
+		Nucleotide source = this.getEdgeSource(anEdge);
+		Nucleotide target = this.getEdgeTarget(anEdge);
+		double weight = this.getEdgeWeight(anEdge);
+		InteractionEdge replacement = new InteractionEdge(someInteractions);
+		this.removeEdge(anEdge);
+		this.addEdge(source, target, replacement);
+		this.setEdgeWeight(replacement, weight);
+		if (!this.isMCBMaintained()) {
+			return;
+		}
+		List<Cycle<Nucleotide, InteractionEdge>> cycles = new ArrayList<Cycle<Nucleotide, InteractionEdge>>(
+				this.minimumCycleBasis);
+		BitSet ids = this.mcbIndex.getCycleIdsByEdge(anEdge);
+		for (int i = ids.nextSetBit(0); i >= 0; i = ids.nextSetBit(i + 1)) {
+			Cycle<Nucleotide, InteractionEdge> c = cycles.get(i);
+			List<InteractionEdge> el = new ArrayList<InteractionEdge>(
+					c.getEdgeList());
+			for (int j = 0; j < el.size(); j++) {
+				if (el.get(j) == anEdge) {
+					el.set(j, replacement);
+				}
+			}
+			try {
+				cycles.set(i, new Cycle<Nucleotide, InteractionEdge>(this,
+						c.getFirstVertex(), c.getLastVertex(), el, c
+								.getWeight()));
+			} catch (CycleException e) {
+				e.printStackTrace();
+			}
+		}
+		this.setMinimumCycleBasis(cycles);
+	}
+
+	/**
+	 * Repair the minimum cycle basis after a new edge was added to the graph.
+	 * If the new edge closes a cycle that is at least as long as every cycle
+	 * of the current basis, the shortest cycle through the new edge completes
+	 * the basis. Otherwise the biconnected component of the new edge is
+	 * recomputed.
+	 * 
+	 * @param anEdge
+	 *            the new edge
+	 */
+	private void repairMCBAfterAddition(InteractionEdge anEdge) {
+		CompactGraph<Nucleotide, InteractionEdge> g = CompactGraph
+				.fromGraph(this);
+		int e = g.getEdgeId(anEdge);
+		int u = g.getEdgeSource(e);
+		int v = g.getEdgeTarget(e);
+		int d = g.getDistance(u, v, e);
+		if (d < 0) {
+			// the edge is a bridge, the basis does not change
+			return;
+		}
+		int maxLength = 0;
+		for (Cycle<Nucleotide, InteractionEdge> c : this.minimumCycleBasis) {
+			maxLength = Math.max(maxLength, c.size());
+		}
+		List<Cycle<Nucleotide, InteractionEdge>> cycles = null;
+		if (maxLength <= d + 1) {
+			// the shortest cycle through the new edge
+			MinimumCycleBasis<Nucleotide, InteractionEdge> local = new MinimumCycleBasis<Nucleotide, InteractionEdge>(
+					this, findShortestCycleEdges(g, e));
+			cycles = new ArrayList<Cycle<Nucleotide, InteractionEdge>>(
+					this.minimumCycleBasis);
+			cycles.addAll(local.getCycleBasis());
+		} else {
+			List<InteractionEdge> component = BiconnectedCycleBasis
+					.findBiconnectedComponent(this, anEdge);
+			cycles = this.recomputeComponent(component, component);
+		}
+		this.setMinimumCycleBasis(cycles);
+	}
+
+	/**
+	 * Repair the minimum cycle basis and remove an edge from the graph. If a
+	 * single cycle of the basis goes through the edge, the remaining cycles
+	 * are a minimum cycle basis of the new graph. Otherwise the biconnected
+	 * component of the edge is recomputed without it.
+	 * 
+	 * @param anEdge
+	 *            the edge to remove
+	 */
+	private void repairMCBBeforeRemoval(InteractionEdge anEdge) {
+		BitSet ids = this.mcbIndex.getCycleIdsByEdge(anEdge);
+		List<Cycle<Nucleotide, InteractionEdge>> cycles = null;
+		if (ids.cardinality() <= 1) {
+			// the edge is a bridge or belongs to exactly one basis cycle
+			cycles = new ArrayList<Cycle<Nucleotide, InteractionEdge>>();
+			for (int i = 0; i < this.minimumCycleBasis.size(); i++) {
+				if (!ids.get(i)) {
+					cycles.add(this.minimumCycleBasis.get(i));
+				}
+			}
+			this.removeEdge(anEdge);
+		} else {
+			List<InteractionEdge> component = BiconnectedCycleBasis
+					.findBiconnectedComponent(this, anEdge);
+			this.removeEdge(anEdge);
+			List<InteractionEdge> remaining = new ArrayList<InteractionEdge>(
+					component);
+			remaining.remove(anEdge);
+			cycles = this.recomputeComponent(component, remaining);
+		}
+		this.setMinimumCycleBasis(cycles);
+	}
+
+	/**
+	 * Recompute the part of the minimum cycle basis that lies in a biconnected
+	 * component. The cycles of the current basis whose first edge is in
+	 * someOldEdges are replaced by the minimum cycle basis of the subgraph
+	 * made of someNewEdges.
+	 * 
+	 * @param someOldEdges
+	 *            the edges of the component before the graph was changed
+	 * @param someNewEdges
+	 *            the edges of the component in the current graph
+	 * @return the new minimum cycle basis sorted by size
+	 */
+	private List<Cycle<Nucleotide, InteractionEdge>> recomputeComponent(
+			List<InteractionEdge> someOldEdges,
+			List<InteractionEdge> someNewEdges) {
+		Set<InteractionEdge> edges = Collections
+				.newSetFromMap(new IdentityHashMap<InteractionEdge, Boolean>());
+		edges.addAll(someOldEdges);
+		List<Cycle<Nucleotide, InteractionEdge>> rm = new ArrayList<Cycle<Nucleotide, InteractionEdge>>();
+		for (Cycle<Nucleotide, InteractionEdge> c : this.minimumCycleBasis) {
+			if (!edges.contains(c.getFirstEdge())) {
+				rm.add(c);
+			}
+		}
+		rm.addAll(new MinimumCycleBasis<Nucleotide, InteractionEdge>(this,
+				someNewEdges).getCycleBasis());
+		Collections.sort(rm, new Comparator<Cycle<Nucleotide, InteractionEdge>>() {
+			public int compare(Cycle<Nucleotide, InteractionEdge> c1,
+					Cycle<Nucleotide, InteractionEdge> c2) {
+				return c1.size() - c2.size();
+			}
+		});
+		return rm;
+	}
+
+	/**
+	 * Find the edges of a shortest cycle through an edge
+	 * 
+	 * @param g
+	 *            a compact snapshot of this nucleic acid
+	 * @param anEdgeId
+	 *            the id of the edge
+	 * @return the edges of a shortest cycle through the edge
+	 */
+	private static List<InteractionEdge> findShortestCycleEdges(
+			CompactGraph<Nucleotide, InteractionEdge> g, int anEdgeId) {
+		int u = g.getEdgeSource(anEdgeId);
+		int v = g.getEdgeTarget(anEdgeId);
+		int n = g.getVertexCount();
+		int[] parentEdge = new int[n];
+		Arrays.fill(parentEdge, -2);
+		int[] queue = new int[n];
+		int head = 0;
+		int tail = 0;
+		parentEdge[u] = -1;
+		queue[tail++] = u;
+		while (head < tail && parentEdge[v] == -2) {
+			int x = queue[head++];
+			for (int i = g.getAdjacencyStart(x); i < g.getAdjacencyEnd(x); i++) {
+				int w = g.getAdjacentVertex(i);
+				int f = g.getAdjacentEdge(i);
+				if (parentEdge[w] == -2 && f != anEdgeId) {
+					parentEdge[w] = f;
+					queue[tail++] = w;
+				}
+			}
+		}
+		List<InteractionEdge> rm = new ArrayList<InteractionEdge>();
+		rm.add(g.getEdge(anEdgeId));
+		for (int x = v; x != u; x = g.getOpposite(parentEdge[x], x)) {
+			rm.add(g.getEdge(parentEdge[x]));
+		}
+		return rm;
+	}
+
+	/**
+	 * Compute the minimum cycle basis of this nucleic acid with the given
+	 * engine. The cycles returned are not stored in this nucleic acid, which
+	 * makes this method suitable to compare the output of the engines on the
+	 * same input. The NONE engine returns an empty list.
+	 * 
+	 * @param anEngine
+	 *            the engine used to compute the minimum cycle basis
+	 * @return a list of minimum cycles where composed of nucleotides and their
+	 *         interaction edges
+	 */
+	public List<Cycle<Nucleotide, InteractionEdge>> computeMinimumCycleBasis(
+			MCBEngine anEngine) {
+		if (anEngine == MCBEngine.CDK) {
+			return this.computeCdkMCB();
+		} else if (anEngine == MCBEngine.NONE) {
+			return new ArrayList<Cycle<Nucleotide, InteractionEdge>>();
+		}
+		return this.computeNativeMCB();
+	}
+
+	/**
+	 * Compute the minimum cycle basis directly on this graph. Each biconnected
+	 * component is solved on its own, see {@link BiconnectedCycleBasis}
+	 * 
+	 * @return a list of minimum cycles where composed of nucleotides and their
+	 *         interaction edges
+	 */
+	private List<Cycle<Nucleotide, InteractionEdge>> computeNativeMCB() {
+		BiconnectedCycleBasis<Nucleotide, InteractionEdge> mcb = new BiconnectedCycleBasis<Nucleotide, InteractionEdge>(
+				this);
+		return mcb.getCycleBasis();
+	}
+
+	/**
+	 * Compute the minimum cycle basis using the CDK ringsearch implementation
+	 * on a copy of this graph
 	 * 
 	 * @return a list of minimum cycles where composed of nucleotides and their
 	 *         interaction edges
 	 */
 	@SuppressWarnings("unchecked")
-	private List<Cycle<Nucleotide, InteractionEdge>> computeMCB() {
+	private List<Cycle<Nucleotide, InteractionEdge>> computeCdkMCB() {
 		List<Cycle<Nucleotide, InteractionEdge>> rm = new ArrayList<Cycle<Nucleotide, InteractionEdge>>();
 		try {
 			// create a org._3pq.jgrapht.graph.SimpleGraph representation of
@@ -181,34 +608,7 @@ public class NucleicAcid extends AbstractNucleicAcid {
 				// now create a cycle
 				Cycle<Nucleotide, InteractionEdge> c = new Cycle<Nucleotide, InteractionEdge>(
 						this, fv, lv, el, el.size());
-				// add each vertex of c to the mcbVertexMap
-				List<Nucleotide> vertices = c.getVertexList();
-				// get the map for this nucleic acid
-				HashMap<Nucleotide, List<Cycle<Nucleotide, InteractionEdge>>> hm = this
-						.getMcbVertexMap();
-				for (Nucleotide aNuc : vertices) {
-					if (hm.containsKey(aNuc)) {
-						// get the list of cycles at that nucleotide
-						List<Cycle<Nucleotide, InteractionEdge>> ac = hm
-								.get(aNuc);
-						// check if this current cycle (c) is in the ac list
-						if (!ac.contains(c)) {
-							// only add c if it has not been stored in the map's
-							// value
-							ac.add(c);
-							this.getMcbVertexMap().put(aNuc, ac);
-						}
-					} else {
-						// create a blank list
-						List<Cycle<Nucleotide, InteractionEdge>> p = new ArrayList<Cycle<Nucleotide, InteractionEdge>>();
-						// add c to the list
-						p.add(c);
-						// add the list to the mcbvertex map
-						this.getMcbVertexMap().put(aNuc, p);
-					}
-				}
 				rm.add(c);
-
 			}
 		} catch (CycleException e) {
 			e.printStackTrace();
@@ -216,6 +616,31 @@ public class NucleicAcid extends AbstractNucleicAcid {
 		return rm;
 	}
 
+	/**
+	 * Get the engine used by newly constructed nucleic acids to compute their
+	 * minimum cycle basis
+	 * 
+	 * @return the default minimum cycle basis engine
+	 */
+	public static MCBEngine getDefaultMCBEngine() {
+		return defaultMCBEngine;
+	}
+
+	/**
+	 * Set the engine used by newly constructed nucleic acids to compute their
+	 * minimum cycle basis. Use {@link MCBEngine#NONE} when loading structures
+	 * in bulk without needing their cycles.
+	 * 
+	 * @param anEngine
+	 *            the minimum cycle basis engine
+	 */
+	public static void setDefaultMCBEngine(MCBEngine anEngine) {
+		if (anEngine == null) {
+			throw new IllegalArgumentException("Invalid engine!");
+		}
+		defaultMCBEngine = anEngine;
+	}
+
 	/**
 	 * Find a unique list of cycles (no repetitions) that share at least one
 	 * vertex with aCycle
@@ -229,33 +654,77 @@ public class NucleicAcid extends AbstractNucleicAcid {
 	public List<Cycle<Nucleotide, InteractionEdge>> findMCBNeighbours(
 			Cycle<Nucleotide, InteractionEdge> aCycle) {
 		//first verify that mcbVertexMap is not empty
-		if(this.getMcbVertexMap().isEmpty()){
+		if (this.getMcbVertexMap().isEmpty()) {
 			return null;
 		}
-		//declare the variable to be returned
-		List<Cycle<Nucleotide, InteractionEdge>> rm = new ArrayList<Cycle<Nucleotide,InteractionEdge>>();
-		//get this's mcbVertexMap
-		HashMap<Nucleotide, List<Cycle<Nucleotide,InteractionEdge>>> vert_map = this.getMcbVertexMap();
-		//get the list of vertices
-		List<Nucleotide> nucs = aCycle.getVertexList();
-		for (Nucleotide anuc : nucs) {
-			//see if anuc is a key in this's getMCBVertexMap()
-			if(vert_map.containsKey(anuc)){
-				//get the list of cycles
-				List<Cycle<Nucleotide,InteractionEdge>> some_cycles = vert_map.get(anuc);
-				//now get the cycles that are not aCycle
-				for (Cycle<Nucleotide, InteractionEdge> c : some_cycles) {
-					if(!c.equals(aCycle)){
-						if(!rm.contains(c)){
-							rm.add(c);
-						}
-					}
-				}				
-			}
+		CycleIncidenceIndex<Nucleotide, InteractionEdge> index = this.mcbIndex;
+		int id = index.getCycleId(aCycle);
+		if (id >= 0) {
+			return index.findVertexNeighbours(id);
 		}
-		return rm;
+		// aCycle is not part of the basis
+		BitSet ids = new BitSet();
+		for (Nucleotide anuc : aCycle.getVertexList()) {
+			ids.or(index.getCycleIdsByVertex(anuc));
+		}
+		return index.toCycles(ids);
 	}
 
+	/**
+	 * Find a unique list of cycles (no repetitions) that share at least one
+	 * interaction edge with aCycle
+	 * 
+	 * @param aCycle
+	 *            a Cycle for which you wish to find all other cycles in the
+	 *            graph that share at least one edge
+	 * @return a unique list of cycles that share at least one edge with
+	 *         aCycle. Null is returned if the minimum cycle basis is empty
+	 */
+	public List<Cycle<Nucleotide, InteractionEdge>> findMCBEdgeNeighbours(
+			Cycle<Nucleotide, InteractionEdge> aCycle) {
+		if (this.getMcbVertexMap().isEmpty()) {
+			return null;
+		}
+		CycleIncidenceIndex<Nucleotide, InteractionEdge> index = this.mcbIndex;
+		int id = index.getCycleId(aCycle);
+		if (id >= 0) {
+			return index.findEdgeNeighbours(id);
+		}
+		// aCycle is not part of the basis
+		BitSet ids = new BitSet();
+		for (InteractionEdge anEdge : aCycle.getEdgeList()) {
+			ids.or(index.getCycleIdsByEdge(anEdge));
+		}
+		return index.toCycles(ids);
+	}
+
+	/**
+	 * Get the index of the cycles of the minimum cycle basis by nucleotide and
+	 * by interaction edge. The minimum cycle basis is computed if it has not
+	 * been already.
+	 * 
+	 * @return the index of the minimum cycle basis
+	 */
+	public CycleIncidenceIndex<Nucleotide, InteractionEdge> getMcbIndex() {
+		this.computeMCBIfNeeded();
+		return this.mcbIndex;
+	}
+
+	/**
+	 * Build the adjacency graph of the cycles of the minimum cycle basis,
+	 * used to find the neighbours of a cycle beyond the first degree. The
+	 * minimum cycle basis is computed if it has not been already.
+	 * 
+	 * @param linkBySharedEdges
+	 *            true to link the cycles that share an interaction edge,
+	 *            false to link the cycles that share a nucleotide
+	 * @return the cycle adjacency graph of the minimum cycle basis
+	 */
+	public CycleAdjacencyGraph<Nucleotide, InteractionEdge> getMcbAdjacencyGraph(
+			boolean linkBySharedEdges) {
+		return new CycleAdjacencyGraph<Nucleotide, InteractionEdge>(
+				this.getMcbIndex(), linkBySharedEdges);
+	}
 
 	/**
 	 * Populate the nucleic acid with the nucleotides and interactions present
@@ -272,69 +741,11 @@ public class NucleicAcid extends AbstractNucleicAcid {
 			}
 		}
 
-		// add the interactions to the graph
-		for (NucleotideInteraction anInter : this.getInteractions()) {
-			// get the participating nucleotides
-			Nucleotide n1 = anInter.getFirstNucleotide();
-			Nucleotide n2 = anInter.getSecondNucleotide();
-
-			String n1Chain = this.getChainIdentifier(anInter
-					.getFirstNucleotide());
-			String n2Chain = this.getChainIdentifier(anInter
-					.getSecondNucleotide());
-			/*
-			 * check who is "first" or "second" Make sure the first and second
-			 * nucleotide of the interaction are the first and second
-			 * nucleotide. The order is dependent on whether the chain
-			 * identifier of the first nucleotide precedes the chain identifier
-			 * of the second nucleotide alphanumerically or the residue position
-			 * of the first nucleotide precedes the residue position of the
-			 * second nucleotide and the chain.
-			 */
-			if ((n1Chain.compareTo(n2Chain) == 0)
-					&& (anInter.getFirstNucleotide().getResiduePosition() > anInter
-							.getSecondNucleotide().getResiduePosition())) {
-				n1 = anInter.getSecondNucleotide();
-				n2 = anInter.getFirstNucleotide();
-			} else if ((n1Chain.compareTo(n2Chain) > 0)) {
-				n1 = anInter.getSecondNucleotide();
-				n2 = anInter.getFirstNucleotide();
-			}
-
-			/*
-			 * Keep track of all interaction Add the interaction to the
-			 * interaction edge if it exists or create one otherwise
-			 */
-			Set<NucleotideInteraction> interactions = new HashSet<NucleotideInteraction>();
-			// check if these two nucleotides have other interactions already
-			if (this.containsEdge(n1, n2)) {
-				interactions.addAll(this.getEdge(n1, n2).getInteractions());
-			}
-			interactions.add(anInter);
-
-			// create Interaction an interaction edge
-			// a higher weight edge is given for interactions that stay within a
-			// chain
-			InteractionEdge edge = new InteractionEdge(interactions);
-			double edgeWeight = 0;
-			if (!this.getChainIdentifier(edge.getFirstNucleotide()).equals(
-					this.getChainIdentifier(edge.getSecondNucleotide()))) {
-				edgeWeight = this.getSequence(
-						this.getChainIdentifier(edge.getFirstNucleotide()))
-						.getLength()
-						+ this.getSequence(
-								this.getChainIdentifier(edge
-										.getSecondNucleotide())).getLength();
-			} else {
-				edgeWeight = Math.abs(edge.getSecondNucleotide()
-						.getResiduePosition()
-						- edge.getFirstNucleotide().getResiduePosition());
-			}
-			this.removeEdge(this.getEdge(n1, n2));
-			this.addEdge(n1, n2, edge);
-			this.setEdgeWeight(edge, edgeWeight);
-
-		}//
+		// add the interactions to the graph, one edge per pair of
+		// nucleotides
+		InteractionEdgeBuilder builder = new InteractionEdgeBuilder(this);
+		builder.addAll(this.getInteractions());
+		builder.build();
 	}
 
 	/**
@@ -349,27 +760,53 @@ public class NucleicAcid extends AbstractNucleicAcid {
 	 *         that occur in and on the respective chain.
 	 * @since 1.6
 	 */
-	private Map<String, Set<NucleotideInteraction>> makeChain2InteractionMap(
+	private Map<String, InteractionPartition> makeChain2InteractionMap(
 			Map<String, Sequence> aSm, Set<NucleotideInteraction> someInts) {
-		Map<String, Set<NucleotideInteraction>> returnMe = new HashMap<String, Set<NucleotideInteraction>>();
-
+		Map<String, InteractionPartition> returnMe = new HashMap<String, InteractionPartition>();
+		if (someInts.isEmpty()) {
+			return returnMe;
+		}
+		Map<String, List<NucleotideInteraction>> chainInts = new HashMap<String, List<NucleotideInteraction>>();
+		for (String chain : aSm.keySet()) {
+			chainInts.put(chain, new ArrayList<NucleotideInteraction>());
+		}
 		/*
 		 * find which chains that each nucleotide in an interaction occur and
 		 * add them to the chain
 		 */
 		for (NucleotideInteraction anInt : someInts) {
-			Nucleotide n1 = anInt.getFirstNucleotide();
-			Nucleotide n2 = anInt.getSecondNucleotide();
-			for (String chain : aSm.keySet()) {
-				if (!returnMe.containsKey(chain)) {
-					returnMe.put(chain,
-							new LinkedHashSet<NucleotideInteraction>());
-				}
-				if (aSm.get(chain).containsNucleotide(n1)) {
-					returnMe.get(chain).add(anInt);
-				}
-				if (aSm.get(chain).containsNucleotide(n2)) {
-					returnMe.get(chain).add(anInt);
+			String c1 = this.getChainIdentifier(anInt.getFirstNucleotide());
+			String c2 = this.getChainIdentifier(anInt.getSecondNucleotide());
+			if (c1 != null) {
+				chainInts.get(c1).add(anInt);
+			}
+			if (c2 != null && !c2.equals(c1)) {
+				chainInts.get(c2).add(anInt);
+			}
+		}
+		for (Map.Entry<String, List<NucleotideInteraction>> e : chainInts
+				.entrySet()) {
+			returnMe.put(e.getKey(), new InteractionPartition(e.getValue()));
+		}
+		return returnMe;
+	}
+
+	/**
+	 * Map every nucleotide of a set of sequences to its chain identifier. If a
+	 * nucleotide appears in more than one chain the first chain wins, as in
+	 * {@link #getChainIdentifier(Nucleotide)}.
+	 * 
+	 * @param aSm
+	 *            a mapping of the chain identifier to its sequence
+	 * @return an identity map of nucleotide to chain identifier
+	 */
+	private static Map<Nucleotide, String> makeNucleotide2ChainMap(
+			Map<String, Sequence> aSm) {
+		Map<Nucleotide, String> returnMe = new IdentityHashMap<Nucleotide, String>();
+		for (String chain : aSm.keySet()) {
+			for (Nucleotide n : aSm.get(chain)) {
+				if (!returnMe.containsKey(n)) {
+					returnMe.put(n, chain);
 				}
 			}
 		}
@@ -409,10 +846,41 @@ public class NucleicAcid extends AbstractNucleicAcid {
 	 * @since 1.6
 	 */
 	public Set<NucleotideInteraction> getInteractionByChain(String aChain) {
-		if (!chain2InteractionMap.containsKey(aChain)) {
-			return new LinkedHashSet<NucleotideInteraction>();
-		}
-		return Collections.unmodifiableSet(chain2InteractionMap.get(aChain));
+		return this.getPartition(aChain).getInteractions();
+	}
+
+	/**
+	 * Get an unmodifiable set of the interactions of a given type for a given
+	 * chain. The returned set contains both intra- and inter-chain
+	 * interactions.
+	 * 
+	 * @param aChain
+	 *            the chain identifier
+	 * @param aType
+	 *            the type of interaction, e.g. BasePair.class
+	 * @return a set of interactions of the given type for the given chain, or
+	 *         empty set if the chain does not exist in the nucleic acid
+	 */
+	public <T extends NucleotideInteraction> Set<T> getInteractionsByChain(
+			String aChain, Class<T> aType) {
+		return this.getPartition(aChain).getInteractions(aType);
+	}
+
+	/**
+	 * Get an unmodifiable set of the interactions of a given type
+	 * 
+	 * @param aType
+	 *            the type of interaction, e.g. BaseStack.class
+	 * @return a set of the interactions of the given type
+	 */
+	public <T extends NucleotideInteraction> Set<T> getInteractions(
+			Class<T> aType) {
+		return this.interactionPartition.getInteractions(aType);
+	}
+
+	private InteractionPartition getPartition(String aChain) {
+		InteractionPartition returnMe = chain2InteractionMap.get(aChain);
+		return (returnMe == null) ? InteractionPartition.EMPTY : returnMe;
 	}
 
 	/**
@@ -422,7 +890,7 @@ public class NucleicAcid extends AbstractNucleicAcid {
 	 * @since 1.6
 	 */
 	public Set<NucleotideInteraction> getInteractions() {
-		return Collections.unmodifiableSet(interactions);
+		return this.interactionPartition.getInteractions();
 	}
 
 	/**
@@ -431,15 +899,7 @@ public class NucleicAcid extends AbstractNucleicAcid {
 	 * @return a set of base pairs
 	 */
 	public Set<BasePair> getBasePairs() {
-		Set<BasePair> returnMe = new HashSet<BasePair>();
-		Iterator<NucleotideInteraction> itr = interactions.iterator();
-		while (itr.hasNext()) {
-			NucleotideInteraction anInt = itr.next();
-			if (anInt instanceof BasePair) {
-				returnMe.add((BasePair) anInt);
-			}
-		}
-		return Collections.unmodifiableSet(returnMe);
+		return this.interactionPartition.getBasePairs();
 	}
 
 	/**
@@ -448,15 +908,7 @@ public class NucleicAcid extends AbstractNucleicAcid {
 	 * @return a set of base stacks
 	 */
 	public Set<BaseStack> getBaseStacks() {
-		Set<BaseStack> returnMe = new HashSet<BaseStack>();
-		Iterator<NucleotideInteraction> itr = interactions.iterator();
-		while (itr.hasNext()) {
-			NucleotideInteraction anInt = itr.next();
-			if (anInt instanceof BaseStack) {
-				returnMe.add((BaseStack) anInt);
-			}
-		}
-		return Collections.unmodifiableSet(returnMe);
+		return this.interactionPartition.getBaseStacks();
 	}
 
 	/**
@@ -465,15 +917,7 @@ public class NucleicAcid extends AbstractNucleicAcid {
 	 * @return a set of phosphodiester linkages
 	 */
 	public Set<PhosphodiesterBond> getPhosphodiesterBonds() {
-		Set<PhosphodiesterBond> returnMe = new HashSet<PhosphodiesterBond>();
-		Iterator<NucleotideInteraction> itr = interactions.iterator();
-		while (itr.hasNext()) {
-			NucleotideInteraction anInt = itr.next();
-			if (anInt instanceof PhosphodiesterBond) {
-				returnMe.add((PhosphodiesterBond) anInt);
-			}
-		}
-		return Collections.unmodifiableSet(returnMe);
+		return this.interactionPartition.getPhosphodiesterBonds();
 	}
 
 	/**
@@ -509,7 +953,12 @@ public class NucleicAcid extends AbstractNucleicAcid {
 	 * @since 1.6
 	 */
 	public String getChainIdentifier(Nucleotide nucleotide) {
-
+		String returnMe = nucleotide2ChainMap.get(nucleotide);
+		if (returnMe != null) {
+			return returnMe;
+		}
+		// nucleotide is equal to, but not the same object as, a nucleotide
+		// of the sequences
 		for (String chain : chain2SequenceMap.keySet()) {
 			if (chain2SequenceMap.get(chain).containsNucleotide(nucleotide)) {
 				return chain;
@@ -520,14 +969,80 @@ public class NucleicAcid extends AbstractNucleicAcid {
 	}
 
 	/**
-	 * Get the minimum cycle basis of this graph
+	 * Get the chain identifiers of a collection of nucleotides
 	 * 
-	 * @return the MCB as computed by CDK's ringsearch
+	 * @param someNucleotides
+	 *            the nucleotides
+	 * @return a list with the chain identifier of every nucleotide, in the
+	 *         iteration order of someNucleotides. The identifier is
+	 *         <code>null</code> for nucleotides that are not in the nucleic
+	 *         acid
+	 */
+	public List<String> getChainIdentifiers(
+			Collection<Nucleotide> someNucleotides) {
+		List<String> returnMe = new ArrayList<String>(someNucleotides.size());
+		for (Nucleotide n : someNucleotides) {
+			returnMe.add(this.getChainIdentifier(n));
+		}
+		return returnMe;
+	}
+
+	/**
+	 * Get the minimum cycle basis of this graph. It is computed on the first
+	 * call and memoized.
+	 * 
+	 * @return the MCB as computed by the engine of this nucleic acid
 	 */
 	public List<Cycle<Nucleotide, InteractionEdge>> getMinimumCycleBasis() {
+		this.computeMCBIfNeeded();
 		return this.minimumCycleBasis;
 	}
 
+	/**
+	 * Get the cache of the cycle profiles of this nucleic acid. The same cache
+	 * is returned until the interactions of this nucleic acid change.
+	 * 
+	 * @return the cache of the level 1 and level 2 profiles of the cycles of
+	 *         this nucleic acid
+	 */
+	public CycleProfileCache getCycleProfileCache() {
+		CycleProfileCache rm = this.cycleProfiles;
+		if (rm == null) {
+			synchronized (this) {
+				rm = this.cycleProfiles;
+				if (rm == null) {
+					rm = new CycleProfileCache();
+					this.cycleProfiles = rm;
+				}
+			}
+		}
+		return rm;
+	}
+
+	/**
+	 * Get the minimum cycle basis of this graph as compact cycles. All the
+	 * cycles share one compact snapshot of this nucleic acid, which makes
+	 * them much smaller than Cycle objects when many bases are kept in
+	 * memory.
+	 * 
+	 * @return the MCB as compact cycles, in the order of
+	 *         getMinimumCycleBasis()
+	 */
+	public List<CompactCycle<Nucleotide, InteractionEdge>> getCompactMinimumCycleBasis() {
+		return CompactCycle.fromCycles(this.getMinimumCycleBasis(),
+				CompactGraph.fromNucleicAcid(this));
+	}
+
+	/**
+	 * Get the engine used to compute the minimum cycle basis of this nucleic
+	 * acid
+	 * 
+	 * @return the minimum cycle basis engine
+	 */
+	public MCBEngine getMCBEngine() {
+		return this.mcbEngine;
+	}
+
 	/**
 	 * Get a set of the chain identifiers present in the nucleic acid.
 	 * 
@@ -602,22 +1117,15 @@ public class NucleicAcid extends AbstractNucleicAcid {
 	/**
 	 * 
 	 * A map where the key is a nucleotide and the value is a list of cycles
-	 * that have the given key as a vertex
+	 * that have the given key as a vertex. The minimum cycle basis is computed
+	 * if it has not been already.
 	 * 
 	 * @return the mcbVertexMap
 	 */
 	public HashMap<Nucleotide, List<Cycle<Nucleotide, InteractionEdge>>> getMcbVertexMap() {
+		this.computeMCBIfNeeded();
 		return mcbVertexMap;
 	}
 
-	/**
-	 * @param mcbVertexMap
-	 *            the mcbVertexMap to set
-	 */
-	private void setMcbVertexMap(
-			HashMap<Nucleotide, List<Cycle<Nucleotide, InteractionEdge>>> mcbVertexMap) {
-		this.mcbVertexMap = mcbVertexMap;
-	}
-
 
 }
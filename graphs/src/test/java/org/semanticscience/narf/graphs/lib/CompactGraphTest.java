@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.SimpleWeightedGraph;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.semanticscience.narf.graphs.nucleicacid.InteractionEdge;
+import org.semanticscience.narf.graphs.nucleicacid.NucleicAcid;
+import org.semanticscience.narf.structures.parts.DotBracketNotation;
+import org.semanticscience.narf.structures.parts.Nucleotide;
+import org.semanticscience.narf.structures.parts.Sequence;
+import org.semanticscience.narf.structures.secondary.SecondaryStructure;
+
+/**
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class CompactGraphTest {
+	private static UndirectedGraph<String, String> sampleGraph = null;
+	private static CompactGraph<String, String> cg = null;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		sampleGraph = new SimpleWeightedGraph<String, String>(String.class);
+		for (int i = 1; i <= 5; i++) {
+			sampleGraph.addVertex("v" + i);
+		}
+		sampleGraph.addEdge("v1", "v2", "a");
+		sampleGraph.addEdge("v2", "v3", "b");
+		sampleGraph.addEdge("v3", "v1", "c");
+		sampleGraph.addEdge("v3", "v4", "d");
+		cg = CompactGraph.fromGraph(sampleGraph);
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		sampleGraph = null;
+		cg = null;
+	}
+
+	@Test
+	public void testCounts() {
+		assertEquals(5, cg.getVertexCount());
+		assertEquals(4, cg.getEdgeCount());
+		// v5 is isolated
+		assertEquals(2, cg.countComponents());
+		assertEquals(0, cg.getDegree(cg.getVertexId("v5")));
+		assertEquals(3, cg.getDegree(cg.getVertexId("v3")));
+	}
+
+	@Test
+	public void testAdjacency() {
+		int v3 = cg.getVertexId("v3");
+		for (int i = cg.getAdjacencyStart(v3); i < cg.getAdjacencyEnd(v3); i++) {
+			int w = cg.getAdjacentVertex(i);
+			int e = cg.getAdjacentEdge(i);
+			assertEquals(w, cg.getOpposite(e, v3));
+			assertEquals(sampleGraph.getEdge("v3", cg.getVertex(w)),
+					cg.getEdge(e));
+		}
+		assertEquals(cg.getEdgeId("d"),
+				cg.findEdge(cg.getVertexId("v4"), v3));
+		assertEquals(-1, cg.findEdge(cg.getVertexId("v4"), cg.getVertexId("v1")));
+		assertEquals(-1, cg.getVertexId("v6"));
+	}
+
+	@Test
+	public void testFromEdges() {
+		List<String> el = new ArrayList<String>();
+		el.add("a");
+		el.add("d");
+		CompactGraph<String, String> sub = CompactGraph.fromEdges(sampleGraph,
+				el);
+		assertEquals(4, sub.getVertexCount());
+		assertEquals(2, sub.getEdgeCount());
+		assertEquals(-1, sub.getVertexId("v5"));
+	}
+
+	@Test
+	public void testInteractionMasks() throws Exception {
+		NucleicAcid na = new NucleicAcid(new SecondaryStructure(
+				new DotBracketNotation(new Sequence("GGGAAACCC"), "(((...)))")));
+		CompactGraph<Nucleotide, InteractionEdge> g = CompactGraph
+				.fromNucleicAcid(na);
+		int bp = 0;
+		int pdb = 0;
+		for (int e = 0; e < g.getEdgeCount(); e++) {
+			if ((g.getEdgeMask(e) & CompactGraph.BASE_PAIR) != 0) {
+				bp++;
+			}
+			if ((g.getEdgeMask(e) & CompactGraph.PHOSPHODIESTER_BOND) != 0) {
+				pdb++;
+			}
+		}
+		assertEquals(3, bp);
+		assertEquals(8, pdb);
+	}
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.semanticscience.narf.graphs.lib.cycles.Cycle;
+import org.semanticscience.narf.graphs.lib.cycles.CycleFingerprint;
+import org.semanticscience.narf.graphs.nucleicacid.InteractionEdge;
+import org.semanticscience.narf.graphs.nucleicacid.NucleicAcid;
+import org.semanticscience.narf.structures.parts.DotBracketNotation;
+import org.semanticscience.narf.structures.parts.Nucleotide;
+import org.semanticscience.narf.structures.parts.Sequence;
+import org.semanticscience.narf.structures.secondary.SecondaryStructure;
+
+/**
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class MotifIndexTest {
+	private static NucleicAcid twoHairpins;
+	private static NucleicAcid oneHairpin;
+	private File indexFile;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		twoHairpins = new NucleicAcid(new SecondaryStructure(
+				new DotBracketNotation(new Sequence("GGGAAACCCAGGGAAACCC"),
+						"(((...))).(((...)))")));
+		oneHairpin = new NucleicAcid(new SecondaryStructure(
+				new DotBracketNotation(new Sequence("GGGAAACCC"), "(((...)))")));
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		twoHairpins = null;
+		oneHairpin = null;
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		indexFile = File.createTempFile("motifs", ".idx");
+		assertTrue(indexFile.delete());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		indexFile.delete();
+	}
+
+	private CycleFingerprint getHairpinFingerprint(int aLevel) {
+		// the hairpin loop is the largest cycle of the basis
+		List<Cycle<Nucleotide, InteractionEdge>> ccb = oneHairpin
+				.getMinimumCycleBasis();
+		Cycle<Nucleotide, InteractionEdge> loop = ccb.get(ccb.size() - 1);
+		assertEquals(5, loop.size());
+		return oneHairpin.getCycleProfileCache().getFingerprint(loop, aLevel);
+	}
+
+	@Test
+	public void testFind() throws Exception {
+		MotifIndexWriter w = new MotifIndexWriter(indexFile);
+		w.add("2HP", twoHairpins, twoHairpins.getMinimumCycleBasis(), true);
+		w.add("1HP", oneHairpin, oneHairpin.getMinimumCycleBasis(), false);
+		w.close();
+		MotifIndex idx = new MotifIndex(indexFile);
+		try {
+			assertEquals(2, idx.getStructureIds().size());
+			CycleFingerprint l1 = getHairpinFingerprint(CycleFingerprint.LEVEL_1);
+			assertEquals(3, idx.count(l1));
+			assertEquals(2, idx.findStructures(l1).size());
+			assertTrue(idx.findStructures(l1).contains("2HP"));
+			assertTrue(idx.findStructures(l1).contains("1HP"));
+			// only the first structure was indexed at level 2
+			CycleFingerprint l2 = getHairpinFingerprint(CycleFingerprint.LEVEL_2);
+			List<MotifIndex.Occurrence> found = idx.find(l2);
+			assertEquals(2, found.size());
+			for (MotifIndex.Occurrence o : found) {
+				assertEquals("2HP", o.getStructureId());
+				assertEquals(l2, o.getFingerprint());
+				assertTrue(o.getFirstResiduePosition() < o
+						.getLastResiduePosition());
+			}
+			assertEquals(0, idx.count(CycleFingerprint.fromNormalization(
+					"not a cycle", CycleFingerprint.LEVEL_1)));
+		} finally {
+			idx.close();
+		}
+	}
+
+	@Test
+	public void testIncrementalUpdate() throws Exception {
+		MotifIndexWriter w = new MotifIndexWriter(indexFile);
+		w.add("2HP", twoHairpins, twoHairpins.getMinimumCycleBasis(), false);
+		w.close();
+		CycleFingerprint l1 = getHairpinFingerprint(CycleFingerprint.LEVEL_1);
+		// a second run keeps the structures of the first one
+		w = new MotifIndexWriter(indexFile);
+		w.add("1HP", oneHairpin, oneHairpin.getMinimumCycleBasis(), false);
+		w.close();
+		MotifIndex idx = new MotifIndex(indexFile);
+		assertEquals(3, idx.count(l1));
+		idx.close();
+		// adding a structure again replaces its occurrences
+		w = new MotifIndexWriter(indexFile);
+		w.add("2HP", oneHairpin, oneHairpin.getMinimumCycleBasis(), false);
+		w.close();
+		idx = new MotifIndex(indexFile);
+		try {
+			assertEquals(2 * oneHairpin.getMinimumCycleBasis().size(),
+					idx.getOccurrenceCount());
+			assertEquals(2, idx.findStructures(l1).size());
+		} finally {
+			idx.close();
+		}
+	}
+}
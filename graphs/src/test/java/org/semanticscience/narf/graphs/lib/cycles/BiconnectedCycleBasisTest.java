@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.SimpleWeightedGraph;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class BiconnectedCycleBasisTest {
+	private static UndirectedGraph<String, String> sampleGraph = null;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		sampleGraph = createSampleGraph();
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		sampleGraph = null;
+	}
+
+	@Test
+	public void testComponents() {
+		List<List<String>> comps = BiconnectedCycleBasis
+				.findBiconnectedComponents(sampleGraph);
+		// the square with one diagonal, the two triangles and the pentagon;
+		// the bridges and the tail are skipped
+		assertEquals(4, comps.size());
+		int edges = 0;
+		for (List<String> c : comps) {
+			edges += c.size();
+		}
+		assertEquals(5 + 3 + 3 + 5, edges);
+	}
+
+	@Test
+	public void testSameBasisAsMinimumCycleBasis() {
+		MinimumCycleBasis<String, String> mcb = new MinimumCycleBasis<String, String>(
+				sampleGraph);
+		BiconnectedCycleBasis<String, String> serial = new BiconnectedCycleBasis<String, String>(
+				sampleGraph, 1);
+		BiconnectedCycleBasis<String, String> parallel = new BiconnectedCycleBasis<String, String>(
+				sampleGraph, 4);
+		assertEquals(mcb.getCycleBasis().size(), serial.getCycleBasis().size());
+		assertEquals(mcb.getCycleBasis().size(), parallel.getCycleBasis()
+				.size());
+		for (int i = 0; i < mcb.getCycleBasis().size(); i++) {
+			assertEquals(mcb.getCycleBasis().get(i).size(), serial
+					.getCycleBasis().get(i).size());
+			assertEquals(mcb.getCycleBasis().get(i).size(), parallel
+					.getCycleBasis().get(i).size());
+		}
+	}
+
+	@Test
+	public void testLargeComponentsOnSharedPool() {
+		// two ladders large enough to be solved on the shared pool and a
+		// triangle, joined by bridges
+		UndirectedGraph<String, String> g = new SimpleWeightedGraph<String, String>(
+				String.class);
+		int rungs = 90;
+		for (int l = 0; l < 2; l++) {
+			for (int i = 0; i < rungs; i++) {
+				g.addVertex("l" + l + "a" + i);
+				g.addVertex("l" + l + "b" + i);
+				g.addEdge("l" + l + "a" + i, "l" + l + "b" + i, "l" + l + "r"
+						+ i);
+				if (i > 0) {
+					g.addEdge("l" + l + "a" + (i - 1), "l" + l + "a" + i, "l"
+							+ l + "ea" + i);
+					g.addEdge("l" + l + "b" + (i - 1), "l" + l + "b" + i, "l"
+							+ l + "eb" + i);
+				}
+			}
+		}
+		g.addVertex("t1");
+		g.addVertex("t2");
+		g.addVertex("t3");
+		g.addEdge("t1", "t2", "t12");
+		g.addEdge("t2", "t3", "t23");
+		g.addEdge("t3", "t1", "t31");
+		g.addEdge("l0a0", "l1a0", "bridge1");
+		g.addEdge("l1a0", "t1", "bridge2");
+		BiconnectedCycleBasis<String, String> serial = new BiconnectedCycleBasis<String, String>(
+				g, 1);
+		assertEquals(3, serial.getComponents().size());
+		assertTrue(serial.getComponents().get(0).size() >= BiconnectedCycleBasis.PARALLEL_THRESHOLD);
+		assertEquals(1 + 2 * (rungs - 1), serial.getCycleBasis().size());
+		// the pool is reused by every basis
+		for (int k = 0; k < 3; k++) {
+			BiconnectedCycleBasis<String, String> parallel = new BiconnectedCycleBasis<String, String>(
+					g, 4);
+			assertEquals(serial.getCycleBasis().size(), parallel
+					.getCycleBasis().size());
+			for (int i = 0; i < serial.getCycleBasis().size(); i++) {
+				assertEquals(serial.getCycleBasis().get(i).size(), parallel
+						.getCycleBasis().get(i).size());
+			}
+		}
+	}
+
+	@Test
+	public void testTreeHasNoComponents() {
+		UndirectedGraph<String, String> t = new SimpleWeightedGraph<String, String>(
+				String.class);
+		t.addVertex("v1");
+		t.addVertex("v2");
+		t.addVertex("v3");
+		t.addEdge("v1", "v2", "a");
+		t.addEdge("v2", "v3", "b");
+		BiconnectedCycleBasis<String, String> cb = new BiconnectedCycleBasis<String, String>(
+				t);
+		assertTrue(cb.getComponents().isEmpty());
+		assertTrue(cb.getCycleBasis().isEmpty());
+	}
+
+	/**
+	 * A square with one diagonal, two triangles sharing an articulation point
+	 * and a pentagon joined to the rest by a bridge, plus a tail
+	 */
+	private static UndirectedGraph<String, String> createSampleGraph() {
+		UndirectedGraph<String, String> rm = new SimpleWeightedGraph<String, String>(
+				String.class);
+		for (int i = 1; i <= 14; i++) {
+			rm.addVertex("v" + i);
+		}
+		rm.addEdge("v1", "v2", "a");
+		rm.addEdge("v2", "v3", "b");
+		rm.addEdge("v3", "v4", "c");
+		rm.addEdge("v4", "v1", "d");
+		rm.addEdge("v1", "v3", "e");
+		rm.addEdge("v4", "v5", "f");
+		rm.addEdge("v5", "v6", "g");
+		rm.addEdge("v6", "v4", "h");
+		rm.addEdge("v4", "v7", "i");
+		rm.addEdge("v7", "v8", "j");
+		rm.addEdge("v8", "v4", "k");
+		rm.addEdge("v8", "v9", "l");
+		rm.addEdge("v9", "v10", "m");
+		rm.addEdge("v10", "v11", "n");
+		rm.addEdge("v11", "v12", "o");
+		rm.addEdge("v12", "v13", "p");
+		rm.addEdge("v13", "v9", "q");
+		rm.addEdge("v13", "v14", "r");
+		return rm;
+	}
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.SimpleWeightedGraph;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.semanticscience.narf.graphs.lib.CompactGraph;
+
+/**
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class ChordlessCycleEnumeratorTest {
+	private static UndirectedGraph<String, String> sampleStem = null;
+	private static UndirectedGraph<String, String> k4 = null;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		// a stem of three base pairs closed by a loop of four
+		sampleStem = new SimpleWeightedGraph<String, String>(String.class);
+		for (int i = 1; i <= 10; i++) {
+			sampleStem.addVertex("v" + i);
+		}
+		for (int i = 1; i < 10; i++) {
+			sampleStem.addEdge("v" + i, "v" + (i + 1), "p" + i);
+		}
+		sampleStem.addEdge("v1", "v10", "bp1");
+		sampleStem.addEdge("v2", "v9", "bp2");
+		sampleStem.addEdge("v3", "v8", "bp3");
+		// the complete graph on four vertices
+		k4 = new SimpleWeightedGraph<String, String>(String.class);
+		for (int i = 1; i <= 4; i++) {
+			k4.addVertex("v" + i);
+		}
+		for (int i = 1; i <= 4; i++) {
+			for (int j = i + 1; j <= 4; j++) {
+				k4.addEdge("v" + i, "v" + j, "e" + i + j);
+			}
+		}
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		sampleStem = null;
+		k4 = null;
+	}
+
+	private static int count(ChordlessCycleEnumerator en) {
+		int rm = 0;
+		while (en.hasNext()) {
+			en.next();
+			rm++;
+		}
+		return rm;
+	}
+
+	@Test
+	public void testStem() {
+		CompactGraph<String, String> g = CompactGraph.fromGraph(sampleStem);
+		// two stacking squares and the hexagon of the loop
+		assertEquals(3, count(new ChordlessCycleEnumerator(g, 10)));
+		assertEquals(2, count(new ChordlessCycleEnumerator(g, 5)));
+		assertEquals(0, count(new ChordlessCycleEnumerator(g, 3)));
+	}
+
+	@Test
+	public void testCompleteGraphOnlyHasTriangles() {
+		CompactGraph<String, String> g = CompactGraph.fromGraph(k4);
+		ChordlessCycleEnumerator en = new ChordlessCycleEnumerator(g, 4);
+		int n = 0;
+		while (en.hasNext()) {
+			assertEquals(3, en.next().length);
+			n++;
+		}
+		assertEquals(4, n);
+	}
+
+	@Test
+	public void testStartRangesPartitionTheCycles() {
+		CompactGraph<String, String> g = CompactGraph.fromGraph(k4);
+		ChordlessCycleEnumerator en = new ChordlessCycleEnumerator(g, 4, 0, 1);
+		int n = count(en);
+		en.reset(1, g.getVertexCount());
+		n += count(en);
+		assertEquals(4, n);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidMaxLength() {
+		new ChordlessCycleEnumerator(CompactGraph.fromGraph(k4), 2);
+	}
+
+	@Test
+	public void testBasisDoesNotDependOnThreads() throws Exception {
+		List<Cycle<String, String>> l1 = new ChordlessCycleBasis<String, String>(
+				sampleStem, Integer.MAX_VALUE, 1).getCycleBasis();
+		List<Cycle<String, String>> l4 = new ChordlessCycleBasis<String, String>(
+				sampleStem, Integer.MAX_VALUE, 4).getCycleBasis();
+		assertEquals(3, l1.size());
+		assertEquals(l1, l4);
+		assertEquals(2, new ChordlessCycleBasis<String, String>(sampleStem, 4)
+				.getCycleBasis().size());
+	}
+}
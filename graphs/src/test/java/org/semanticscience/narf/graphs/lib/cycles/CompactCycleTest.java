@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.SimpleWeightedGraph;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.semanticscience.narf.graphs.lib.CompactGraph;
+
+/**
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class CompactCycleTest {
+	private static UndirectedGraph<String, String> sampleGraph = null;
+	private static CompactGraph<String, String> compactGraph = null;
+	private static List<Cycle<String, String>> mcb = null;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		// a stem of three base pairs and a ring of 20 vertices
+		sampleGraph = new SimpleWeightedGraph<String, String>(String.class);
+		for (int i = 1; i <= 6; i++) {
+			sampleGraph.addVertex("v" + i);
+		}
+		sampleGraph.addEdge("v1", "v2", "p1");
+		sampleGraph.addEdge("v2", "v3", "p2");
+		sampleGraph.addEdge("v4", "v5", "p3");
+		sampleGraph.addEdge("v5", "v6", "p4");
+		sampleGraph.addEdge("v1", "v6", "bp1");
+		sampleGraph.addEdge("v2", "v5", "bp2");
+		sampleGraph.addEdge("v3", "v4", "bp3");
+		for (int i = 0; i < 20; i++) {
+			sampleGraph.addVertex("r" + i);
+		}
+		for (int i = 0; i < 20; i++) {
+			sampleGraph.addEdge("r" + i, "r" + ((i + 1) % 20),
+					("e" + i).intern());
+		}
+		compactGraph = CompactGraph.fromGraph(sampleGraph);
+		mcb = new MinimumCycleBasis<String, String>(sampleGraph)
+				.getCycleBasis();
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		sampleGraph = null;
+		compactGraph = null;
+		mcb = null;
+	}
+
+	@Test
+	public void testRoundTrip() {
+		assertEquals(3, mcb.size());
+		for (Cycle<String, String> c : mcb) {
+			CompactCycle<String, String> cc = CompactCycle.fromCycle(c,
+					compactGraph);
+			assertEquals(c.size(), cc.size());
+			Cycle<String, String> view = cc.asCycle();
+			assertEquals(c, view);
+			assertEquals(c.hashCode(), view.hashCode());
+			assertEquals(c.getVertexList(), view.getVertexList());
+			assertEquals(c.getEdgeList(), view.getEdgeList());
+			assertEquals(c.getNextVertex(c.getVertex(1)),
+					view.getNextVertex(view.getVertex(1)));
+			assertSame(sampleGraph, view.getGraph());
+		}
+	}
+
+	@Test
+	public void testRotationsAndInversionsAreEqual() {
+		CompactCycle<String, String> cc = CompactCycle.fromCycle(mcb.get(0),
+				compactGraph);
+		for (int i = 0; i < cc.size(); i++) {
+			CompactCycle<String, String> r = cc.rotate(i);
+			assertEquals(cc.getVertexId(i), r.getVertexId(0));
+			assertEquals(cc, r);
+			assertEquals(cc, r.invert());
+			assertEquals(cc.hashCode(), r.invert().hashCode());
+		}
+		assertEquals(cc.getVertexId(0), cc.invert().getVertexId(0));
+		assertEquals(cc.getEdgeId(0), cc.invert().getEdgeId(cc.size() - 1));
+		assertFalse(cc.equals(CompactCycle.fromCycle(mcb.get(1),
+				compactGraph)));
+		assertEquals(CycleKey.fromCycle(mcb.get(0), compactGraph), cc.toKey());
+	}
+
+	@Test
+	public void testLongCycleLookups() {
+		int[] ring = new int[20];
+		for (int i = 0; i < 20; i++) {
+			// edges are looked up by identity
+			ring[i] = compactGraph.getEdgeId(("e" + i).intern());
+		}
+		Cycle<String, String> c = CompactCycle.fromEdgeIds(compactGraph, ring)
+				.asCycle();
+		assertEquals(20, c.size());
+		assertEquals("r0", c.getFirstVertex());
+		assertEquals(15, c.getVertexPosition("r15"));
+		assertEquals("r16", c.getNextVertex("r15"));
+		assertEquals(-1, c.getVertexPosition("v1"));
+		assertTrue(mcb.contains(c));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOpenPathIsRejected() {
+		CompactCycle.fromEdgeIds(compactGraph,
+				new int[] { compactGraph.getEdgeId("p1"),
+						compactGraph.getEdgeId("p2"),
+						compactGraph.getEdgeId("bp3") });
+	}
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.SimpleWeightedGraph;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class CycleAdjacencyGraphTest {
+	private static UndirectedGraph<String, String> sampleGraph = null;
+	private static CycleIncidenceIndex<String, String> index = null;
+	private static CycleAdjacencyGraph<String, String> byVertex = null;
+	private static CycleAdjacencyGraph<String, String> byEdge = null;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		// a stem of five base pairs and a separate triangle; edge names are
+		// interned as the index looks edges up by identity
+		sampleGraph = new SimpleWeightedGraph<String, String>(String.class);
+		for (int i = 1; i <= 10; i++) {
+			sampleGraph.addVertex("v" + i);
+		}
+		for (int i = 1; i < 5; i++) {
+			sampleGraph.addEdge("v" + i, "v" + (i + 1), ("p" + i).intern());
+			sampleGraph.addEdge("v" + (i + 5), "v" + (i + 6),
+					("q" + i).intern());
+		}
+		for (int i = 1; i <= 5; i++) {
+			sampleGraph.addEdge("v" + i, "v" + (11 - i), ("bp" + i).intern());
+		}
+		sampleGraph.addVertex("a");
+		sampleGraph.addVertex("b");
+		sampleGraph.addVertex("c");
+		sampleGraph.addEdge("a", "b", "ab");
+		sampleGraph.addEdge("b", "c", "bc");
+		sampleGraph.addEdge("c", "a", "ca");
+		index = new CycleIncidenceIndex<String, String>(
+				new MinimumCycleBasis<String, String>(sampleGraph)
+						.getCycleBasis());
+		byVertex = new CycleAdjacencyGraph<String, String>(index, false);
+		byEdge = new CycleAdjacencyGraph<String, String>(index, true);
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		sampleGraph = null;
+		index = null;
+		byVertex = null;
+		byEdge = null;
+	}
+
+	@Test
+	public void testLinks() {
+		assertEquals(5, byEdge.getCycleCount());
+		// the four squares of the stem form a chain
+		assertEquals(3, byEdge.getLinkCount());
+		assertEquals(3, byVertex.getLinkCount());
+		int first = square(1);
+		assertEquals(1, byEdge.getDegree(first));
+		assertEquals(square(2), byEdge.getNeighbourIds(first)[0]);
+		assertEquals(0, byEdge.getDegree(triangle()));
+	}
+
+	@Test
+	public void testNeighbourhoods() {
+		int first = square(1);
+		assertArrayEquals(new int[] { square(3) },
+				byEdge.findNeighbourIdsAtDistance(first, 2));
+		assertEquals(3, byEdge.findNeighbourhoodIds(first, 3).length);
+		assertEquals(2, byEdge.findNeighbourhoodIds(first, 2).length);
+		assertEquals(0, byEdge.findNeighbourIdsAtDistance(first, 4).length);
+		List<Cycle<String, String>> third = byVertex.findNeighboursAtDistance(
+				index.getCycle(first), 3);
+		assertEquals(1, third.size());
+		assertEquals(square(4), index.getCycleId(third.get(0)));
+		int[] dist = byEdge.computeDistances(first, 1);
+		assertEquals(0, dist[first]);
+		assertEquals(1, dist[square(2)]);
+		assertEquals(-1, dist[square(3)]);
+		assertEquals(-1, dist[triangle()]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownCycle() throws Exception {
+		UndirectedGraph<String, String> g = new SimpleWeightedGraph<String, String>(
+				String.class);
+		g.addVertex("x");
+		g.addVertex("y");
+		g.addVertex("z");
+		g.addEdge("x", "y", "xy");
+		g.addEdge("y", "z", "yz");
+		g.addEdge("z", "x", "zx");
+		byEdge.findNeighbourhood(new MinimumCycleBasis<String, String>(g)
+				.getCycleBasis().get(0), 1);
+	}
+
+	@Test
+	public void testClustersAndDegrees() {
+		assertEquals(2, byEdge.getClusterCount());
+		int[] clusters = byEdge.getClusterIds();
+		assertEquals(clusters[square(1)], clusters[square(4)]);
+		assertFalse(clusters[square(1)] == clusters[triangle()]);
+		List<List<Cycle<String, String>>> c = byVertex.getClusters();
+		assertEquals(2, c.size());
+		assertEquals(2, byEdge.getMaxDegree());
+		assertEquals(6.0 / 5, byEdge.getMeanDegree(), 1e-9);
+		assertArrayEquals(new int[] { 1, 2, 2 }, byEdge.getDegreeHistogram());
+	}
+
+	/**
+	 * The id of the square closed by base pairs i and i + 1
+	 */
+	private static int square(int i) {
+		return index.getCycleId(index.getCyclesByEdge(("p" + i).intern())
+				.get(0));
+	}
+
+	private static int triangle() {
+		return index.getCycleId(index.getCyclesByEdge("ab").get(0));
+	}
+}
@@ -65,11 +65,12 @@ public class CycleBasisTest {
 		sampleGraph5 = createSampleGraph5();
 		sampleHairpinGraph = createSampleHairpin();
 		dfsGraph = createDPSGraph();
-		ccb2 = new FundamentalCycleBasis<String, String>(sampleGraph2);
-		ccb3 = new FundamentalCycleBasis<String, String>(sampleGraph3);
-		ccb4 = new FundamentalCycleBasis<String, String>(sampleGraph4);
-		ccb5 = new FundamentalCycleBasis<String, String>(sampleGraph5);
-		hairpin = new FundamentalCycleBasis<String, String>(sampleHairpinGraph);
+		ccb2 = new FundamentalCycleBasis<String, String>(sampleGraph2, true);
+		ccb3 = new FundamentalCycleBasis<String, String>(sampleGraph3, true);
+		ccb4 = new FundamentalCycleBasis<String, String>(sampleGraph4, true);
+		ccb5 = new FundamentalCycleBasis<String, String>(sampleGraph5, true);
+		hairpin = new FundamentalCycleBasis<String, String>(sampleHairpinGraph,
+				true);
 	}
 
 	/**
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.semanticscience.narf.graphs.nucleicacid.InteractionEdge;
+import org.semanticscience.narf.graphs.nucleicacid.NucleicAcid;
+import org.semanticscience.narf.structures.parts.DotBracketNotation;
+import org.semanticscience.narf.structures.parts.Nucleotide;
+import org.semanticscience.narf.structures.parts.Sequence;
+import org.semanticscience.narf.structures.secondary.SecondaryStructure;
+
+/**
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class CycleCompositionTest {
+	private static List<Cycle<Nucleotide, InteractionEdge>> mcb;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		Sequence seq = new Sequence("GGGAAACCCAGGGUUUCCC");
+		NucleicAcid na = new NucleicAcid(new SecondaryStructure(
+				new DotBracketNotation(seq, "(((...))).(((...)))")));
+		mcb = na.getMinimumCycleBasis();
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		mcb = null;
+	}
+
+	@Test
+	public void testCountAll() {
+		int[][] m = CycleComposition.countAll(mcb);
+		assertEquals(mcb.size(), m.length);
+		for (int i = 0; i < m.length; i++) {
+			Cycle<Nucleotide, InteractionEdge> aCycle = mcb.get(i);
+			assertArrayEquals(CycleComposition.count(aCycle), m[i]);
+			assertEquals(aCycle.size(), CycleComposition.size(m[i]));
+			assertEquals(0, m[i][CycleComposition.MODIFIED]);
+			assertEquals(0, m[i][CycleComposition.T]);
+			if (aCycle.size() == 5) {
+				// a hairpin loop closed by a G-C pair
+				assertEquals(1, m[i][CycleComposition.G]);
+				assertEquals(1, m[i][CycleComposition.C]);
+				assertEquals(3, m[i][CycleComposition.A]
+						+ m[i][CycleComposition.U]);
+				assertEquals(40.0, CycleHelper.computeCycleGCContent(aCycle),
+						1e-9);
+			}
+		}
+		double[] gc = CycleComposition.computeGCContents(m);
+		for (int i = 0; i < gc.length; i++) {
+			assertEquals(CycleHelper.computeCycleGCContent(mcb.get(i)), gc[i],
+					0.0);
+		}
+	}
+
+	@Test
+	public void testColumns() {
+		assertEquals(CycleComposition.A, CycleComposition.getColumn(108));
+		assertEquals(CycleComposition.G, CycleComposition.getColumn(286));
+		// deoxyribonucleotides count as their base
+		assertEquals(CycleComposition.G, CycleComposition.getColumn(234));
+		assertEquals(CycleComposition.T, CycleComposition.getColumn(258));
+		assertEquals(CycleComposition.MODIFIED,
+				CycleComposition.getColumn(21));
+		assertEquals(CycleComposition.MODIFIED,
+				CycleComposition.getColumn(-1));
+		assertEquals(0.0,
+				CycleComposition.computeGCContent(new int[] { 2, 0, 0, 2, 0,
+						1 }), 0.0);
+	}
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.security.MessageDigest;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.semanticscience.narf.graphs.nucleicacid.InteractionEdge;
+import org.semanticscience.narf.graphs.nucleicacid.NucleicAcid;
+import org.semanticscience.narf.structures.parts.DotBracketNotation;
+import org.semanticscience.narf.structures.parts.Nucleotide;
+import org.semanticscience.narf.structures.parts.Sequence;
+import org.semanticscience.narf.structures.secondary.SecondaryStructure;
+
+/**
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class CycleFingerprintTest {
+	private static NucleicAcid na;
+	private static List<Cycle<Nucleotide, InteractionEdge>> mcb;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		// two identical hairpins
+		Sequence seq = new Sequence("GGGAAACCCAGGGAAACCC");
+		na = new NucleicAcid(new SecondaryStructure(new DotBracketNotation(
+				seq, "(((...))).(((...)))")));
+		mcb = na.getMinimumCycleBasis();
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		na = null;
+		mcb = null;
+	}
+
+	@Test
+	public void testPrintableFormIsTheMD5OfTheNormalization()
+			throws Exception {
+		for (Cycle<Nucleotide, InteractionEdge> aCycle : mcb) {
+			String n = CycleHelper.findMinimalNormalizationString(aCycle, true);
+			assertEquals(
+					CycleHelper.findMinmalNormalization(na, aCycle, true)
+							.toString(), n);
+			byte[] hash = MessageDigest.getInstance("MD5")
+					.digest(n.getBytes());
+			StringBuilder sb = new StringBuilder();
+			for (byte b : hash) {
+				sb.append(Integer.toHexString((b & 0xFF) | 0x100).substring(1,
+						3));
+			}
+			CycleFingerprint fp = CycleFingerprint.compute(aCycle,
+					CycleFingerprint.LEVEL_1);
+			assertEquals(sb.toString(), fp.toHexString());
+			assertEquals(CycleFingerprint.LEVEL_1, fp.getLevel());
+		}
+	}
+
+	@Test
+	public void testSameProfileSameFingerprint() {
+		int hairpins = 0;
+		CycleFingerprint hairpin = null;
+		for (Cycle<Nucleotide, InteractionEdge> aCycle : mcb) {
+			if (aCycle.size() != 5) {
+				continue;
+			}
+			CycleFingerprint fp = CycleFingerprint.compute(aCycle,
+					CycleFingerprint.LEVEL_1);
+			if (hairpin == null) {
+				hairpin = fp;
+			}
+			assertEquals(hairpin, fp);
+			assertEquals(hairpin.hashCode(), fp.hashCode());
+			assertEquals(0, hairpin.compareTo(fp));
+			hairpins++;
+		}
+		assertEquals(2, hairpins);
+		CycleFingerprint other = CycleFingerprint.fromNormalization(
+				"1234", CycleFingerprint.LEVEL_1);
+		assertFalse(hairpin.equals(other));
+		// the same normalization at another level is another profile
+		assertFalse(other.equals(CycleFingerprint.fromNormalization("1234",
+				CycleFingerprint.LEVEL_2)));
+	}
+
+	@Test
+	public void testBinaryForm() throws Exception {
+		CycleFingerprint fp = CycleFingerprint.compute(mcb.get(0),
+				CycleFingerprint.LEVEL_1);
+		byte[] b = fp.toBytes();
+		assertEquals(CycleFingerprint.BYTES, b.length);
+		assertEquals(fp, CycleFingerprint.fromBytes(b));
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		fp.write(new DataOutputStream(bos));
+		assertArrayEquals(b, bos.toByteArray());
+		assertEquals(fp, CycleFingerprint.read(new DataInputStream(
+				new ByteArrayInputStream(bos.toByteArray()))));
+	}
+
+	@Test
+	public void testMD5() {
+		assertArrayEquals(CycleFingerprint.fromNormalization("",
+				CycleFingerprint.LEVEL_1).toBytes(), concat(
+				new byte[] { CycleFingerprint.LEVEL_1 },
+				CycleFingerprint.md5("")));
+		assertEquals(16, CycleFingerprint.md5("narf").length);
+	}
+
+	private static byte[] concat(byte[] a, byte[] b) {
+		byte[] rm = new byte[a.length + b.length];
+		System.arraycopy(a, 0, rm, 0, a.length);
+		System.arraycopy(b, 0, rm, a.length, b.length);
+		return rm;
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidLevel() {
+		CycleFingerprint.fromNormalization("1234", 3);
+	}
+}
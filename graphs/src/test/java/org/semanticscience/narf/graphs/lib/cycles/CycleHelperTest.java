@@ -20,6 +20,8 @@
  */
 package org.semanticscience.narf.graphs.lib.cycles;
 
+import static org.junit.Assert.*;
+
 import java.io.File;
 import java.math.BigDecimal;
 import java.net.URL;
@@ -30,10 +32,14 @@ import org.apache.commons.io.FileUtils;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.semanticscience.narf.graphs.lib.CompactGraph;
 import org.semanticscience.narf.graphs.nucleicacid.ExtractedNucleicAcid;
 import org.semanticscience.narf.graphs.nucleicacid.InteractionEdge;
 import org.semanticscience.narf.graphs.nucleicacid.NucleicAcid;
+import org.semanticscience.narf.structures.parts.DotBracketNotation;
 import org.semanticscience.narf.structures.parts.Nucleotide;
+import org.semanticscience.narf.structures.parts.Sequence;
+import org.semanticscience.narf.structures.secondary.SecondaryStructure;
 
 /**
  * @author Jose Cruz-Toledo
@@ -42,11 +48,16 @@ import org.semanticscience.narf.structures.parts.Nucleotide;
 public class CycleHelperTest {
 	private static String pdbId = "1Y26";
 	private static Set<NucleicAcid> nas;
+	private static NucleicAcid na;
 	/**
 	 * @throws java.lang.Exception
 	 */
 	@BeforeClass
 	public static void setUpBeforeClass() throws Exception {
+		Sequence seq = new Sequence(
+				"GGGAAACCCAGGGAAACCCUUUGGGGAAACCCCAAAGGGAAACCCAGGGAAACCC");
+		na = new NucleicAcid(new SecondaryStructure(new DotBracketNotation(
+				seq, "(((...)))((((...))))...((((...))))...(((...)))(((...)))")));
 		/*URL aURL = new URL("http://www.rcsb.org/pdb/files/" + pdbId + ".pdb");
 		File aFile = new File(FileUtils.getTempDirectoryPath() + "/" + pdbId
 				+ ".pdb");
@@ -60,6 +71,7 @@ public class CycleHelperTest {
 	@AfterClass
 	public static void tearDownAfterClass() throws Exception {
 		nas = null;
+		na = null;
 	}
 	
 	@Test
@@ -69,6 +81,71 @@ public class CycleHelperTest {
 		int c = CycleHelper.countOccurences(haystack, needle);
 		System.out.println(c);
 	}
+
+	@Test
+	public void testMinimalNormalizationIsTheCanonicalCode() {
+		for (Cycle<Nucleotide, InteractionEdge> aCycle : na
+				.getMinimumCycleBasis()) {
+			BigDecimal min = CycleHelper.findMinmalNormalization(na, aCycle,
+					true);
+			assertEquals(new BigDecimal(CycleHelper.codeToString(CycleHelper
+					.computeLevel1Code(aCycle))), min);
+			for (Cycle<Nucleotide, InteractionEdge> rot : CycleHelper
+					.findAllRotations(na, aCycle)) {
+				assertEquals(min,
+						CycleHelper.findMinmalNormalization(na, rot, true));
+			}
+		}
+	}
+
+	@Test
+	public void testMinimalNormalizationIsDirectionInvariant() {
+		CompactGraph<Nucleotide, InteractionEdge> cg = CompactGraph
+				.fromGraph(na);
+		for (Cycle<Nucleotide, InteractionEdge> aCycle : na
+				.getMinimumCycleBasis()) {
+			Cycle<Nucleotide, InteractionEdge> inverted = CompactCycle
+					.fromCycle(aCycle, cg).invert().asCycle();
+			assertEquals(
+					CycleHelper.findMinimalNormalizationString(aCycle, true),
+					CycleHelper.findMinimalNormalizationString(inverted, true));
+			assertEquals(
+					CycleHelper.findMinimalNormalizationString(aCycle, false),
+					CycleHelper.findMinimalNormalizationString(inverted, false));
+		}
+	}
+
+	@Test
+	public void testCanonicalCodeIsRotationAndDirectionInvariant() {
+		CompactGraph<Nucleotide, InteractionEdge> cg = CompactGraph
+				.fromGraph(na);
+		for (Cycle<Nucleotide, InteractionEdge> aCycle : na
+				.getMinimumCycleBasis()) {
+			int[] code = CycleHelper.computeLevel1Code(aCycle);
+			CompactCycle<Nucleotide, InteractionEdge> cc = CompactCycle
+					.fromCycle(aCycle, cg);
+			for (int k = 0; k < cc.size(); k++) {
+				assertArrayEquals(code,
+						CycleHelper.computeLevel1Code(cc.rotate(k).asCycle()));
+				assertArrayEquals(code, CycleHelper.computeLevel1Code(cc
+						.rotate(k).invert().asCycle()));
+			}
+			// the canonical code starts at a nucleotide
+			assertTrue(code[0] > 17);
+		}
+	}
+
+	@Test
+	public void testLeastRotation() {
+		int[] s = { 3, 1, 2, 1, 1 };
+		assertEquals(3, CycleHelper.leastRotation(s));
+		assertEquals(0, CycleHelper.leastRotation(new int[] { 1, 1, 1 }));
+		assertEquals(1, CycleHelper.leastRotation(new int[] { 2, 1, 2, 1 }));
+		assertTrue(CycleHelper.compareCodes(new int[] { 1, 2 }, new int[] {
+				1, 2, 0 }) < 0);
+		assertEquals("211711", CycleHelper.codeToString(new int[] { 21, 17,
+				1, 1 }));
+	}
 	
 	/*@SuppressWarnings("unused")
 	@Test 
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.SimpleWeightedGraph;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class CycleIncidenceIndexTest {
+	private static UndirectedGraph<String, String> sampleStem = null;
+	private static CycleIncidenceIndex<String, String> index = null;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		// a stem of four base pairs with a triangle hanging from v1
+		sampleStem = new SimpleWeightedGraph<String, String>(String.class);
+		for (int i = 1; i <= 9; i++) {
+			sampleStem.addVertex("v" + i);
+		}
+		sampleStem.addEdge("v1", "v2", "p1");
+		sampleStem.addEdge("v2", "v3", "p2");
+		sampleStem.addEdge("v3", "v4", "p3");
+		sampleStem.addEdge("v5", "v6", "p4");
+		sampleStem.addEdge("v6", "v7", "p5");
+		sampleStem.addEdge("v7", "v8", "p6");
+		sampleStem.addEdge("v1", "v8", "bp1");
+		sampleStem.addEdge("v2", "v7", "bp2");
+		sampleStem.addEdge("v3", "v6", "bp3");
+		sampleStem.addEdge("v4", "v5", "bp4");
+		sampleStem.addEdge("v1", "v9", "t1");
+		sampleStem.addEdge("v9", "v8", "t2");
+		index = new CycleIncidenceIndex<String, String>(
+				new MinimumCycleBasis<String, String>(sampleStem)
+						.getCycleBasis());
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		sampleStem = null;
+		index = null;
+	}
+
+	@Test
+	public void testCyclesByVertexAndEdge() {
+		assertEquals(4, index.getCycles().size());
+		assertEquals(2, index.getCyclesByVertex("v2").size());
+		assertEquals(2, index.getCyclesByEdge("bp2").size());
+		assertEquals(1, index.getCyclesByEdge("p1").size());
+		assertTrue(index.getCyclesByEdge("nothing").isEmpty());
+	}
+
+	@Test
+	public void testNeighbours() {
+		int triangle = index.getCycleId(index.getCyclesByEdge("t1").get(0));
+		int square = index.getCycleId(index.getCyclesByEdge("p1").get(0));
+		// the triangle shares edge bp1 with the first square only
+		List<Cycle<String, String>> en = index.findEdgeNeighbours(triangle);
+		assertEquals(1, en.size());
+		assertEquals(square, index.getCycleId(en.get(0)));
+		// the first square shares vertices with the triangle and the second
+		// square, and an edge with both
+		assertEquals(2, index.findVertexNeighbours(square).size());
+		assertEquals(2, index.findEdgeNeighbours(square).size());
+		assertFalse(index.findVertexNeighbourIds(square).get(square));
+	}
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.SimpleWeightedGraph;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class CycleIteratorTest {
+	private static UndirectedGraph<String, String> ladder = null;
+	private static List<Cycle<String, String>> chordless = null;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		// a circular ladder of six rungs: up to six edges, the chordless
+		// cycles are the six squares and both rails
+		ladder = new SimpleWeightedGraph<String, String>(String.class);
+		for (int i = 1; i <= 6; i++) {
+			ladder.addVertex("a" + i);
+			ladder.addVertex("b" + i);
+			ladder.addEdge("a" + i, "b" + i, "r" + i);
+		}
+		for (int i = 1; i <= 6; i++) {
+			int j = i % 6 + 1;
+			ladder.addEdge("a" + i, "a" + j, "pa" + i);
+			ladder.addEdge("b" + i, "b" + j, "pb" + i);
+		}
+		chordless = new ChordlessCycleBasis<String, String>(ladder, 6, 1)
+				.getCycleBasis();
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		ladder = null;
+		chordless = null;
+	}
+
+	@Test
+	public void testLazyChordlessCyclesMatchBasis() {
+		assertEquals(8, chordless.size());
+		assertEquals(chordless, ChordlessCycleBasis.iterator(ladder, 6)
+				.toList());
+	}
+
+	@Test
+	public void testSplitCoversEveryCycle() {
+		CycleIterator<String, String> it = ChordlessCycleBasis.iterator(
+				ladder, 6);
+		it.next();
+		List<CycleIterator<String, String>> parts = new ArrayList<CycleIterator<String, String>>();
+		parts.add(it);
+		CycleIterator<String, String> split;
+		while ((split = it.trySplit()) != null) {
+			parts.add(split);
+		}
+		Set<Cycle<String, String>> seen = new HashSet<Cycle<String, String>>();
+		int n = 1;
+		for (CycleIterator<String, String> aPart : parts) {
+			while (aPart.hasNext()) {
+				seen.add(aPart.next());
+				n++;
+			}
+		}
+		assertEquals(chordless.size(), n);
+		assertEquals(chordless.size() - 1, seen.size());
+	}
+
+	@Test
+	public void testSizeFilter() {
+		CycleIterator<String, String> it = CycleIterator.withSizeBetween(
+				CycleIterator.fromList(chordless), 5, 6);
+		List<Cycle<String, String>> l = it.toList();
+		assertEquals(2, l.size());
+		for (Cycle<String, String> c : l) {
+			assertEquals(6, c.size());
+		}
+	}
+
+	@Test
+	public void testParallelVisit() {
+		final AtomicInteger n = new AtomicInteger();
+		boolean completed = CycleIterator.forEach(
+				ChordlessCycleBasis.iterator(ladder, 6),
+				new CycleIterator.Visitor<String, String>() {
+					public boolean visit(Cycle<String, String> aCycle) {
+						n.incrementAndGet();
+						return true;
+					}
+				}, 4);
+		assertTrue(completed);
+		assertEquals(chordless.size(), n.get());
+	}
+
+	@Test
+	public void testEarlyTermination() {
+		final AtomicInteger n = new AtomicInteger();
+		boolean completed = CycleIterator.fromList(chordless).visitRemaining(
+				new CycleIterator.Visitor<String, String>() {
+					public boolean visit(Cycle<String, String> aCycle) {
+						return n.incrementAndGet() < 3;
+					}
+				});
+		assertFalse(completed);
+		assertEquals(3, n.get());
+	}
+}
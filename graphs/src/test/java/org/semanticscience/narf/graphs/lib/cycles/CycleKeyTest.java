@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.SimpleWeightedGraph;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.semanticscience.narf.graphs.lib.CompactGraph;
+
+/**
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class CycleKeyTest {
+	private static UndirectedGraph<String, String> square = null;
+	private static CompactGraph<String, String> graph = null;
+	private static Cycle<String, String> cycle = null;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		// a square with one diagonal
+		square = new SimpleWeightedGraph<String, String>(String.class);
+		for (int i = 1; i <= 4; i++) {
+			square.addVertex("v" + i);
+		}
+		square.addEdge("v1", "v2", "a");
+		square.addEdge("v2", "v3", "b");
+		square.addEdge("v3", "v4", "c");
+		square.addEdge("v4", "v1", "d");
+		square.addEdge("v1", "v3", "e");
+		graph = CompactGraph.fromGraph(square);
+		List<String> el = new ArrayList<String>();
+		el.add("a");
+		el.add("b");
+		el.add("c");
+		el.add("d");
+		cycle = new Cycle<String, String>(square, "v1", "v4", el, el.size());
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		square = null;
+		graph = null;
+		cycle = null;
+	}
+
+	@Test
+	public void testKeyIgnoresRotationAndDirection() throws Exception {
+		CycleKey k = CycleKey.fromCycle(cycle, graph);
+		Cycle<String, String> rotated = cycle.rotateCycle("v2", "v1");
+		assertEquals(k, CycleKey.fromCycle(rotated, graph));
+		assertEquals(k, CycleKey.fromCycle(cycle.invertCycle(), graph));
+		int[] ids = new int[] { graph.getVertexId("v3"),
+				graph.getVertexId("v2"), graph.getVertexId("v1"),
+				graph.getVertexId("v4") };
+		assertEquals(k, CycleKey.fromVertexIds(graph, ids));
+		assertEquals(k.hashCode(), CycleKey.fromVertexIds(graph, ids)
+				.hashCode());
+		assertEquals(4, k.size());
+	}
+
+	@Test
+	public void testDifferentCyclesHaveDifferentKeys() {
+		int[] t1 = new int[] { graph.getVertexId("v1"),
+				graph.getVertexId("v2"), graph.getVertexId("v3") };
+		int[] t2 = new int[] { graph.getVertexId("v1"),
+				graph.getVertexId("v3"), graph.getVertexId("v4") };
+		Set<CycleKey> keys = new HashSet<CycleKey>();
+		keys.add(CycleKey.fromCycle(cycle, graph));
+		assertTrue(keys.add(CycleKey.fromVertexIds(graph, t1)));
+		assertTrue(keys.add(CycleKey.fromVertexIds(graph, t2)));
+		assertFalse(keys.add(CycleKey.fromVertexIds(graph, new int[] {
+				t2[2], t2[1], t2[0] })));
+		assertEquals(3, keys.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonAdjacentVertices() {
+		CycleKey.fromVertexIds(graph, new int[] { graph.getVertexId("v2"),
+				graph.getVertexId("v4"), graph.getVertexId("v1") });
+	}
+
+	@Test
+	public void testCycleHashCodeIgnoresRotationAndDirection()
+			throws Exception {
+		Set<Cycle<String, String>> cycles = new HashSet<Cycle<String, String>>();
+		cycles.add(cycle);
+		assertFalse(cycles.add(cycle.invertCycle()));
+		assertFalse(cycles.add(cycle.rotateCycle("v2", "v1")));
+		assertEquals(1, cycles.size());
+	}
+}
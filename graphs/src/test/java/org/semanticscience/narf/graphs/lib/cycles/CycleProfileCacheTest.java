@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import static org.junit.Assert.*;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.semanticscience.narf.graphs.lib.CompactGraph;
+import org.semanticscience.narf.graphs.nucleicacid.InteractionEdge;
+import org.semanticscience.narf.graphs.nucleicacid.NucleicAcid;
+import org.semanticscience.narf.structures.interactions.BasePair;
+import org.semanticscience.narf.structures.parts.DotBracketNotation;
+import org.semanticscience.narf.structures.parts.Nucleotide;
+import org.semanticscience.narf.structures.parts.Sequence;
+import org.semanticscience.narf.structures.secondary.SecondaryStructure;
+
+/**
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class CycleProfileCacheTest {
+	private static SecondaryStructure ss;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		Sequence seq = new Sequence("GGGAAACCCAGGGAAACCC");
+		ss = new SecondaryStructure(new DotBracketNotation(seq,
+				"(((...))).(((...)))"));
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		ss = null;
+	}
+
+	@Test
+	public void testProfilesAreComputedOnce() {
+		NucleicAcid na = new NucleicAcid(ss);
+		CycleProfileCache cache = na.getCycleProfileCache();
+		assertSame(cache, na.getCycleProfileCache());
+		for (Cycle<Nucleotide, InteractionEdge> aCycle : na
+				.getMinimumCycleBasis()) {
+			String n = cache.getNormalization(aCycle, CycleFingerprint.LEVEL_1);
+			assertEquals(
+					CycleHelper.findMinimalNormalizationString(aCycle, true), n);
+			assertSame(n,
+					cache.getNormalization(aCycle, CycleFingerprint.LEVEL_1));
+			CycleFingerprint fp = cache.getFingerprint(aCycle,
+					CycleFingerprint.LEVEL_1);
+			assertEquals(
+					CycleFingerprint.fromNormalization(n,
+							CycleFingerprint.LEVEL_1), fp);
+			assertSame(fp,
+					cache.getFingerprint(aCycle, CycleFingerprint.LEVEL_1));
+		}
+		assertEquals(na.getMinimumCycleBasis().size(), cache.size());
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testProfilesDoNotDependOnDirection() {
+		NucleicAcid na = new NucleicAcid(ss);
+		CompactGraph<Nucleotide, InteractionEdge> cg = CompactGraph
+				.fromGraph(na);
+		CycleProfileCache cache = na.getCycleProfileCache();
+		for (Cycle<Nucleotide, InteractionEdge> aCycle : na
+				.getMinimumCycleBasis()) {
+			// the inverted cycle is asked for first and shares the entry
+			Cycle<Nucleotide, InteractionEdge> inverted = CompactCycle
+					.fromCycle(aCycle, cg).invert().asCycle();
+			for (int level = CycleFingerprint.LEVEL_1; level <= CycleFingerprint.LEVEL_2; level++) {
+				String n = cache.getNormalization(inverted, level);
+				assertEquals(CycleHelper.findMinimalNormalizationString(
+						aCycle, level == CycleFingerprint.LEVEL_1), n);
+				assertEquals(n, cache.getNormalization(aCycle, level));
+			}
+		}
+		assertEquals(na.getMinimumCycleBasis().size(), cache.size());
+	}
+
+	@Test
+	public void testCacheIsDroppedWhenInteractionsChange() {
+		NucleicAcid na = new NucleicAcid(ss);
+		na.getMinimumCycleBasis();
+		CycleProfileCache cache = na.getCycleProfileCache();
+		DotBracketNotation dbn = ss.getDotBracketNotation();
+		assertTrue(na.addInteraction(new BasePair(dbn
+				.getNucleotideAtPosition(5), dbn.getNucleotideAtPosition(15))));
+		assertNotSame(cache, na.getCycleProfileCache());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidLevel() {
+		NucleicAcid na = new NucleicAcid(ss);
+		na.getCycleProfileCache().getNormalization(
+				na.getMinimumCycleBasis().get(0), 0);
+	}
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.SimpleWeightedGraph;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.semanticscience.narf.graphs.lib.CompactGraph;
+
+/**
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class CycleSpaceTest {
+	private static UndirectedGraph<String, String> sampleStem = null;
+	private static CompactGraph<String, String> compactStem = null;
+	private static MinimumCycleBasis<String, String> mcb_stem = null;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		sampleStem = createSampleStem();
+		compactStem = CompactGraph.fromGraph(sampleStem);
+		mcb_stem = new MinimumCycleBasis<String, String>(sampleStem);
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		sampleStem = null;
+		compactStem = null;
+		mcb_stem = null;
+	}
+
+	@Test
+	public void testIncrementalRank() {
+		CycleSpace<String, String> space = new CycleSpace<String, String>(
+				compactStem);
+		assertEquals(3, space.getDimension());
+		List<Cycle<String, String>> squares = mcb_stem.getCycleBasis();
+		assertTrue(space.add(squares.get(0)));
+		assertTrue(space.add(squares.get(1)));
+		assertEquals(2, space.getRank());
+		assertFalse(space.isComplete());
+		// the sum of two adjacent squares is a hexagon
+		long[] sum = space.toVector(squares.get(0));
+		long[] other = space.toVector(squares.get(1));
+		for (int i = 0; i < sum.length; i++) {
+			sum[i] ^= other[i];
+		}
+		assertTrue(space.isEulerian(sum));
+		assertFalse(space.isIndependent(sum));
+		assertTrue(CycleSpace.isZero(space.reduce(sum)));
+		assertFalse(space.add(sum));
+		assertTrue(space.isIndependent(squares.get(2)));
+		assertTrue(space.add(squares.get(2)));
+		assertTrue(space.isComplete());
+	}
+
+	@Test
+	public void testPathsAreNotInTheCycleSpace() {
+		CycleSpace<String, String> space = new CycleSpace<String, String>(
+				compactStem);
+		int[] path = { compactStem.getEdgeId("p1"),
+				compactStem.getEdgeId("p2") };
+		assertFalse(space.isEulerian(space.toVector(path)));
+	}
+
+	@Test
+	public void testVerifyBases() {
+		assertTrue(CycleSpace.verify(mcb_stem));
+		assertTrue(CycleSpace.verify(new FundamentalCycleBasis<String, String>(
+				sampleStem)));
+		assertTrue(CycleSpace.verify(new MinimumCycleBasis<String, String>(
+				createLargeGraph())));
+	}
+
+	@Test
+	public void testVerifyRejectsDependentCycles() {
+		List<Cycle<String, String>> cycles = new ArrayList<Cycle<String, String>>(
+				mcb_stem.getCycleBasis());
+		cycles.set(2, cycles.get(1));
+		assertEquals(2, CycleSpace.rank(compactStem, cycles));
+		assertFalse(CycleSpace.verify(compactStem, cycles));
+		cycles.remove(2);
+		assertFalse(CycleSpace.verify(compactStem, cycles));
+	}
+
+	/**
+	 * A stem of four base pairs joined by backbone edges
+	 */
+	private static UndirectedGraph<String, String> createSampleStem() {
+		UndirectedGraph<String, String> rm = new SimpleWeightedGraph<String, String>(
+				String.class);
+		for (int i = 1; i <= 8; i++) {
+			rm.addVertex("v" + i);
+		}
+		rm.addEdge("v1", "v2", "p1");
+		rm.addEdge("v2", "v3", "p2");
+		rm.addEdge("v3", "v4", "p3");
+		rm.addEdge("v5", "v6", "p4");
+		rm.addEdge("v6", "v7", "p5");
+		rm.addEdge("v7", "v8", "p6");
+		rm.addEdge("v1", "v8", "bp1");
+		rm.addEdge("v2", "v7", "bp2");
+		rm.addEdge("v3", "v6", "bp3");
+		rm.addEdge("v4", "v5", "bp4");
+		return rm;
+	}
+
+	/**
+	 * A backbone of 200 nucleotides with long range contacts, so that the
+	 * incidence vectors span several longs
+	 */
+	private static UndirectedGraph<String, String> createLargeGraph() {
+		UndirectedGraph<String, String> rm = new SimpleWeightedGraph<String, String>(
+				String.class);
+		for (int i = 0; i < 200; i++) {
+			rm.addVertex("v" + i);
+		}
+		for (int i = 0; i < 199; i++) {
+			rm.addEdge("v" + i, "v" + (i + 1), "p" + i);
+		}
+		for (int i = 0; i + 37 < 200; i += 3) {
+			rm.addEdge("v" + i, "v" + (i + 37), "bp" + i);
+		}
+		return rm;
+	}
+}
@@ -278,6 +278,43 @@ public class CycleTest {
 	}*/
 	
 	
+	@Test
+	public void testPositionalLookups() {
+		assertEquals(0, pentaCycle.getVertexPosition("v1"));
+		assertEquals(4, pentaCycle.getVertexPosition("v5"));
+		assertEquals(-1, pentaCycle.getVertexPosition("v6"));
+		assertEquals("v3", pentaCycle.getVertex(2));
+		assertEquals("c", pentaCycle.getEdge(2));
+		assertEquals("v1", pentaCycle.getNextVertex("v5"));
+		assertEquals("e", pentaCycle.getNextEdge("v5"));
+		assertEquals("e", pentaCycle.getIncomingEdge("v1"));
+		assertEquals("b", pentaCycle.getIncomingEdge("v3"));
+		assertNull(pentaCycle.getIncomingEdge("v6"));
+	}
+
+	@Test
+	public void testEdgeLinkedListIsACopy() {
+		LinkedList<String> el = pentaCycle.getEdgeLinkedList();
+		el.removeFirst();
+		assertEquals(5, pentaCycle.size());
+		assertEquals("a", pentaCycle.getFirstEdge());
+	}
+
+	@Test
+	public void testInvertCycle() {
+		Cycle<String, String> inv = pentaCycle.invertCycle();
+		List<String> el = new ArrayList<String>();
+		el.add("d");
+		el.add("c");
+		el.add("b");
+		el.add("a");
+		el.add("e");
+		assertEquals(el, inv.getEdgeList());
+		assertEquals("v5", inv.getStartVertex());
+		assertEquals("v1", inv.getEndVertex());
+		assertTrue(inv.equals(pentaCycle));
+	}
+
 	@Test
 	public void testContainsVertex(){
 		String v = "v5";
@@ -22,6 +22,10 @@ package org.semanticscience.narf.graphs.lib.cycles;
 
 import static org.junit.Assert.*;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.jgrapht.UndirectedGraph;
 import org.jgrapht.graph.SimpleWeightedGraph;
 import org.junit.AfterClass;
@@ -66,6 +70,30 @@ public class FundamentalCycleBasisTest {
 		System.out.println(mcb_stem.getCycleBasis());
 	}
 
+	@Test
+	public void testTreeCyclesFormABasis() {
+		// |E| - |V| + 1 independent cycles
+		List<Cycle<String, String>> l = mcb_stem.getCycleBasis();
+		assertEquals(3, l.size());
+		Set<String> covered = new HashSet<String>();
+		for (Cycle<String, String> c : l) {
+			covered.addAll(c.getEdgeList());
+			// the last edge is the edge that is not in the tree
+			assertEquals(c.getStartVertex(),
+					sampleStem.getEdgeSource(c.getLastEdge()));
+			assertEquals(c.getEndVertex(),
+					sampleStem.getEdgeTarget(c.getLastEdge()));
+		}
+		assertEquals(sampleStem.edgeSet(), covered);
+	}
+
+	@Test
+	public void testSplitCyclesAreStillAvailable() {
+		FundamentalCycleBasis<String, String> split = new FundamentalCycleBasis<String, String>(
+				sampleStem, true);
+		assertEquals(3, split.getCycleBasis().size());
+	}
+
 	private static UndirectedGraph<String, String> createSampleGraph() {
 		UndirectedGraph<String, String> rm = new SimpleWeightedGraph<String, String>(
 				String.class);
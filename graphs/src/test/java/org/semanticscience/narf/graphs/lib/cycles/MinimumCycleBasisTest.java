@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.SimpleWeightedGraph;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openscience.cdk.ringsearch.cyclebasis.SimpleCycle;
+
+/**
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class MinimumCycleBasisTest {
+	private static UndirectedGraph<String, String> sampleGraph = null;
+	private static UndirectedGraph<String, String> sampleStem = null;
+	private static UndirectedGraph<String, String> sampleTree = null;
+
+	private static MinimumCycleBasis<String, String> mcb = null;
+	private static MinimumCycleBasis<String, String> mcb_stem = null;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		sampleGraph = createSampleGraph();
+		sampleStem = createSampleStem();
+		sampleTree = createSampleTree();
+		mcb = new MinimumCycleBasis<String, String>(sampleGraph);
+		mcb_stem = new MinimumCycleBasis<String, String>(sampleStem);
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		sampleGraph = null;
+		sampleStem = null;
+		sampleTree = null;
+		mcb = null;
+		mcb_stem = null;
+	}
+
+	@Test
+	public void testBasisSize() {
+		assertEquals(sampleGraph.edgeSet().size()
+				- sampleGraph.vertexSet().size() + 1, mcb.getCycleBasis()
+				.size());
+		assertEquals(3, mcb_stem.getCycleBasis().size());
+	}
+
+	@Test
+	public void testStemCyclesAreSquares() {
+		for (Cycle<String, String> c : mcb_stem.getCycleBasis()) {
+			assertEquals(4, c.size());
+			assertEquals(4.0, c.getWeight(), 0.0);
+		}
+	}
+
+	@Test
+	public void testCyclesAreClosed() {
+		for (Cycle<String, String> c : mcb.getCycleBasis()) {
+			String s = c.getFirstVertex();
+			String e = c.getLastVertex();
+			assertTrue(sampleGraph.containsEdge(s, e));
+			assertEquals(c.size(), c.getVertexList().size());
+		}
+	}
+
+	@Test
+	public void testTreeHasNoCycles() {
+		MinimumCycleBasis<String, String> t = new MinimumCycleBasis<String, String>(
+				sampleTree);
+		assertTrue(t.getCycleBasis().isEmpty());
+	}
+
+	@Test
+	public void testSameSizesAsCDK() {
+		assertEquals(cdkCycleSizes(sampleGraph), cycleSizes(mcb));
+		assertEquals(cdkCycleSizes(sampleStem), cycleSizes(mcb_stem));
+	}
+
+	private static List<Integer> cycleSizes(MinimumCycleBasis<String, String> aBasis) {
+		List<Integer> rm = new ArrayList<Integer>();
+		for (Cycle<String, String> c : aBasis.getCycleBasis()) {
+			rm.add(c.size());
+		}
+		Collections.sort(rm);
+		return rm;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Integer> cdkCycleSizes(UndirectedGraph<String, String> aG) {
+		org._3pq.jgrapht.graph.SimpleGraph sg = new org._3pq.jgrapht.graph.SimpleGraph();
+		for (String v : aG.vertexSet()) {
+			sg.addVertex(v);
+		}
+		for (String e : aG.edgeSet()) {
+			sg.addEdge(aG.getEdgeSource(e), aG.getEdgeTarget(e));
+		}
+		org.openscience.cdk.ringsearch.cyclebasis.CycleBasis cb = new org.openscience.cdk.ringsearch.cyclebasis.CycleBasis(
+				sg);
+		List<Integer> rm = new ArrayList<Integer>();
+		for (SimpleCycle sc : (List<SimpleCycle>) cb.cycles()) {
+			rm.add(sc.edgeSet().size());
+		}
+		Collections.sort(rm);
+		return rm;
+	}
+
+	/**
+	 * A square with both diagonals, a pendant triangle and a hexagon sharing
+	 * one edge with the square
+	 */
+	private static UndirectedGraph<String, String> createSampleGraph() {
+		UndirectedGraph<String, String> rm = new SimpleWeightedGraph<String, String>(
+				String.class);
+		for (int i = 1; i <= 10; i++) {
+			rm.addVertex("v" + i);
+		}
+		rm.addEdge("v1", "v2", "a");
+		rm.addEdge("v2", "v3", "b");
+		rm.addEdge("v3", "v4", "c");
+		rm.addEdge("v4", "v1", "d");
+		rm.addEdge("v1", "v3", "e");
+		rm.addEdge("v2", "v4", "f");
+		rm.addEdge("v4", "v5", "g");
+		rm.addEdge("v5", "v6", "h");
+		rm.addEdge("v6", "v4", "i");
+		rm.addEdge("v2", "v7", "j");
+		rm.addEdge("v7", "v8", "k");
+		rm.addEdge("v8", "v9", "l");
+		rm.addEdge("v9", "v10", "m");
+		rm.addEdge("v10", "v3", "n");
+		return rm;
+	}
+
+	/**
+	 * A stem of four base pairs joined by backbone edges
+	 */
+	private static UndirectedGraph<String, String> createSampleStem() {
+		UndirectedGraph<String, String> rm = new SimpleWeightedGraph<String, String>(
+				String.class);
+		for (int i = 1; i <= 8; i++) {
+			rm.addVertex("v" + i);
+		}
+		rm.addEdge("v1", "v2", "p1");
+		rm.addEdge("v2", "v3", "p2");
+		rm.addEdge("v3", "v4", "p3");
+		rm.addEdge("v5", "v6", "p4");
+		rm.addEdge("v6", "v7", "p5");
+		rm.addEdge("v7", "v8", "p6");
+		rm.addEdge("v1", "v8", "bp1");
+		rm.addEdge("v2", "v7", "bp2");
+		rm.addEdge("v3", "v6", "bp3");
+		rm.addEdge("v4", "v5", "bp4");
+		return rm;
+	}
+
+	private static UndirectedGraph<String, String> createSampleTree() {
+		UndirectedGraph<String, String> rm = new SimpleWeightedGraph<String, String>(
+				String.class);
+		for (int i = 1; i <= 4; i++) {
+			rm.addVertex("v" + i);
+		}
+		rm.addEdge("v1", "v2", "a");
+		rm.addEdge("v2", "v3", "b");
+		rm.addEdge("v2", "v4", "c");
+		return rm;
+	}
+}
@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) 2013  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.lib.cycles;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jgrapht.UndirectedGraph;
+import org.jgrapht.graph.SimpleWeightedGraph;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class RelevantCyclesTest {
+	private static UndirectedGraph<String, String> cube = null;
+	private static UndirectedGraph<String, String> bipartite = null;
+	private static UndirectedGraph<String, String> sampleGraph = null;
+	private static UndirectedGraph<String, String> squareAndHexagon = null;
+
+	private static RelevantCycles<String, String> rc_cube = null;
+	private static RelevantCycles<String, String> rc_bipartite = null;
+	private static RelevantCycles<String, String> rc_sample = null;
+	private static RelevantCycles<String, String> rc_squareAndHexagon = null;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		cube = createCube();
+		bipartite = createCompleteBipartite();
+		sampleGraph = createSampleGraph();
+		rc_cube = new RelevantCycles<String, String>(cube);
+		rc_bipartite = new RelevantCycles<String, String>(bipartite);
+		rc_sample = new RelevantCycles<String, String>(sampleGraph);
+		squareAndHexagon = createSquareAndHexagon();
+		rc_squareAndHexagon = new RelevantCycles<String, String>(
+				squareAndHexagon);
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		cube = null;
+		bipartite = null;
+		sampleGraph = null;
+		rc_cube = null;
+		rc_bipartite = null;
+		rc_sample = null;
+		squareAndHexagon = null;
+		rc_squareAndHexagon = null;
+	}
+
+	@Test
+	public void testCubeFacesAreTheRelevantCycles() {
+		assertEquals(6, rc_cube.countRelevantCycles());
+		for (Cycle<String, String> c : rc_cube.relevantCycleIterator()
+				.toList()) {
+			assertEquals(4, c.size());
+		}
+	}
+
+	@Test
+	public void testAllSquaresOfK33AreRelevant() {
+		// every 4-cycle of K3,3 belongs to some minimum cycle basis
+		assertEquals(9, rc_bipartite.countRelevantCycles());
+		assertEquals(9, distinctEdgeSets(rc_bipartite).size());
+	}
+
+	@Test
+	public void testSameCountAsCDK() {
+		assertEquals(cdkRelevantCount(cube), rc_cube.countRelevantCycles());
+		assertEquals(cdkRelevantCount(bipartite),
+				rc_bipartite.countRelevantCycles());
+		assertEquals(cdkRelevantCount(sampleGraph),
+				rc_sample.countRelevantCycles());
+		assertEquals(cdkRelevantCount(squareAndHexagon),
+				rc_squareAndHexagon.countRelevantCycles());
+	}
+
+	@Test
+	public void testBothHexagonsFormOneFamily() {
+		// the square and either hexagon form a minimum cycle basis
+		assertEquals(2, rc_squareAndHexagon.getFamilyCount());
+		assertEquals(1, rc_squareAndHexagon.getFamilySize(0));
+		assertEquals(2, rc_squareAndHexagon.getFamilySize(1));
+		assertEquals(3, rc_squareAndHexagon.countRelevantCycles());
+		List<Cycle<String, String>> hexagons = rc_squareAndHexagon
+				.familyIterator(1).toList();
+		assertEquals(2, hexagons.size());
+		assertEquals(rc_squareAndHexagon.getCycleBasis().get(1),
+				hexagons.get(0));
+		assertEquals(6, hexagons.get(1).size());
+		assertFalse(hexagons.get(0).equals(hexagons.get(1)));
+	}
+
+	@Test
+	public void testFamiliesExpandToTheirSize() {
+		long total = 0;
+		for (int i = 0; i < rc_sample.getFamilyCount(); i++) {
+			List<Cycle<String, String>> family = rc_sample.familyIterator(i)
+					.toList();
+			assertEquals(rc_sample.getFamilySize(i), family.size());
+			assertEquals(rc_sample.getCycleBasis().get(i), family.get(0));
+			total += family.size();
+		}
+		assertEquals(rc_sample.countRelevantCycles(), total);
+		assertEquals(total, distinctEdgeSets(rc_sample).size());
+	}
+
+	@Test
+	public void testPrototypesSpanTheCycleSpace() {
+		MinimumCycleBasis<String, String> mcb = new MinimumCycleBasis<String, String>(
+				sampleGraph);
+		assertTrue(rc_sample.getCycleBasis().size() >= mcb.getCycleBasis()
+				.size());
+		assertEquals(mcb.getCycleBasis().get(0).size(), rc_sample
+				.getCycleBasis().get(0).size());
+	}
+
+	@Test
+	public void testTreeHasNoRelevantCycles() {
+		UndirectedGraph<String, String> tree = new SimpleWeightedGraph<String, String>(
+				String.class);
+		tree.addVertex("v1");
+		tree.addVertex("v2");
+		tree.addVertex("v3");
+		tree.addEdge("v1", "v2", "a");
+		tree.addEdge("v2", "v3", "b");
+		RelevantCycles<String, String> t = new RelevantCycles<String, String>(
+				tree);
+		assertEquals(0, t.getFamilyCount());
+		assertEquals(0, t.countRelevantCycles());
+		assertFalse(t.relevantCycleIterator().hasNext());
+	}
+
+	private static Set<Set<String>> distinctEdgeSets(
+			RelevantCycles<String, String> aRelevantCycles) {
+		Set<Set<String>> rm = new HashSet<Set<String>>();
+		for (Cycle<String, String> c : aRelevantCycles.relevantCycleIterator()
+				.toList()) {
+			rm.add(new HashSet<String>(c.getEdgeList()));
+		}
+		return rm;
+	}
+
+	private static int cdkRelevantCount(UndirectedGraph<String, String> aG) {
+		org._3pq.jgrapht.graph.SimpleGraph sg = new org._3pq.jgrapht.graph.SimpleGraph();
+		for (String v : aG.vertexSet()) {
+			sg.addVertex(v);
+		}
+		for (String e : aG.edgeSet()) {
+			sg.addEdge(aG.getEdgeSource(e), aG.getEdgeTarget(e));
+		}
+		return new org.openscience.cdk.ringsearch.cyclebasis.CycleBasis(sg)
+				.relevantCycles().size();
+	}
+
+	private static UndirectedGraph<String, String> createCube() {
+		UndirectedGraph<String, String> rm = new SimpleWeightedGraph<String, String>(
+				String.class);
+		for (int i = 0; i < 8; i++) {
+			rm.addVertex("v" + i);
+		}
+		for (int i = 0; i < 8; i++) {
+			for (int bit = 1; bit < 8; bit <<= 1) {
+				int j = i ^ bit;
+				if (i < j) {
+					rm.addEdge("v" + i, "v" + j, "e" + i + "_" + j);
+				}
+			}
+		}
+		return rm;
+	}
+
+	private static UndirectedGraph<String, String> createCompleteBipartite() {
+		UndirectedGraph<String, String> rm = new SimpleWeightedGraph<String, String>(
+				String.class);
+		for (int i = 1; i <= 3; i++) {
+			rm.addVertex("a" + i);
+			rm.addVertex("b" + i);
+		}
+		for (int i = 1; i <= 3; i++) {
+			for (int j = 1; j <= 3; j++) {
+				rm.addEdge("a" + i, "b" + j, "a" + i + "b" + j);
+			}
+		}
+		return rm;
+	}
+
+	/**
+	 * A square r-a-p-b and a hexagon through p whose path from r can take
+	 * either side of the square. Vertex r is added last so that it is the
+	 * root of both cycles.
+	 */
+	private static UndirectedGraph<String, String> createSquareAndHexagon() {
+		UndirectedGraph<String, String> rm = new SimpleWeightedGraph<String, String>(
+				String.class);
+		String[] vertices = { "a", "b", "p", "x", "q", "y", "r" };
+		for (String v : vertices) {
+			rm.addVertex(v);
+		}
+		rm.addEdge("r", "a", "ra");
+		rm.addEdge("r", "b", "rb");
+		rm.addEdge("a", "p", "ap");
+		rm.addEdge("b", "p", "bp");
+		rm.addEdge("r", "x", "rx");
+		rm.addEdge("x", "q", "xq");
+		rm.addEdge("p", "y", "py");
+		rm.addEdge("q", "y", "qy");
+		return rm;
+	}
+
+	/**
+	 * A square with both diagonals, a pendant triangle and a hexagon sharing
+	 * one edge with the square
+	 */
+	private static UndirectedGraph<String, String> createSampleGraph() {
+		UndirectedGraph<String, String> rm = new SimpleWeightedGraph<String, String>(
+				String.class);
+		for (int i = 1; i <= 10; i++) {
+			rm.addVertex("v" + i);
+		}
+		rm.addEdge("v1", "v2", "a");
+		rm.addEdge("v2", "v3", "b");
+		rm.addEdge("v3", "v4", "c");
+		rm.addEdge("v4", "v1", "d");
+		rm.addEdge("v1", "v3", "e");
+		rm.addEdge("v2", "v4", "f");
+		rm.addEdge("v4", "v5", "g");
+		rm.addEdge("v5", "v6", "h");
+		rm.addEdge("v6", "v4", "i");
+		rm.addEdge("v2", "v7", "j");
+		rm.addEdge("v7", "v8", "k");
+		rm.addEdge("v8", "v9", "l");
+		rm.addEdge("v9", "v10", "m");
+		rm.addEdge("v10", "v3", "n");
+		return rm;
+	}
+}
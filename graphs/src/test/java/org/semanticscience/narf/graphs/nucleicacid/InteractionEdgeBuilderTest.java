@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2014  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.nucleicacid;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.semanticscience.narf.structures.interactions.BasePair;
+import org.semanticscience.narf.structures.interactions.BaseStack;
+import org.semanticscience.narf.structures.interactions.NucleotideInteraction;
+import org.semanticscience.narf.structures.interactions.PhosphodiesterBond;
+import org.semanticscience.narf.structures.parts.Nucleotide;
+import org.semanticscience.narf.structures.parts.Sequence;
+
+/**
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class InteractionEdgeBuilderTest {
+
+	private static Sequence seq;
+	private static NucleicAcid na;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		seq = new Sequence("GGAAACC");
+		Set<NucleotideInteraction> ints = new LinkedHashSet<NucleotideInteraction>();
+		for (int i = 1; i < 7; i++) {
+			ints.add(new PhosphodiesterBond(nuc(i), nuc(i + 1)));
+		}
+		// a stack on the same pairs as two of the bonds, one of them given
+		// in reverse orientation
+		ints.add(new BaseStack(nuc(1), nuc(2), true));
+		ints.add(new BaseStack(nuc(7), nuc(6), true));
+		ints.add(new BasePair(nuc(1), nuc(7)));
+		ints.add(new BasePair(nuc(2), nuc(6)));
+		Map<String, Sequence> sm = new HashMap<String, Sequence>();
+		sm.put("A", seq);
+		na = new NucleicAcid(1, sm, ints);
+	}
+
+	private static Nucleotide nuc(int aPosition) {
+		return seq.getNucleotideAtPosition(aPosition);
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		na = null;
+		seq = null;
+	}
+
+	@Test
+	public void testOneEdgePerPair() {
+		// 6 backbone pairs and 2 base pairs
+		assertEquals(8, na.edgeSet().size());
+		InteractionEdge e12 = na.getEdge(nuc(1), nuc(2));
+		assertEquals(2, e12.getInteractions().size());
+		assertEquals(1, na.getEdge(nuc(2), nuc(3)).getInteractions().size());
+	}
+
+	@Test
+	public void testEdgeWeights() {
+		assertEquals(1.0, na.getEdgeWeight(na.getEdge(nuc(3), nuc(4))), 0.0);
+		assertEquals(6.0, na.getEdgeWeight(na.getEdge(nuc(1), nuc(7))), 0.0);
+		assertEquals(4.0, na.getEdgeWeight(na.getEdge(nuc(6), nuc(2))), 0.0);
+	}
+
+	@Test
+	public void testEdgeOrientation() {
+		InteractionEdge e = na.getEdge(nuc(7), nuc(1));
+		assertEquals(nuc(1), na.getEdgeSource(e));
+		assertEquals(nuc(7), na.getEdgeTarget(e));
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2014  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.nucleicacid;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.semanticscience.narf.structures.interactions.BasePair;
+import org.semanticscience.narf.structures.parts.DotBracketNotation;
+import org.semanticscience.narf.structures.parts.Nucleotide;
+import org.semanticscience.narf.structures.parts.Sequence;
+import org.semanticscience.narf.structures.secondary.SecondaryStructure;
+
+/**
+ * Tests for the chain lookups of a nucleic acid built from a secondary
+ * structure
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class NucleicAcidChainTest {
+
+	private static NucleicAcid na;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		Sequence seq = new Sequence("GGGAAACCCGGGAAACCC");
+		na = new NucleicAcid(new SecondaryStructure(new DotBracketNotation(
+				seq, "(((...)))(((...)))")));
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		na = null;
+	}
+
+	@Test
+	public void testGetChainIdentifier() {
+		String chain = na.getChainIdentifiers().iterator().next();
+		for (Nucleotide n : na.vertexSet()) {
+			assertEquals(chain, na.getChainIdentifier(n));
+		}
+	}
+
+	@Test
+	public void testGetChainIdentifierOfEqualNucleotide() throws Exception {
+		String chain = na.getChainIdentifiers().iterator().next();
+		Nucleotide n = na.getSequence(chain).getNucleotideAtPosition(1);
+		Nucleotide copy = new Nucleotide(n.getResiduePosition(),
+				n.getResidueIdentifier());
+		assertEquals(n, copy);
+		assertEquals(chain, na.getChainIdentifier(copy));
+	}
+
+	@Test
+	public void testBulkGetChainIdentifiers() throws Exception {
+		String chain = na.getChainIdentifiers().iterator().next();
+		List<Nucleotide> nucs = new ArrayList<Nucleotide>(na.vertexSet());
+		nucs.add(new Nucleotide(100, "A"));
+		List<String> chains = na.getChainIdentifiers(nucs);
+		assertEquals(nucs.size(), chains.size());
+		for (int i = 0; i < nucs.size() - 1; i++) {
+			assertEquals(chain, chains.get(i));
+		}
+		assertNull(chains.get(nucs.size() - 1));
+	}
+
+	@Test
+	public void testTypedInteractions() {
+		String chain = na.getChainIdentifiers().iterator().next();
+		assertEquals(6, na.getBasePairs().size());
+		assertEquals(17, na.getPhosphodiesterBonds().size());
+		assertTrue(na.getBaseStacks().isEmpty());
+		assertSame(na.getBasePairs(), na.getBasePairs());
+		assertSame(na.getBasePairs(), na.getInteractions(BasePair.class));
+		assertEquals(na.getBasePairs(),
+				na.getInteractionsByChain(chain, BasePair.class));
+		assertEquals(na.getInteractions(), na.getInteractionByChain(chain));
+		assertTrue(na.getInteractionsByChain("Z", BasePair.class).isEmpty());
+	}
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2014  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.graphs.nucleicacid;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.semanticscience.narf.graphs.lib.cycles.Cycle;
+import org.semanticscience.narf.graphs.lib.cycles.CycleHelper;
+import org.semanticscience.narf.structures.interactions.BasePair;
+import org.semanticscience.narf.structures.parts.DotBracketNotation;
+import org.semanticscience.narf.structures.parts.Nucleotide;
+import org.semanticscience.narf.structures.parts.Sequence;
+import org.semanticscience.narf.structures.secondary.SecondaryStructure;
+
+/**
+ * Tests for the minimum cycle basis of a nucleic acid built from a secondary
+ * structure
+ * 
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class NucleicAcidMCBTest {
+
+	private static SecondaryStructure ss;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		Sequence seq = new Sequence(
+				"GGGAAACCCAGGGAAACCCUUUGGGGAAACCCCAAAGGGAAACCCAGGGAAACCC");
+		ss = new SecondaryStructure(new DotBracketNotation(seq,
+				"(((...)))((((...))))...((((...))))...(((...)))(((...)))"));
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterClass
+	public static void tearDownAfterClass() throws Exception {
+		ss = null;
+		NucleicAcid.setDefaultMCBEngine(NucleicAcid.MCBEngine.NATIVE);
+	}
+
+	@Test
+	public void testNativeMatchesCDK() {
+		NucleicAcid na = new NucleicAcid(ss);
+		List<Cycle<Nucleotide, InteractionEdge>> n = na
+				.computeMinimumCycleBasis(NucleicAcid.MCBEngine.NATIVE);
+		List<Cycle<Nucleotide, InteractionEdge>> c = na
+				.computeMinimumCycleBasis(NucleicAcid.MCBEngine.CDK);
+		assertEquals(c.size(), n.size());
+		double wn = 0;
+		double wc = 0;
+		for (int i = 0; i < n.size(); i++) {
+			wn += n.get(i).getWeight();
+			wc += c.get(i).getWeight();
+		}
+		assertEquals(wc, wn, 0.0);
+		// both engines find the same cycles and give them the same profiles,
+		// whichever direction they walk them in
+		Map<Set<InteractionEdge>, Cycle<Nucleotide, InteractionEdge>> cdkCycles = new HashMap<Set<InteractionEdge>, Cycle<Nucleotide, InteractionEdge>>();
+		for (Cycle<Nucleotide, InteractionEdge> aCycle : c) {
+			cdkCycles.put(edgeSet(aCycle), aCycle);
+		}
+		assertEquals(c.size(), cdkCycles.size());
+		for (Cycle<Nucleotide, InteractionEdge> aCycle : n) {
+			Cycle<Nucleotide, InteractionEdge> cdkCycle = cdkCycles
+					.get(edgeSet(aCycle));
+			assertNotNull(cdkCycle);
+			assertEquals(
+					CycleHelper.findMinimalNormalizationString(cdkCycle, true),
+					CycleHelper.findMinimalNormalizationString(aCycle, true));
+			assertEquals(
+					CycleHelper.findMinimalNormalizationString(cdkCycle, false),
+					CycleHelper.findMinimalNormalizationString(aCycle, false));
+		}
+	}
+
+	private static Set<InteractionEdge> edgeSet(
+			Cycle<Nucleotide, InteractionEdge> aCycle) {
+		Set<InteractionEdge> rm = Collections
+				.newSetFromMap(new IdentityHashMap<InteractionEdge, Boolean>());
+		rm.addAll(aCycle.getEdgeList());
+		return rm;
+	}
+
+	@Test
+	public void testMCBIsMemoized() {
+		NucleicAcid na = new NucleicAcid(ss);
+		List<Cycle<Nucleotide, InteractionEdge>> mcb = na
+				.getMinimumCycleBasis();
+		assertFalse(mcb.isEmpty());
+		assertSame(mcb, na.getMinimumCycleBasis());
+		assertFalse(na.getMcbVertexMap().isEmpty());
+		assertNotNull(na.findMCBNeighbours(mcb.get(0)));
+	}
+
+	@Test
+	public void testBulkLoadNeverComputesMCB() {
+		NucleicAcid.setDefaultMCBEngine(NucleicAcid.MCBEngine.NONE);
+		NucleicAcid na = new NucleicAcid(ss);
+		NucleicAcid.setDefaultMCBEngine(NucleicAcid.MCBEngine.NATIVE);
+		assertEquals(NucleicAcid.MCBEngine.NONE, na.getMCBEngine());
+		assertFalse(na.getBasePairs().isEmpty());
+		assertTrue(na.getMinimumCycleBasis().isEmpty());
+		assertTrue(na.getMcbVertexMap().isEmpty());
+	}
+
+	@Test
+	public void testAddInteractionRepairsMCB() {
+		NucleicAcid na = new NucleicAcid(ss);
+		na.getMinimumCycleBasis();
+		DotBracketNotation dbn = ss.getDotBracketNotation();
+		// a chord inside the first hairpin loop and a pair between hairpins
+		BasePair[] added = new BasePair[] {
+				new BasePair(dbn.getNucleotideAtPosition(4),
+						dbn.getNucleotideAtPosition(6)),
+				new BasePair(dbn.getNucleotideAtPosition(5),
+						dbn.getNucleotideAtPosition(15)) };
+		NucleicAcid fresh = new NucleicAcid(ss);
+		for (BasePair bp : added) {
+			assertTrue(na.addInteraction(bp));
+			assertFalse(na.addInteraction(bp));
+			fresh.addInteraction(bp);
+		}
+		assertTrue(na.getBasePairs().contains(added[1]));
+		assertSameBasis(fresh.getMinimumCycleBasis(),
+				na.getMinimumCycleBasis());
+	}
+
+	@Test
+	public void testRemoveInteractionRepairsMCB() {
+		NucleicAcid na = new NucleicAcid(ss);
+		na.getMinimumCycleBasis();
+		List<BasePair> pairs = new ArrayList<BasePair>(na.getBasePairs());
+		for (int i = 0; i < 4; i++) {
+			assertTrue(na.removeInteraction(pairs.get(i)));
+			assertFalse(na.removeInteraction(pairs.get(i)));
+			NucleicAcid fresh = new NucleicAcid(ss);
+			for (int j = 0; j <= i; j++) {
+				fresh.removeInteraction(pairs.get(j));
+			}
+			assertSameBasis(fresh.getMinimumCycleBasis(),
+					na.getMinimumCycleBasis());
+			for (Cycle<Nucleotide, InteractionEdge> c : na
+					.getMinimumCycleBasis()) {
+				for (InteractionEdge e : c.getEdgeList()) {
+					assertTrue(na.containsEdge(e));
+				}
+			}
+		}
+	}
+
+	private static void assertSameBasis(
+			List<Cycle<Nucleotide, InteractionEdge>> expected,
+			List<Cycle<Nucleotide, InteractionEdge>> actual) {
+		assertEquals(expected.size(), actual.size());
+		double we = 0;
+		double wa = 0;
+		for (int i = 0; i < expected.size(); i++) {
+			we += expected.get(i).getWeight();
+			wa += actual.get(i).getWeight();
+		}
+		assertEquals(we, wa, 0.0);
+	}
+}
@@ -20,6 +20,7 @@
  */
 package org.semanticscience.narf.structures.interactions;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -43,10 +44,59 @@ import org.semanticscience.narf.structures.parts.Nucleotide;
 public class BasePair extends NucleotideInteraction implements
 		Comparable<BasePair> {
 
+	private static final String RNAO = "http://purl.obolibrary.org/obo/RNAO_";
 	/**
-	 * A mapping between RNAO base pair classes and a unique integer
+	 * A mapping between RNAO base pair classes and a unique integer, shared by
+	 * all base pairs
 	 */
-	private Map<String, Integer> normalizedbasePairMapping;
+	private static final Map<String, Integer> NORMALIZED_BASE_PAIR_MAPPING = Collections
+			.unmodifiableMap(makeNormalizedBasePairMap());
+	/**
+	 * The RNAO class of a base pair for every Leontis-Westhof class, when the
+	 * pair of residues is not in RNAO_CLASSES_BY_RESIDUES
+	 */
+	private static final Map<String, String> RNAO_CLASSES_BY_LW_CLASS = new HashMap<String, String>();
+	/**
+	 * The RNAO class of a base pair for the pairs of residues that are
+	 * forbidden (or the only ones accepted) in a Leontis-Westhof class, keyed
+	 * by LW class followed by the two residue identifiers
+	 */
+	private static final Map<String, String> RNAO_CLASSES_BY_RESIDUES = new HashMap<String, String>();
+	static {
+		// Table 2 of http://www.ncbi.nlm.nih.gov/pmc/articles/PMC1370104/
+		addRnaoClass("cWW", "0000003");
+		addRnaoClasses("cWW", "0000116", "GG");
+		addRnaoClass("cSS", "0000013");
+		for (String lw : new String[] { "cWH", "cHW" }) {
+			addRnaoClass(lw, "0000005");
+			addRnaoClasses(lw, "0000116", "AC", "CA", "CU", "UC", "AA", "CG",
+					"GC", "UG", "GU");
+		}
+		addRnaoClass("cWS", "0000007");
+		addRnaoClass("cSW", "0000007");
+		addRnaoClass("cHH", "0000009");
+		// CC is an accepted cHH pairing, as it always was in this class
+		addRnaoClasses("cHH", "0000116", "AA", "CU", "UC", "CA", "AC", "UA",
+				"AU", "UG", "GU", "UU");
+		addRnaoClass("cHS", "0000011");
+		addRnaoClass("cSH", "0000011");
+		addRnaoClass("tHS", "0000012");
+		addRnaoClass("tSH", "0000012");
+		addRnaoClass("tSS", "0000014");
+		addRnaoClasses("tSS", "0000116", "CA", "AC", "CC", "CU", "UC", "CG",
+				"GC", "UA", "AU", "UU", "UG", "GU");
+		// only GU, GG and GC are accepted
+		addRnaoClass("tWW", "0000117");
+		addRnaoClasses("tWW", "0000004", "GU", "UG", "GG", "GC", "CG");
+		for (String lw : new String[] { "tWH", "tHW" }) {
+			addRnaoClass(lw, "0000006");
+			addRnaoClasses(lw, "0000117", "CU", "UC", "AC", "CA", "AU", "UA",
+					"CG", "GC", "GA", "AG");
+		}
+		addRnaoClass("tWS", "0000008");
+		addRnaoClass("tSW", "0000008");
+		addRnaoClass("tHH", "0000010");
+	}
 	/**
 	 * An identifying label for this base pair
 	 */
@@ -98,6 +148,10 @@ public class BasePair extends NucleotideInteraction implements
 	 * The RNAO class uri that corresponds to this base pair
 	 */
 	private String rnaoclassuri;
+	/**
+	 * The integer representation of rnaoclassuri
+	 */
+	private int normalizedBasePairClass;
 
 	/**
 	 * Construct a new base pairing interactions between two nucleotide
@@ -128,8 +182,7 @@ public class BasePair extends NucleotideInteraction implements
 		secondEdge = aSecondEdge;
 		glycosidicOrientation = aGlycosidicOrientation;
 		strandBPOrientation = aStrandBPOrientation;
-		normalizedbasePairMapping = makeNormalizedBasePairMap();
-		rnaoclassuri = "http://purl.obolibrary.org/obo/RNAO_0000001";
+		this.setRNAOClassUri(RNAO + "0000001");
 	}
 
 	/**
@@ -164,8 +217,7 @@ public class BasePair extends NucleotideInteraction implements
 		label = aLabel;
 		saengerClass = aSaengerClass;
 		LWClass = aLWClass;
-		normalizedbasePairMapping = makeNormalizedBasePairMap();
-		rnaoclassuri = this.inferRnaOClass();
+		this.setRNAOClassUri(this.inferRnaOClass());
 	}
 
 	/**
@@ -197,8 +249,7 @@ public class BasePair extends NucleotideInteraction implements
 				aGlycosidicOrientation, InferNucleotideParameters
 						.findStrandBasePairOrientation(aFirstEdge, aSecondEdge,
 								aGlycosidicOrientation));
-		normalizedbasePairMapping = makeNormalizedBasePairMap();
-		rnaoclassuri = this.inferRnaOClass();
+		this.setRNAOClassUri(this.inferRnaOClass());
 	}
 
 	/**
@@ -214,8 +265,7 @@ public class BasePair extends NucleotideInteraction implements
 	 */
 	public BasePair(Nucleotide aFirstNucleotide, Nucleotide aSecondNucleotide) {
 		super(aFirstNucleotide, aSecondNucleotide);
-		normalizedbasePairMapping = makeNormalizedBasePairMap();
-		rnaoclassuri = this.inferRnaOClass();
+		this.setRNAOClassUri(this.inferRnaOClass());
 		
 		
 	}
@@ -261,6 +311,18 @@ public class BasePair extends NucleotideInteraction implements
 		return this.rnaoclassuri;
 	}
 
+	/**
+	 * Set the rnao class uri of this base pair and its integer representation
+	 * 
+	 * @param anRnaoClassUri
+	 *            a key of the normalized base pair mapping
+	 */
+	private void setRNAOClassUri(String anRnaoClassUri) {
+		rnaoclassuri = anRnaoClassUri;
+		normalizedBasePairClass = NORMALIZED_BASE_PAIR_MAPPING
+				.get(anRnaoClassUri);
+	}
+
 	/**
 	 * Orientation of the base pair (parallel|antiparallel).
 	 * 
@@ -349,299 +411,31 @@ public class BasePair extends NucleotideInteraction implements
 	 */
 	public String inferRnaOClass() {
 		String lwclass = this.getLWClass();
-		if (lwclass != null) {
-			if (lwclass.equals("cWW")) {
-				// check if the two nucleotides are guanine
-				if (this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("G")
-						&& this.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("G")) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				} else {
-					return "http://purl.obolibrary.org/obo/RNAO_0000003";
-				}
-			} else if (lwclass.equals("cSS")) {
-				return "http://purl.obolibrary.org/obo/RNAO_0000013";
-			} else if (lwclass.equals("cWH") || lwclass.equals("cHW")) {
-				// check for forbidden pairings
-				// CA
-				if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("A") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("C"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("C") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("A"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				}
-				// UC
-				else if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("C") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("U"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("U") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("C"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				}
-				// AA
-				else if (this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("A")
-						&& this.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("A")) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				}
-				// GC
-				else if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("C") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("G"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("G") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("C"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				}
-				// GU
-				else if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("U") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("G"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("G") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("U"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				} else {
-					return "http://purl.obolibrary.org/obo/RNAO_0000005";
-				}
-			} else if (lwclass.equals("cWS") || lwclass.equals("cSW")) {
-				return "http://purl.obolibrary.org/obo/RNAO_0000007";
-			} else if (lwclass.equals("cHH")) {
-				// check for forbidden pairings
-				// CC
-				if (this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("A")
-						&& this.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("A")) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				}
-				// CU
-				else if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("C") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("U"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("U") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("C"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				}
-				// CA
-				else if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("C") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("A"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("A") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("C"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				}
-				// UA
-				else if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("U") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("A"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("A") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("U"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				}
-				// UG
-				else if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("U") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("G"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("G") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("U"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				}
-				// UU
-				else if (this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("U")
-						&& this.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("U")) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				}
-				// AA
-				else if (this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("A")
-						&& this.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("A")) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				} else {
-					return "http://purl.obolibrary.org/obo/RNAO_0000009";
-				}
-			} else if (lwclass.equals("cHS") || lwclass.equals("cSH")) {
-				return "http://purl.obolibrary.org/obo/RNAO_0000011";
-			} else if (lwclass.equals("tHS") || lwclass.equals("tSH")) {
-				return "http://purl.obolibrary.org/obo/RNAO_0000012";
-			} else if (lwclass.equals("tSS")) {
-				// check for forbiden pairings
-				// CA
-				if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("C") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("A"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("A") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("C"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				}
-				// CC
-				else if (this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("C")
-						&& this.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("C")) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				}
-				// CU
-				else if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("C") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("U"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("U") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("C"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				}
-				// CG
-				else if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("C") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("G"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("G") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("C"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				}
-				// UA
-				else if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("U") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("A"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("A") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("U"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				}
-				// UU
-				else if (this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("U")
-						&& this.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("U")) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				}
-				// UG
-				else if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("U") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("G"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("G") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("U"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000116";
-				} else {
-					return "http://purl.obolibrary.org/obo/RNAO_0000014";
-				}
-			} else if (lwclass.equals("tWW")) {
-				// only accepted pairings are GU, GG and GC
-				if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("G") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("U"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("U") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("G"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000004";
-				} else if (this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("G")
-						&& this.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("G")) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000004";
-				} else if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("G") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("C"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("C") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("G"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000004";
-				} else {
-					return "http://purl.obolibrary.org/obo/RNAO_0000117";
-				}
-			} else if (lwclass.equals("tWH") || lwclass.equals("tHW")) {
-				// check for forbidden pairings
-				// CU
-				if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("C") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("U"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("U") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("C"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000117";
-				}
-				// AC
-				else if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("A") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("C"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("C") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("A"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000117";
-				}
-				// AU
-				else if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("A") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("U"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("U") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("A"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000117";
-				}
-				// GC
-				else if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("C") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("G"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("G") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("C"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000117";
-				}
-				// GA
-				else if ((this.getFirstNucleotide().getResidueIdentifier()
-						.equalsIgnoreCase("G") && this.getSecondNucleotide()
-						.getResidueIdentifier().equalsIgnoreCase("A"))
-						|| (this.getFirstNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("A") && this
-								.getSecondNucleotide().getResidueIdentifier()
-								.equalsIgnoreCase("G"))) {
-					return "http://purl.obolibrary.org/obo/RNAO_0000117";
-				} else {
-					return "http://purl.obolibrary.org/obo/RNAO_0000006";
-				}
-			} else if (lwclass.equals("tWS") || lwclass.equals("tSW")) {
-				return "http://purl.obolibrary.org/obo/RNAO_0000008";
-			} else if (lwclass.equals("tHH")) {
-				return "http://purl.obolibrary.org/obo/RNAO_0000010";
-			} else {
-				return "http://purl.obolibrary.org/obo/RNAO_0000001";
-			}
-		} else {
+		if (lwclass == null) {
 			//no edge information is found. All we can assert is that it is a base pair
-			return "http://purl.obolibrary.org/obo/RNAO_0000001";
+			return RNAO + "0000001";
+		}
+		String rm = RNAO_CLASSES_BY_RESIDUES.get(lwclass
+				+ this.getFirstNucleotide().getResidueIdentifier() + ":"
+				+ this.getSecondNucleotide().getResidueIdentifier());
+		if (rm == null) {
+			rm = RNAO_CLASSES_BY_LW_CLASS.get(lwclass);
+		}
+		if (rm == null) {
+			return RNAO + "0000001";
+		}
+		return rm;
+	}
+
+	private static void addRnaoClass(String aLWClass, String anRnaoId) {
+		RNAO_CLASSES_BY_LW_CLASS.put(aLWClass, (RNAO + anRnaoId).intern());
+	}
+
+	private static void addRnaoClasses(String aLWClass, String anRnaoId,
+			String... someResiduePairs) {
+		for (String aPair : someResiduePairs) {
+			RNAO_CLASSES_BY_RESIDUES.put(aLWClass + aPair.charAt(0) + ":"
+					+ aPair.charAt(1), (RNAO + anRnaoId).intern());
 		}
 	}
 
@@ -652,16 +446,17 @@ public class BasePair extends NucleotideInteraction implements
 	 * @return an integer representation of a base pair class's RNAO annotation
 	 */
 	public Integer getNormalizedBasePairClass() {
-		String anrano = null;
-		try {
-			Map<String, Integer> m = this.getNormalizedBPMapping();
-			anrano = this.getRNAOClassUri();
-			return m.get(anrano);
-		} catch (NullPointerException e) {
-			System.out.println("Tried to get: " + anrano);
-			e.printStackTrace();
-		}
-		return null;
+		return normalizedBasePairClass;
+	}
+
+	/**
+	 * Get the integer representation of the RNAO base pair class without
+	 * boxing it
+	 * 
+	 * @return the integer returned by getNormalizedBasePairClass()
+	 */
+	public int getNormalizedBasePairCode() {
+		return normalizedBasePairClass;
 	}
 
 	/**
@@ -670,7 +465,7 @@ public class BasePair extends NucleotideInteraction implements
 	 * 
 	 * @return mapping between RNAO base pair classes and a unique integer
 	 */
-	private Map<String, Integer> makeNormalizedBasePairMap() {
+	private static Map<String, Integer> makeNormalizedBasePairMap() {
 		Map<String, Integer> bpMap = new HashMap<String, Integer>();
 		// add all of the classes
 		bpMap.put("http://purl.obolibrary.org/obo/RNAO_0000001", 1);
@@ -692,8 +487,15 @@ public class BasePair extends NucleotideInteraction implements
 		return bpMap;
 	}
 
+	/**
+	 * Get the mapping between RNAO base pair classes and their integer
+	 * representation. The mapping is shared by all base pairs and cannot be
+	 * modified.
+	 * 
+	 * @return the mapping between RNAO base pair classes and integers
+	 */
 	public Map<String, Integer> getNormalizedBPMapping() {
-		return this.normalizedbasePairMapping;
+		return NORMALIZED_BASE_PAIR_MAPPING;
 	}
 
 	/*
@@ -20,6 +20,7 @@
  */
 package org.semanticscience.narf.structures.parts;
 
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
@@ -36,9 +37,17 @@ import org.semanticscience.narf.structures.lib.exceptions.InvalidResidueExceptio
  */
 public class Nucleotide extends Residue {
 	/**
-	 * A mapping between the residue identifier and a unique integer
+	 * A mapping between the residue identifier and a unique integer, shared by
+	 * all nucleotides
 	 */
-	private Map<String, Integer> normalizedNucleotideMapping;
+	private static final Map<String, Integer> NORMALIZED_NUCLEOTIDE_MAPPING = Collections
+			.unmodifiableMap(makeNormalizedNucleotideMap());
+	/**
+	 * The integer of the residue identifier of this nucleotide in
+	 * NORMALIZED_NUCLEOTIDE_MAPPING, or -1 if the residue identifier is not
+	 * in the mapping
+	 */
+	private final int normalizedNucleotide;
 	/**
 	 * the Pdb id where tho
 	 */
@@ -122,8 +131,9 @@ public class Nucleotide extends Residue {
 		nucleotideConformation = aConformationLabel;
 		puckerAtom = aPuckerAtom;
 		puckerQuality = aPuckerQuality;
-		normalizedNucleotideMapping = this.makeNormalizedNucleotideMap();
-		
+		Integer code = NORMALIZED_NUCLEOTIDE_MAPPING.get(this
+				.getResidueIdentifier());
+		normalizedNucleotide = (code == null) ? -1 : code;
 	}
 
 	/**
@@ -154,8 +164,6 @@ public class Nucleotide extends Residue {
 				aPuckerAtom, aPuckerQuality);
 		pdbId = aPdbId;
 		chainId = aChainId;
-		normalizedNucleotideMapping = this.makeNormalizedNucleotideMap();
-
 	}
 
 	/**
@@ -261,9 +269,22 @@ public class Nucleotide extends Residue {
 	 * @return an integer representation for a given nucleotide
 	 */
 	public Integer getNormalizedNucleotide() {
-		Map<String, Integer> m = this.getNormalizedNucleotideMapping();
-		String res_id = this.getResidueIdentifier();
-		return m.get(res_id);
+		if (normalizedNucleotide < 0) {
+			return null;
+		}
+		return normalizedNucleotide;
+	}
+
+	/**
+	 * Retrieve the integer representation of this nucleotide without boxing
+	 * it. The integer is looked up once, when the nucleotide is constructed.
+	 * 
+	 * @return the integer returned by getNormalizedNucleotide(), or -1 if the
+	 *         residue identifier of this nucleotide has no integer
+	 *         representation
+	 */
+	public int getNormalizedNucleotideCode() {
+		return normalizedNucleotide;
 	}
 
 	/**
@@ -272,7 +293,7 @@ public class Nucleotide extends Residue {
 	 * 
 	 * @return mapping between a residue identifier and a unique integer
 	 */
-	private Map<String, Integer> makeNormalizedNucleotideMap() {
+	private static Map<String, Integer> makeNormalizedNucleotideMap() {
 		Map<String, Integer> rm = new HashMap<String, Integer>();
 		rm.put("0C", 21);
 		rm.put("0DX", 22);
@@ -853,8 +874,29 @@ public class Nucleotide extends Residue {
 		return rm; 
 	}
 
+	/**
+	 * Get the mapping between residue identifiers and their integer
+	 * representation. The mapping is shared by all nucleotides and cannot be
+	 * modified.
+	 * 
+	 * @return the mapping between residue identifiers and integers
+	 */
 	public Map<String, Integer> getNormalizedNucleotideMapping() {
-		return this.normalizedNucleotideMapping;
+		return NORMALIZED_NUCLEOTIDE_MAPPING;
+	}
+
+	/**
+	 * Find the integer representation of a residue identifier in the mapping
+	 * shared by all nucleotides
+	 * 
+	 * @param aResidueIdentifier
+	 *            a residue identifier, eg. A or DA
+	 * @return the integer of aResidueIdentifier, or -1 if it is not in the
+	 *         mapping
+	 */
+	public static int findNormalizedNucleotideCode(String aResidueIdentifier) {
+		Integer rm = NORMALIZED_NUCLEOTIDE_MAPPING.get(aResidueIdentifier);
+		return (rm == null) ? -1 : rm;
 	}
 
 	/*
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2012  Jose Cruz-Toledo
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.semanticscience.narf.structures.interactions;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.semanticscience.narf.structures.lib.exceptions.InvalidResidueException;
+import org.semanticscience.narf.structures.parts.Nucleotide;
+
+/**
+ * @author Jose Cruz-Toledo
+ * 
+ */
+public class BasePairTest {
+	private static final String RNAO = "http://purl.obolibrary.org/obo/RNAO_";
+
+	private static BasePair makeBasePair(String r1, String r2, String aLWClass)
+			throws InvalidResidueException {
+		return new BasePair(new Nucleotide(1, r1), new Nucleotide(10, r2),
+				null, null, null, null, null, null, aLWClass);
+	}
+
+	@Test
+	public void testInferRnaOClass() throws InvalidResidueException {
+		assertEquals(RNAO + "0000003", makeBasePair("G", "C", "cWW")
+				.getRNAOClassUri());
+		assertEquals(RNAO + "0000116", makeBasePair("G", "G", "cWW")
+				.getRNAOClassUri());
+		assertEquals(RNAO + "0000116", makeBasePair("u", "g", "cHW")
+				.getRNAOClassUri());
+		assertEquals(RNAO + "0000005", makeBasePair("A", "G", "cWH")
+				.getRNAOClassUri());
+		// CC is accepted in cHH
+		assertEquals(RNAO + "0000009", makeBasePair("C", "C", "cHH")
+				.getRNAOClassUri());
+		assertEquals(RNAO + "0000116", makeBasePair("A", "A", "cHH")
+				.getRNAOClassUri());
+		assertEquals(RNAO + "0000116", makeBasePair("C", "C", "tSS")
+				.getRNAOClassUri());
+		assertEquals(RNAO + "0000004", makeBasePair("C", "G", "tWW")
+				.getRNAOClassUri());
+		assertEquals(RNAO + "0000117", makeBasePair("A", "U", "tWW")
+				.getRNAOClassUri());
+		assertEquals(RNAO + "0000117", makeBasePair("A", "G", "tHW")
+				.getRNAOClassUri());
+		assertEquals(RNAO + "0000010", makeBasePair("A", "G", "tHH")
+				.getRNAOClassUri());
+		// modified residues only get the class of their LW class
+		assertEquals(RNAO + "0000005", makeBasePair("PSU", "A", "cWH")
+				.getRNAOClassUri());
+		assertEquals(RNAO + "0000001", makeBasePair("A", "G", "xyz")
+				.getRNAOClassUri());
+		assertEquals(RNAO + "0000001", new BasePair(new Nucleotide(1, "G"),
+				new Nucleotide(10, "C")).getRNAOClassUri());
+	}
+
+	@Test
+	public void testNormalizedBasePairClass() throws InvalidResidueException {
+		BasePair bp = makeBasePair("G", "C", "cWW");
+		assertEquals(Integer.valueOf(16), bp.getNormalizedBasePairClass());
+		assertEquals(16, bp.getNormalizedBasePairCode());
+		BasePair other = new BasePair(new Nucleotide(2, "A"), new Nucleotide(
+				9, "U"));
+		assertEquals(1, other.getNormalizedBasePairCode());
+		assertSame(bp.getNormalizedBPMapping(), other.getNormalizedBPMapping());
+		assertEquals(bp.inferRnaOClass(), bp.getRNAOClassUri());
+	}
+}
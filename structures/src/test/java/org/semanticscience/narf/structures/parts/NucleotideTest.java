@@ -20,6 +20,8 @@
  */
 package org.semanticscience.narf.structures.parts;
 
+import static org.junit.Assert.*;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -44,5 +46,24 @@ public class NucleotideTest {
 	public void invalidNucleotide() throws InvalidResidueException{
 		Nucleotide n = new Nucleotide(-1, "");
 	}
+	@Test
+	public void normalizedNucleotide() throws InvalidResidueException{
+		assertEquals(Integer.valueOf(108), nuc.getNormalizedNucleotide());
+		assertEquals(108, nuc.getNormalizedNucleotideCode());
+		// residue identifiers are upper cased
+		assertEquals(286, new Nucleotide(2, "g").getNormalizedNucleotideCode());
+		Nucleotide unknown = new Nucleotide(3, "QQQ");
+		assertNull(unknown.getNormalizedNucleotide());
+		assertEquals(-1, unknown.getNormalizedNucleotideCode());
+		// the mapping is shared by all nucleotides
+		assertSame(nuc.getNormalizedNucleotideMapping(),
+				unknown.getNormalizedNucleotideMapping());
+		assertEquals(108, Nucleotide.findNormalizedNucleotideCode("A"));
+		assertEquals(-1, Nucleotide.findNormalizedNucleotideCode("QQQ"));
+	}
+	@Test(expected = UnsupportedOperationException.class)
+	public void normalizedNucleotideMappingIsImmutable(){
+		nuc.getNormalizedNucleotideMapping().put("QQQ", 1);
+	}
 	
 }